@@ -0,0 +1,75 @@
+package org.example.benchmark;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.example.client.BulbapediaClient;
+import org.example.client.DataCollectionCoordinator;
+import org.example.parser.WikiInfoboxParser;
+import org.example.pipeline.CrawlPipeline;
+import org.example.rdf.PokemonRDFConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Conversion of crawled Pokemon into one graph by number of converter threads, with the
+ * crawl replaced by synthetic pages that are already parsed.
+ *
+ * <pre>
+ * mvn -q -Pbenchmark compile exec:exec -Dexec.executable=java \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main CrawlPipelineBenchmark -p workers=1,2,4,8"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CrawlPipelineBenchmark {
+    private static final int POKEMON = 20000;
+
+    @Param({"1", "2", "4", "8"})
+    public int workers;
+
+    private CrawlPipeline pipeline;
+
+    @Setup
+    public void generate() {
+        Random random = new Random(42);
+        List<Map<String, String>> crawled = new ArrayList<>();
+        for (int ndex = 1; ndex <= POKEMON; ndex++) {
+            crawled.add(SyntheticPokedex.pokemonInfo(ndex, random));
+        }
+        DataCollectionCoordinator coordinator = new DataCollectionCoordinator(new BulbapediaClient()) {
+            @Override
+            public void collectAllData(Consumer<Map<String, String>> sink) {
+                crawled.forEach(sink);
+            }
+        };
+        pipeline = new CrawlPipeline(coordinator, new WikiInfoboxParser(), new PokemonRDFConverter(), 256, workers);
+    }
+
+    @Benchmark
+    public Graph convert() throws InterruptedException {
+        Graph graph = GraphFactory.createDefaultGraph();
+        pipeline.run(StreamRDFLib.graph(graph));
+        return graph;
+    }
+}
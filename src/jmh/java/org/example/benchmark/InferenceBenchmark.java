@@ -0,0 +1,50 @@
+package org.example.benchmark;
+
+import org.apache.jena.rdf.model.Model;
+import org.example.inference.InferenceHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inference on load: materialization of the closure of the base data and indexing of its
+ * owl:sameAs classes.
+ *
+ * <pre>
+ * mvn -q -Pbenchmark compile exec:exec -Dexec.executable=java \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main InferenceBenchmark -p triples=1000,100000"
+ * </pre>
+ * The 10M triple size needs a heap of several GB, set with {@code -jvmArgsAppend -Xmx8g}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class InferenceBenchmark {
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public long triples;
+
+    private Model base;
+
+    @Setup
+    public void generate() {
+        base = SyntheticPokedex.generateTriples(triples, 42);
+    }
+
+    @Benchmark
+    public Model addInferenceRules() {
+        return InferenceHandler.addInferenceRules(base);
+    }
+}
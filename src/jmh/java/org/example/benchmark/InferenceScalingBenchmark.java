@@ -0,0 +1,60 @@
+package org.example.benchmark;
+
+import org.apache.jena.rdf.model.Model;
+import org.example.inference.MaterializationEngine;
+import org.example.inference.MaterializationResult;
+import org.example.inference.ParallelMaterializationEngine;
+import org.example.inference.ReasoningMode;
+import org.example.inference.SemiNaiveMaterializationEngine;
+
+import java.util.Arrays;
+
+/**
+ * Materialization time of the parallel engine by number of workers, against the sequential
+ * semi-naive engine.
+ *
+ * <pre>
+ * mvn -q -Pbenchmark compile exec:java -Dexec.mainClass=org.example.benchmark.InferenceScalingBenchmark \
+ *     -Dexec.args="800000 1 2 4 8 16"
+ * </pre>
+ * Arguments are the number of Pokemon (800,000 is about 10M base triples) and the worker
+ * counts to measure. Each configuration is run {@value #RUNS} times and the best time is kept.
+ */
+public class InferenceScalingBenchmark {
+    private static final int RUNS = 3;
+
+    public static void main(String[] args) {
+        int pokemonCount = args.length > 0 ? Integer.parseInt(args[0]) : 800000;
+        int[] workers = args.length > 1
+            ? Arrays.stream(args, 1, args.length).mapToInt(Integer::parseInt).toArray()
+            : new int[] {1, 2, 4, 8, 16};
+
+        Model base = SyntheticPokedex.generate(pokemonCount, 42);
+        System.out.printf("%d Pokemon, %d base triples, %d cores%n",
+            pokemonCount, base.size(), Runtime.getRuntime().availableProcessors());
+
+        long sequential = bestOf(new SemiNaiveMaterializationEngine(ReasoningMode.MATERIALIZED.rules()), base);
+        System.out.printf("%-32s %8d ms%n", "semi-naive", sequential);
+        for (int parallelism : workers) {
+            try (ParallelMaterializationEngine engine = new ParallelMaterializationEngine(
+                    ReasoningMode.MATERIALIZED.rules(), parallelism)) {
+                long elapsed = bestOf(engine, base);
+                System.out.printf("%-32s %8d ms   speedup %5.2f%n", engine.getName(), elapsed,
+                    (double) sequential / elapsed);
+            }
+        }
+    }
+
+    private static long bestOf(MaterializationEngine engine, Model base) {
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            MaterializationResult result = engine.materialize(base);
+            best = Math.min(best, (System.nanoTime() - start) / 1_000_000);
+            if (result.getDerivedCount() == 0) {
+                throw new IllegalStateException("Nothing derived by " + engine.getName());
+            }
+        }
+        return best;
+    }
+}
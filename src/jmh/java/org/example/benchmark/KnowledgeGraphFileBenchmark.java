@@ -0,0 +1,76 @@
+package org.example.benchmark;
+
+import org.apache.jena.rdf.model.Model;
+import org.example.store.KnowledgeGraphFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Loading the saved knowledge graph on startup, from the Turtle file and from its Thrift
+ * snapshot.
+ *
+ * <pre>
+ * mvn -q -Pbenchmark compile exec:exec -Dexec.executable=java \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main KnowledgeGraphFileBenchmark -p triples=1000000"
+ * </pre>
+ * The 10M triple size needs a heap of several GB, set with {@code -jvmArgsAppend -Xmx8g}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class KnowledgeGraphFileBenchmark {
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public long triples;
+
+    private Path directory;
+    private KnowledgeGraphFile turtle;
+    private KnowledgeGraphFile snapshot;
+
+    @Setup
+    public void save() throws IOException {
+        Model model = SyntheticPokedex.generateTriples(triples, 42);
+        directory = Files.createTempDirectory("kg-file-benchmark");
+        turtle = new KnowledgeGraphFile(directory.resolve("turtle.ttl"));
+        turtle.replace(model.getGraph());
+        snapshot = new KnowledgeGraphFile(directory.resolve("snapshot.ttl"));
+        snapshot.replace(model.getGraph());
+        snapshot.saveSnapshot(model.getGraph());
+    }
+
+    @TearDown
+    public void delete() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public Model readTurtle() throws IOException {
+        return turtle.read();
+    }
+
+    @Benchmark
+    public Model readSnapshot() throws IOException {
+        return snapshot.read();
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.benchmark;
+
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.example.inference.InferenceDatasetGraph;
+import org.example.inference.MaterializationResult;
+import org.example.inference.ReasoningMode;
+import org.example.inference.SemiNaiveMaterializationEngine;
+import org.example.server.LinkedDataServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering of a resource page of the Linked Data interface, as HTML and as Turtle, over the
+ * inference dataset the server reads.
+ *
+ * <pre>
+ * mvn -q -Pbenchmark compile exec:exec -Dexec.executable=java \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main LinkedDataServerBenchmark -p triples=100000"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LinkedDataServerBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public long triples;
+
+    private LinkedDataServer server;
+    private int pokemonCount;
+    private final Random random = new Random(7);
+
+    @Setup
+    public void load() {
+        Model base = SyntheticPokedex.generateTriples(triples, 42);
+        MaterializationResult result = new SemiNaiveMaterializationEngine(ReasoningMode.MATERIALIZED.rules())
+            .materialize(base);
+        InferenceDatasetGraph dataset = new InferenceDatasetGraph(DatasetGraphFactory.createTxnMem(),
+            ReasoningMode.MATERIALIZED);
+        dataset.load(base.getGraph(), result.getInferredModel().getGraph());
+        pokemonCount = base.listSubjectsWithProperty(base.createProperty(SyntheticPokedex.BASE_URI + "primaryType"))
+            .toList().size();
+        // The server is not started, only its rendering is measured
+        server = new LinkedDataServer(DatasetFactory.wrap(dataset), 0);
+    }
+
+    @Benchmark
+    public String renderHtml() {
+        return server.renderHtml(nextId());
+    }
+
+    @Benchmark
+    public String renderTurtle() {
+        return server.renderTurtle(nextId());
+    }
+
+    private String nextId() {
+        return String.format("%04d", 1 + random.nextInt(pokemonCount));
+    }
+}
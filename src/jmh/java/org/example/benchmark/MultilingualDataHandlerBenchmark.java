@@ -0,0 +1,74 @@
+package org.example.benchmark;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.example.parser.MultilingualDataHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading of the multilingual names and enrichment of a model with them.
+ *
+ * <pre>
+ * mvn -q -Pbenchmark compile exec:exec -Dexec.executable=java \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main MultilingualDataHandlerBenchmark"
+ * </pre>
+ * Enrichment adds to the model, so each call enriches a fresh copy of the synthetic data; the
+ * copy is made outside the measurement.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MultilingualDataHandlerBenchmark {
+    /**
+     * The synthetic data by size, and the names loaded once to enrich it with.
+     */
+    @State(Scope.Thread)
+    public static class Enrichment {
+        @Param({"1000", "100000"})
+        public long triples;
+
+        private Model base;
+        private Model model;
+        private MultilingualDataHandler handler;
+
+        @Setup
+        public void generate() {
+            base = SyntheticPokedex.generateTriples(triples, 42);
+            handler = new MultilingualDataHandler();
+            handler.loadTSVData();
+        }
+
+        @Setup(Level.Invocation)
+        public void copy() {
+            model = ModelFactory.createDefaultModel().add(base);
+        }
+    }
+
+    @Benchmark
+    public MultilingualDataHandler loadTSVData() {
+        MultilingualDataHandler loaded = new MultilingualDataHandler();
+        loaded.loadTSVData();
+        return loaded;
+    }
+
+    @Benchmark
+    public Model enrichModelWithLabels(Enrichment enrichment) {
+        enrichment.handler.enrichModelWithLabels(enrichment.model);
+        return enrichment.model;
+    }
+}
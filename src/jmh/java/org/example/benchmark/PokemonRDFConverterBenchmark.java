@@ -0,0 +1,75 @@
+package org.example.benchmark;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.example.rdf.PokemonRDFConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion of one parsed Pokemon to RDF, into a model of its own and straight to a stream.
+ *
+ * <pre>
+ * mvn -q -Pbenchmark compile exec:exec -Dexec.executable=java \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main PokemonRDFConverterBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PokemonRDFConverterBenchmark {
+    private static final int POKEMON = 1025;
+
+    private final PokemonRDFConverter converter = new PokemonRDFConverter();
+    private List<Map<String, String>> pokemonInfo;
+    private int next;
+
+    @Setup
+    public void generate() {
+        Random random = new Random(42);
+        pokemonInfo = new ArrayList<>(POKEMON);
+        for (int i = 0; i < POKEMON; i++) {
+            pokemonInfo.add(SyntheticPokedex.pokemonInfo(i + 1, random));
+        }
+    }
+
+    @Benchmark
+    public Model convertToRDF() {
+        return converter.convertToRDF(nextPokemon());
+    }
+
+    @Benchmark
+    public void convertToStream(Blackhole blackhole) {
+        converter.convert(nextPokemon(), new StreamRDFBase() {
+            @Override
+            public void triple(Triple triple) {
+                blackhole.consume(triple);
+            }
+        });
+    }
+
+    private Map<String, String> nextPokemon() {
+        Map<String, String> info = pokemonInfo.get(next);
+        next = (next + 1) % POKEMON;
+        return info;
+    }
+}
@@ -0,0 +1,161 @@
+package org.example.benchmark;
+
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.apache.jena.system.Txn;
+import org.example.inference.InferenceDatasetGraph;
+import org.example.inference.MaterializationResult;
+import org.example.inference.ReasoningMode;
+import org.example.inference.SemiNaiveMaterializationEngine;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the reasoning modes of the SPARQL endpoint: memory retained by the loaded dataset
+ * and query latency percentiles over a mix of inference-dependent queries.
+ *
+ * <pre>
+ * for mode in materialized backward hybrid; do
+ *   mvn -q -Pbenchmark compile exec:java -Dexec.mainClass=org.example.benchmark.ReasoningModeBenchmark \
+ *       -Dexec.args="50000 5000 $mode"
+ * done
+ * </pre>
+ * Arguments are the number of Pokemon, the number of measured queries per query shape and the
+ * modes to run (all by default). Memory figures are only comparable when each mode runs in a
+ * JVM of its own, as above.
+ */
+public class ReasoningModeBenchmark {
+    private static final String PREFIXES =
+        "PREFIX pokemon: <" + SyntheticPokedex.BASE_URI + "> " +
+        "PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#> ";
+
+    // %s is replaced with a random Pokemon URI, %t with a random type class URI
+    private static final String[][] QUERIES = {
+        {"types of a resource", "SELECT ?type WHERE { <%s> a ?type }"},
+        {"resource description", "SELECT ?p ?o WHERE { <%s> ?p ?o }"},
+        {"superclasses", "SELECT ?super WHERE { <%s/type> rdfs:subClassOf ?super }"},
+        {"instances of a type", "SELECT ?p WHERE { ?p a <%t> ; pokemon:primaryType ?name } LIMIT 100"},
+        {"count of Pokemon", "SELECT (COUNT(?p) AS ?n) WHERE { ?p a pokemon:Pokemon }"},
+    };
+
+    private static final int WARMUP_QUERIES = 200;
+
+    public static void main(String[] args) throws Exception {
+        int pokemonCount = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        int measured = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        List<ReasoningMode> modes = new ArrayList<>();
+        for (int i = 2; i < args.length; i++) {
+            modes.add(ReasoningMode.fromName(args[i]));
+        }
+        if (modes.isEmpty()) {
+            modes.addAll(Arrays.asList(ReasoningMode.values()));
+        }
+
+        System.out.printf("%d Pokemon, %d queries per shape%n", pokemonCount, measured);
+        if (modes.size() > 1) {
+            System.out.println("Several modes in one JVM: memory figures after the first mode are not comparable");
+        }
+        for (ReasoningMode mode : modes) {
+            run(mode, pokemonCount, measured);
+        }
+    }
+
+    private static void run(ReasoningMode mode, int pokemonCount, int measured) throws IOException {
+        long heapBefore = usedHeapAfterGc();
+
+        Model base = SyntheticPokedex.generate(pokemonCount, 42);
+        InferenceDatasetGraph inferenceDataset = new InferenceDatasetGraph(DatasetGraphFactory.createTxnMem(), mode);
+        long loadStart = System.nanoTime();
+        MaterializationResult result = new SemiNaiveMaterializationEngine(mode.rules()).materialize(base);
+        inferenceDataset.load(base.getGraph(), result.getInferredModel().getGraph());
+        long storedTriples = result.getBaseSize() + result.getDerivedCount();
+        result = null;
+        base = null;
+        Dataset dataset = DatasetFactory.wrap(inferenceDataset);
+
+        // Build the indexes before measuring memory
+        inferenceDataset.getSameAsIndex();
+        inferenceDataset.getHierarchyIndex();
+        long loadMillis = (System.nanoTime() - loadStart) / 1_000_000;
+        long retained = usedHeapAfterGc() - heapBefore;
+
+        System.out.printf("%n%s: %d stored triples, loaded in %d ms, %.1f MB retained heap, %s resident%n",
+            mode, storedTriples, loadMillis, retained / 1048576.0, residentSetSize());
+
+        Random random = new Random(7);
+        for (String[] query : QUERIES) {
+            for (int i = 0; i < WARMUP_QUERIES; i++) {
+                execute(dataset, instantiate(query[1], random, pokemonCount));
+            }
+            long[] latencies = new long[measured];
+            for (int i = 0; i < measured; i++) {
+                String text = instantiate(query[1], random, pokemonCount);
+                long start = System.nanoTime();
+                execute(dataset, text);
+                latencies[i] = System.nanoTime() - start;
+            }
+            Arrays.sort(latencies);
+            System.out.printf("  %-22s p50 %8.3f ms   p99 %8.3f ms   max %8.3f ms%n", query[0],
+                percentile(latencies, 0.50), percentile(latencies, 0.99), latencies[latencies.length - 1] / 1e6);
+        }
+    }
+
+    private static String instantiate(String template, Random random, int pokemonCount) {
+        String type = SyntheticPokedex.BASE_URI + "Type/"
+            + SyntheticPokedex.TYPES[random.nextInt(SyntheticPokedex.TYPES.length)];
+        return PREFIXES + template
+            .replace("%s", SyntheticPokedex.pokemonUri(1 + random.nextInt(pokemonCount)))
+            .replace("%t", type);
+    }
+
+    private static int execute(Dataset dataset, String query) {
+        return Txn.calculateRead(dataset, () -> {
+            try (QueryExecution execution = QueryExecutionFactory.create(query, dataset)) {
+                ResultSet results = execution.execSelect();
+                int rows = 0;
+                while (results.hasNext()) {
+                    results.next();
+                    rows++;
+                }
+                return rows;
+            }
+        });
+    }
+
+    private static double percentile(long[] sortedNanos, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1e6;
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static String residentSetSize() throws IOException {
+        Path status = Paths.get("/proc/self/status");
+        if (!Files.exists(status)) {
+            return "unknown";
+        }
+        return Files.readAllLines(status).stream()
+            .filter(line -> line.startsWith("VmRSS:"))
+            .map(line -> line.substring("VmRSS:".length()).trim())
+            .findFirst()
+            .orElse("unknown");
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.benchmark;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.apache.jena.system.Txn;
+import org.example.inference.InferenceDatasetGraph;
+import org.example.inference.MaterializationResult;
+import org.example.inference.ReasoningMode;
+import org.example.inference.SemiNaiveMaterializationEngine;
+import org.example.server.PokemonDescription;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent clients reading the data of resource pages, straight from the graph and with the
+ * SPARQL queries it replaced. The sample mode reports the p50, p99 and other percentiles.
+ *
+ * <pre>
+ * mvn -q -Pbenchmark compile exec:exec -Dexec.executable=java \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main ResourcePageLoadBenchmark -p triples=100000 -t 16"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class ResourcePageLoadBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public long triples;
+
+    private Dataset dataset;
+    private Graph graph;
+    private int pokemonCount;
+
+    @Setup
+    public void load() {
+        Model base = SyntheticPokedex.generateTriples(triples, 42);
+        MaterializationResult result = new SemiNaiveMaterializationEngine(ReasoningMode.MATERIALIZED.rules())
+            .materialize(base);
+        InferenceDatasetGraph datasetGraph = new InferenceDatasetGraph(DatasetGraphFactory.createTxnMem(),
+            ReasoningMode.MATERIALIZED);
+        datasetGraph.load(base.getGraph(), result.getInferredModel().getGraph());
+        pokemonCount = base.listSubjectsWithProperty(base.createProperty(SyntheticPokedex.BASE_URI + "primaryType"))
+            .toList().size();
+        dataset = DatasetFactory.wrap(datasetGraph);
+        graph = datasetGraph.getDefaultGraph();
+    }
+
+    @Benchmark
+    public Map<String, Object> singlePass() {
+        String uri = nextUri();
+        return Txn.calculateRead(dataset, () -> PokemonDescription.describe(graph, uri));
+    }
+
+    @Benchmark
+    public Map<String, Object> sparql() {
+        String uri = nextUri();
+        return Txn.calculateRead(dataset, () -> SparqlPokemonDescription.describe(dataset, uri));
+    }
+
+    private String nextUri() {
+        return SyntheticPokedex.pokemonUri(1 + ThreadLocalRandom.current().nextInt(pokemonCount));
+    }
+}
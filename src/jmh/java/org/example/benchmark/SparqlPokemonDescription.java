@@ -0,0 +1,143 @@
+package org.example.benchmark;
+
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The SPARQL queries the resource page used to be read with, kept as the baseline of
+ * {@link ResourcePageLoadBenchmark}.
+ */
+final class SparqlPokemonDescription {
+    private SparqlPokemonDescription() {
+    }
+
+    static Map<String, Object> describe(Dataset dataset, String resourceUri) {
+        Map<String, Object> data = new HashMap<>();
+        
+        // First check if the Pokemon exists
+        String checkQuery = 
+            "ASK WHERE { <" + resourceUri + "> a <http://example.org/pokemon/Pokemon> }";
+        
+        try (QueryExecution qexec = QueryExecutionFactory.create(checkQuery, dataset)) {
+            boolean exists = qexec.execAsk();
+            if (!exists) {
+                return data;
+            }
+        }
+
+        // Existing query for Pokemon data
+        String query = 
+            "PREFIX rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#>\n" +
+            "PREFIX pokemon: <http://example.org/pokemon/>\n" +
+            "PREFIX schema: <http://schema.org/>\n" +
+            "PREFIX owl: <http://www.w3.org/2002/07/owl#>\n" +
+            "SELECT DISTINCT ?name ?id ?primaryType ?secondaryType ?height ?weight " +
+            "?category ?japaneseName ?romajiName ?dbpedia ?wikidata\n" +
+            "WHERE {\n" +
+            "  BIND(<" + resourceUri + "> AS ?pokemon)\n" +
+            "  ?pokemon schema:name ?name ;\n" +
+            "          schema:identifier ?id ;\n" +
+            "          pokemon:primaryType ?primaryType .\n" +
+            "  OPTIONAL { ?pokemon schema:height ?height }\n" +
+            "  OPTIONAL { ?pokemon schema:weight ?weight }\n" +
+            "  OPTIONAL { ?pokemon pokemon:category ?category }\n" +
+            "  OPTIONAL { ?pokemon pokemon:secondaryType ?secondaryType }\n" +
+            "  OPTIONAL { ?pokemon pokemon:japaneseName ?japaneseName }\n" +
+            "  OPTIONAL { ?pokemon pokemon:romajiName ?romajiName }\n" +
+            "  OPTIONAL { ?pokemon owl:sameAs ?dbpedia .\n" +
+            "            FILTER(CONTAINS(STR(?dbpedia), 'dbpedia.org')) }\n" +
+            "  OPTIONAL { ?pokemon owl:sameAs ?wikidata .\n" +
+            "            FILTER(CONTAINS(STR(?wikidata), 'wikidata.org')) }\n" +
+            "}\n";
+
+        try (QueryExecution qexec = QueryExecutionFactory.create(query, dataset)) {
+            ResultSet results = qexec.execSelect();
+            if (results.hasNext()) {
+                QuerySolution solution = results.nextSolution();
+                data.put("name", solution.getLiteral("name").getString());
+                data.put("id", solution.getLiteral("id").getString());
+                data.put("primaryType", solution.getLiteral("primaryType").getString());
+
+                if (solution.contains("height")) {
+                    data.put("height", String.format("%.1f", solution.getLiteral("height").getDouble()));
+                }
+                if (solution.contains("weight")) {
+                    data.put("weight", String.format("%.1f", solution.getLiteral("weight").getDouble()));
+                }
+                if (solution.contains("category")) {
+                    data.put("category", solution.getLiteral("category").getString());
+                }
+                if (solution.contains("secondaryType")) {
+                    data.put("secondaryType", solution.getLiteral("secondaryType").getString());
+                }
+                if (solution.contains("japaneseName")) {
+                    data.put("japaneseName", solution.getLiteral("japaneseName").getString());
+                }
+                if (solution.contains("romajiName")) {
+                    data.put("romajiName", solution.getLiteral("romajiName").getString());
+                }
+                if (solution.contains("dbpedia")) {
+                    data.put("dbpediaLink", solution.getResource("dbpedia").getURI());
+                }
+                if (solution.contains("wikidata")) {
+                    data.put("wikidataLink", solution.getResource("wikidata").getURI());
+                }
+
+                // Add evolution chain data
+                addEvolutionData(dataset, data, resourceUri);
+            }
+        }
+
+        return data;
+    }
+
+    private static void addEvolutionData(Dataset dataset, Map<String, Object> data, String resourceUri) {
+        // Query for previous evolution
+        String prevQuery = 
+            "PREFIX pokemon: <http://example.org/pokemon/>\n" +
+            "PREFIX schema: <http://schema.org/>\n" +
+            "SELECT ?name ?id WHERE {\n" +
+            "  <" + resourceUri + "> pokemon:evolvesFrom ?prev .\n" +
+            "  ?prev schema:name ?name ;\n" +
+            "        schema:identifier ?id .\n" +
+            "}\n";
+            
+        try (QueryExecution qexec = QueryExecutionFactory.create(prevQuery, dataset)) {
+            ResultSet results = qexec.execSelect();
+            if (results.hasNext()) {
+                QuerySolution solution = results.nextSolution();
+                Map<String, String> prevPokemon = new HashMap<>();
+                prevPokemon.put("name", solution.getLiteral("name").getString());
+                prevPokemon.put("id", solution.getLiteral("id").getString());
+                data.put("prevPokemon", prevPokemon);
+            }
+        }
+
+        // Query for next evolution
+        String nextQuery = 
+            "PREFIX pokemon: <http://example.org/pokemon/>\n" +
+            "PREFIX schema: <http://schema.org/>\n" +
+            "SELECT ?name ?id WHERE {\n" +
+            "  ?next pokemon:evolvesFrom <" + resourceUri + "> ;\n" +
+            "        schema:name ?name ;\n" +
+            "        schema:identifier ?id .\n" +
+            "}\n";
+            
+        try (QueryExecution qexec = QueryExecutionFactory.create(nextQuery, dataset)) {
+            ResultSet results = qexec.execSelect();
+            if (results.hasNext()) {
+                QuerySolution solution = results.nextSolution();
+                Map<String, String> nextPokemon = new HashMap<>();
+                nextPokemon.put("name", solution.getLiteral("name").getString());
+                nextPokemon.put("id", solution.getLiteral("id").getString());
+                data.put("nextPokemon", nextPokemon);
+            }
+        }
+    }
+}
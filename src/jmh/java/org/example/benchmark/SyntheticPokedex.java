@@ -0,0 +1,126 @@
+package org.example.benchmark;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDFS;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates Pokedex-shaped base data of any size, with the properties the converter writes and
+ * none of the derived triples.
+ */
+public class SyntheticPokedex {
+    public static final String BASE_URI = "http://example.org/pokemon/";
+    private static final String SCHEMA_URI = "http://schema.org/";
+
+    public static final String[] TYPES = {
+        "Normal", "Fire", "Water", "Electric", "Grass", "Ice",
+        "Fighting", "Poison", "Ground", "Flying", "Psychic", "Bug",
+        "Rock", "Ghost", "Dragon", "Dark", "Steel", "Fairy"
+    };
+
+    private static final Property SCHEMA_NAME = ResourceFactory.createProperty(SCHEMA_URI + "name");
+    private static final Property SCHEMA_IDENTIFIER = ResourceFactory.createProperty(SCHEMA_URI + "identifier");
+    private static final Property SCHEMA_HEIGHT = ResourceFactory.createProperty(SCHEMA_URI + "height");
+    private static final Property SCHEMA_WEIGHT = ResourceFactory.createProperty(SCHEMA_URI + "weight");
+    private static final Property PRIMARY_TYPE = ResourceFactory.createProperty(BASE_URI + "primaryType");
+    private static final Property SECONDARY_TYPE = ResourceFactory.createProperty(BASE_URI + "secondaryType");
+    private static final Property EVOLVES_FROM = ResourceFactory.createProperty(BASE_URI + "evolvesFrom");
+
+    public static String pokemonUri(int ndex) {
+        return BASE_URI + "pokemon/" + String.format("%04d", ndex);
+    }
+
+    /**
+     * @param count number of Pokemon, numbered from 1
+     * @param seed  seed for the random types and measurements, so runs are comparable
+     */
+    public static Model generate(int count, long seed) {
+        Random random = new Random(seed);
+        Model model = createModel();
+        for (int ndex = 1; ndex <= count; ndex++) {
+            addPokemon(model, ndex, random);
+        }
+        return model;
+    }
+
+    /**
+     * Generates Pokemon until the model holds at least the given number of triples, about 11
+     * per Pokemon: 1K triples is 90 Pokemon and 10M some 900,000.
+     */
+    public static Model generateTriples(long triples, long seed) {
+        Random random = new Random(seed);
+        Model model = createModel();
+        for (int ndex = 1; model.size() < triples; ndex++) {
+            addPokemon(model, ndex, random);
+        }
+        return model;
+    }
+
+    /**
+     * The infobox fields of a Pokemon as the parser reports them, the input of the converter.
+     */
+    public static Map<String, String> pokemonInfo(int ndex, Random random) {
+        Map<String, String> info = new HashMap<>();
+        info.put("title", "Pokemon" + ndex + " (Pokémon)");
+        info.put("infoboxType", "Pokemon");
+        info.put("name", "Pokemon" + ndex);
+        info.put("jname", "ポケモン" + ndex);
+        info.put("tmname", "Pokemon" + ndex);
+        info.put("ndex", String.format("%04d", ndex));
+        info.put("type1", TYPES[random.nextInt(TYPES.length)]);
+        if (random.nextBoolean()) {
+            info.put("type2", TYPES[random.nextInt(TYPES.length)]);
+        }
+        info.put("category", "Synthetic");
+        info.put("height-m", BigDecimal.valueOf(1 + random.nextInt(200), 1).toPlainString());
+        info.put("weight-kg", BigDecimal.valueOf(1 + random.nextInt(10000), 1).toPlainString());
+        info.put("generation", String.valueOf(1 + random.nextInt(9)));
+        return info;
+    }
+
+    private static Model createModel() {
+        Model model = ModelFactory.createDefaultModel();
+        model.setNsPrefix("pokemon", BASE_URI);
+        model.setNsPrefix("schema", SCHEMA_URI);
+        return model;
+    }
+
+    private static void addPokemon(Model model, int ndex, Random random) {
+        String name = "Pokemon" + ndex;
+        String id = String.format("%04d", ndex);
+        Resource pokemon = model.createResource(pokemonUri(ndex));
+
+        pokemon.addProperty(SCHEMA_NAME, name);
+        pokemon.addProperty(SCHEMA_IDENTIFIER, id);
+        pokemon.addProperty(RDFS.label, model.createLiteral(name, "en"));
+        pokemon.addProperty(PRIMARY_TYPE, TYPES[random.nextInt(TYPES.length)]);
+        if (random.nextBoolean()) {
+            pokemon.addProperty(SECONDARY_TYPE, TYPES[random.nextInt(TYPES.length)]);
+        }
+        pokemon.addProperty(SCHEMA_HEIGHT, model.createTypedLiteral(
+            BigDecimal.valueOf(1 + random.nextInt(200), 1)));
+        pokemon.addProperty(SCHEMA_WEIGHT, model.createTypedLiteral(
+            BigDecimal.valueOf(1 + random.nextInt(10000), 1)));
+
+        // Evolution chains of up to three stages
+        if (ndex % 3 != 1) {
+            pokemon.addProperty(EVOLVES_FROM, model.createResource(pokemonUri(ndex - 1)));
+        }
+
+        Resource dbpedia = model.createResource("http://dbpedia.org/resource/" + name)
+            .addProperty(SCHEMA_NAME, name);
+        Resource wikidata = model.createResource("http://www.wikidata.org/entity/Q" + (100000 + ndex))
+            .addProperty(SCHEMA_NAME, name);
+        pokemon.addProperty(OWL.sameAs, dbpedia);
+        pokemon.addProperty(OWL.sameAs, wikidata);
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.benchmark;
+
+import org.example.parser.WikiInfoboxParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the single-pass infobox parser with the regular expressions it replaced, on
+ * Bulbapedia page wikitext.
+ *
+ * <pre>
+ * mvn -q -Pbenchmark compile exec:exec -Dexec.executable=java \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main WikiInfoboxParserBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WikiInfoboxParserBenchmark {
+    @Param({"bulbasaur", "thunderbolt"})
+    public String page;
+
+    private final WikiInfoboxParser parser = new WikiInfoboxParser();
+    private final RegexInfoboxParser regexParser = new RegexInfoboxParser();
+    private Map<String, String> data;
+
+    @Setup
+    public void loadPage() throws IOException {
+        data = new HashMap<>();
+        data.put("title", page);
+        data.put("wikitext", readSample(page));
+    }
+
+    @Benchmark
+    public Map<String, String> singlePass() {
+        return parser.processWikitext(data);
+    }
+
+    @Benchmark
+    public Map<String, String> regex() {
+        return regexParser.processWikitext(data);
+    }
+
+    static String readSample(String page) throws IOException {
+        try (InputStream in = WikiInfoboxParserBenchmark.class.getResourceAsStream("/wikitext/" + page + ".wiki")) {
+            if (in == null) {
+                throw new IOException("No wikitext sample for " + page);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
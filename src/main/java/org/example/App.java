@@ -2,88 +2,110 @@ package org.example;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.example.client.BulbapediaClient;
+import org.example.client.CrawlJournal;
 import org.example.client.DataCollectionCoordinator;
+import org.example.client.ResponseCache;
+import org.example.inference.ReasoningMode;
+import org.example.enrichment.EnrichmentStage;
 import org.example.linking.ExternalLinker;
 import org.example.parser.MultilingualDataHandler;
+import org.example.parser.WikiInfoboxParser;
+import org.example.pipeline.CrawlPipeline;
+import org.example.pipeline.IncrementalUpdate;
 import org.example.rdf.PokemonRDFConverter;
 import org.example.server.PokemonFusekiServer;
 import org.example.validation.RDFValidator;
 import org.example.server.LinkedDataServer;
+import org.example.store.InputFingerprint;
+import org.example.store.KnowledgeGraphFile;
+import org.example.store.KnowledgeGraphStore;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.riot.system.StreamRDFLib;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.List;
-import java.util.Map;
 
 public class App {
     private static final Logger logger = LoggerFactory.getLogger(App.class);
+    private static final String OUTPUT_FILE = "pokemon.ttl";
+    private static final String DEFAULT_CACHE_DIR = "http-cache";
+    private static final long DEFAULT_CACHE_MAX_MB = 512;
+    private static final int CRAWL_QUEUE_CAPACITY = 256;
+    private static final String JOURNAL_FILE = "crawl.journal";
+    private static final String LAST_CRAWL_FILE = "last-crawl";
 
     public static void main(String[] args) {
         logger.info("Starting Bulbapedia Knowledge Graph Generator");
         PokemonFusekiServer fusekiServer = null;
         LinkedDataServer ldServer = null;
-        
+        KnowledgeGraphStore store = null;
+
         try {
-            // Initialize components
-            PokemonRDFConverter converter = new PokemonRDFConverter();
-            
-            // Create a combined model for all Pokemon
-            Model combinedModel = ModelFactory.createDefaultModel();
-
-            DataCollectionCoordinator coordinator = new DataCollectionCoordinator();
-            List<Map<String, String>> allPokemonData = coordinator.collectAllData();
-
-            // Process the collected data
-            for (Map<String, String> pokemonData : allPokemonData) {
-                try {
-                    Model pokemonModel = converter.convertToRDF(pokemonData);
-                    combinedModel.add(pokemonModel);
-                } catch (Exception e) {
-                    logger.error("Error processing Pokemon data: {}", pokemonData.get("title"), e);
-                }
+            ReasoningMode reasoningMode = ReasoningMode.fromName(System.getProperty("reasoning.mode"));
+            String storeDir = System.getProperty("store.dir");
+            if (storeDir != null) {
+                store = new KnowledgeGraphStore(Paths.get(storeDir));
             }
 
-            // Add multilingual labels
-            MultilingualDataHandler multiHandler = new MultilingualDataHandler();
-            multiHandler.loadTSVData();
-            multiHandler.enrichModelWithLabels(combinedModel);
-
-            // Add external links
-            logger.info("Starting external linking process");
-            ExternalLinker linker = new ExternalLinker();
-            linker.addExternalLinks(combinedModel);
-
-            // Save the combined model
-            String outputFile = "pokemon.ttl";
-
-            // Before saving, try to load existing data if any
-            try {
-                Model existingModel = ModelFactory.createDefaultModel();
-                java.io.File file = new java.io.File(outputFile);
-                if (file.exists() && file.length() > 0) {
-                    existingModel.read(new java.io.FileInputStream(file), null, "TURTLE");
-                    combinedModel.add(existingModel);
-                }
-            } catch (Exception e) {
-                logger.warn("Could not load existing model, creating new one", e);
+            KnowledgeGraphFile output = new KnowledgeGraphFile(Paths.get(OUTPUT_FILE));
+            boolean incrementalRequested = Boolean.getBoolean("crawl.incremental");
+            // Only an incremental update needs to know when the last crawl was
+            Instant lastCrawl = incrementalRequested ? readLastCrawl() : null;
+            boolean incremental = lastCrawl != null && IncrementalUpdate.canUpdateSince(lastCrawl) && output.exists()
+                && output.readVersion() == PokemonRDFConverter.OUTPUT_VERSION;
+            if (incrementalRequested && !incremental) {
+                logger.info("No crawl by this converter within the last {} days to update, crawling everything",
+                    IncrementalUpdate.RECENT_CHANGES_MAX_AGE.toDays());
             }
 
-            // Now save the combined model
-            converter.saveModel(combinedModel, outputFile);
-            logger.info("RDF data saved to " + outputFile);
-
-            logger.info("Validating RDF data...");
-            RDFValidator.ValidationResult validationResult = RDFValidator.validateRDF("pokemon.ttl");
-            if (validationResult.isValid()) {
-                logger.info("RDF validation successful: {}", validationResult.getMessage());
+            if (incremental) {
+                // Serve the last crawl and replace the Pokemon edited since
+                Instant started = Instant.now();
+                boolean inferred = true;
+                if (store != null && store.isCurrent(inputFingerprint(reasoningMode))) {
+                    fusekiServer = new PokemonFusekiServer(reasoningMode, store.getDatasetGraph());
+                    fusekiServer.start();
+                } else {
+                    fusekiServer = store != null
+                        ? new PokemonFusekiServer(reasoningMode, store.getDatasetGraph())
+                        : new PokemonFusekiServer(reasoningMode);
+                    fusekiServer.start();
+                    inferred = fusekiServer.loadData(output.read());
+                }
+                updateKnowledgeGraph(fusekiServer, lastCrawl, output);
+                recordLastCrawl(started);
+                if (store != null && inferred) {
+                    store.recordFingerprint(inputFingerprint(reasoningMode));
+                }
+            } else if (store != null && store.isCurrent(inputFingerprint(reasoningMode))) {
+                // Warm restart: serve the store as it is
+                logger.info("Inputs unchanged since the store was built, skipping conversion and inference");
+                fusekiServer = new PokemonFusekiServer(reasoningMode, store.getDatasetGraph());
+                fusekiServer.start();
             } else {
-                logger.error("RDF validation failed: {}", validationResult.getMessage());
-            }
+                Instant started = Instant.now();
+                Model combinedModel = buildKnowledgeGraph(output);
+                recordLastCrawl(started);
 
-            // Start Fuseki server and load data
-            fusekiServer = new PokemonFusekiServer();
-            fusekiServer.start();
-            fusekiServer.loadData(combinedModel);
+                // Start Fuseki server and load data
+                fusekiServer = store != null
+                    ? new PokemonFusekiServer(reasoningMode, store.getDatasetGraph())
+                    : new PokemonFusekiServer(reasoningMode);
+                fusekiServer.start();
+                boolean inferred = fusekiServer.loadData(combinedModel);
+                if (store != null && inferred) {
+                    store.recordFingerprint(inputFingerprint(reasoningMode));
+                }
+            }
 
             // Start Linked Data interface
             ldServer = new LinkedDataServer(fusekiServer.getDataset(), 3331);
@@ -103,6 +125,149 @@ public class App {
             if (fusekiServer != null) {
                 fusekiServer.stop();
             }
+            if (store != null) {
+                store.close();
+            }
         }
     }
+
+    /**
+     * Crawls Bulbapedia and converts, enriches and validates the result. Triples not saved in
+     * {@value #OUTPUT_FILE} yet are appended to it, and the graph returned holds both, which is
+     * also saved as its Thrift snapshot. A file written by an older converter is replaced.
+     */
+    private static Model buildKnowledgeGraph(KnowledgeGraphFile output) throws IOException, InterruptedException {
+        // Initialize components
+        PokemonRDFConverter converter = new PokemonRDFConverter();
+        
+        // Create a combined model for all Pokemon
+        Model combinedModel = ModelFactory.createDefaultModel();
+
+        // Parse and convert each Pokemon as soon as the crawl has finished with it. Progress is
+        // journaled next to the response cache, which a resumed crawl replays finished pages from
+        try (CrawlJournal journal = new CrawlJournal(cacheDirectory().resolve(JOURNAL_FILE))) {
+            DataCollectionCoordinator coordinator = new DataCollectionCoordinator(createClient(), journal);
+            new CrawlPipeline(coordinator, new WikiInfoboxParser(), converter, CRAWL_QUEUE_CAPACITY)
+                .run(StreamRDFLib.graph(combinedModel.getGraph()));
+
+            enrich(combinedModel);
+
+            // The saved data is read once, to leave out of the append what it already holds
+            Model savedModel = ModelFactory.createDefaultModel();
+            try {
+                if (output.exists() && output.readVersion() != PokemonRDFConverter.OUTPUT_VERSION) {
+                    // Appending would keep the triples of the older converter next to the new ones
+                    logger.info("{} was written by an older converter, replacing it", OUTPUT_FILE);
+                } else if (output.exists()) {
+                    savedModel = output.read();
+                }
+            } catch (RiotException e) {
+                logger.warn("Could not load existing model, replacing it", e);
+            }
+            if (savedModel.isEmpty()) {
+                output.replace(combinedModel.getGraph());
+                output.recordVersion(PokemonRDFConverter.OUTPUT_VERSION);
+            } else {
+                output.append(combinedModel.getGraph(), savedModel.getGraph());
+                combinedModel.add(savedModel);
+            }
+            output.saveSnapshot(combinedModel.getGraph());
+            logger.info("RDF data saved to " + OUTPUT_FILE);
+            journal.complete();
+        }
+
+        logger.info("Validating RDF data...");
+        RDFValidator.ValidationResult validationResult = RDFValidator.validateRDF(OUTPUT_FILE);
+        if (validationResult.isValid()) {
+            logger.info("RDF validation successful: {}", validationResult.getMessage());
+        } else {
+            logger.error("RDF validation failed: {}", validationResult.getMessage());
+        }
+
+        return combinedModel;
+    }
+
+    /**
+     * Adds the translations and external links to converted Pokemon.
+     */
+    private static void enrich(Model model) {
+        // Multilingual labels and external links, each run once per Pokemon
+        MultilingualDataHandler multiHandler = new MultilingualDataHandler();
+        multiHandler.loadTSVData();
+        new EnrichmentStage(List.of(multiHandler, new ExternalLinker())).enrich(model);
+    }
+
+    /**
+     * Replaces the Pokemon edited on Bulbapedia since the given time in the served data, and
+     * saves the result to {@value #OUTPUT_FILE}.
+     */
+    private static void updateKnowledgeGraph(PokemonFusekiServer fusekiServer, Instant since,
+            KnowledgeGraphFile output)
+            throws IOException, InterruptedException {
+        BulbapediaClient client = createClient();
+        CrawlPipeline pipeline = new CrawlPipeline(new DataCollectionCoordinator(client));
+        long updated = new IncrementalUpdate(client, pipeline, App::enrich)
+            .apply(since, fusekiServer.getDataset().asDatasetGraph());
+        if (updated == 0) {
+            return;
+        }
+
+        // Replaced triples are removed from the file too, so it is rewritten as a whole
+        output.replace(fusekiServer::sendBaseData);
+        output.saveSnapshot(fusekiServer::sendBaseData);
+        logger.info("RDF data saved to " + OUTPUT_FILE);
+    }
+
+    /**
+     * @return when the last crawl that completed started, or null if there was none or its
+     * record cannot be read
+     */
+    private static Instant readLastCrawl() throws IOException {
+        Path file = cacheDirectory().resolve(LAST_CRAWL_FILE);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        String recorded = new String(Files.readAllBytes(file), StandardCharsets.UTF_8).trim();
+        try {
+            return Instant.parse(recorded);
+        } catch (DateTimeParseException e) {
+            logger.warn("Ignoring the unreadable last crawl time in {}: {}", file, recorded);
+            return null;
+        }
+    }
+
+    private static void recordLastCrawl(Instant started) throws IOException {
+        Files.createDirectories(cacheDirectory());
+        Files.write(cacheDirectory().resolve(LAST_CRAWL_FILE),
+            (started + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * A client caching API responses in {@code http.cache.dir}, bounded to
+     * {@code http.cache.max.mb}. With {@code -Dhttp.offline=true} the crawl is replayed from the
+     * cache without touching the network.
+     */
+    private static BulbapediaClient createClient() throws IOException {
+        long maxBytes = Long.getLong("http.cache.max.mb", DEFAULT_CACHE_MAX_MB) * 1024 * 1024;
+        boolean offline = Boolean.getBoolean("http.offline");
+        return new BulbapediaClient(new ResponseCache(cacheDirectory(), maxBytes), offline);
+    }
+
+    private static Path cacheDirectory() {
+        return Paths.get(System.getProperty("http.cache.dir", DEFAULT_CACHE_DIR));
+    }
+
+    /**
+     * The inputs the served dataset is built from besides the crawl: the saved knowledge graph,
+     * which every build merges into, the translations and the reasoning mode.
+     */
+    private static String inputFingerprint(ReasoningMode reasoningMode) throws IOException {
+        return new InputFingerprint()
+            .addFile(Paths.get(OUTPUT_FILE))
+            .addResource(MultilingualDataHandler.TSV_FILE)
+            // Read from the working directory when it is not on the classpath
+            .addFile(Paths.get(MultilingualDataHandler.TSV_FILE))
+            .addSetting("reasoning.mode", reasoningMode.name())
+            .toHex();
+    }
 }
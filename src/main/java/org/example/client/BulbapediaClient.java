@@ -1,5 +1,6 @@
 package org.example.client;
 
+import org.json.JSONArray;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,18 +12,68 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 public class BulbapediaClient {
     private static final Logger logger = LoggerFactory.getLogger(BulbapediaClient.class);
     private static final String API_ENDPOINT = "https://bulbapedia.bulbagarden.net/w/api.php";
+    // The most titles the API accepts in one query from clients without bot rights
+    private static final int MAX_TITLES_PER_REQUEST = 50;
+    private static final int MAX_ATTEMPTS = 5;
+    private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(5);
     private final HttpClient httpClient;
+    private final String apiEndpoint;
+    private final ResponseCache cache;
+    private final boolean offline;
+    private final RateLimiter rateLimiter;
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+    private final AtomicLong downloads = new AtomicLong();
 
     public BulbapediaClient() {
+        this(null, false);
+    }
+
+    public BulbapediaClient(ResponseCache cache, boolean offline) {
+        this(cache, offline, new RateLimiter());
+    }
+
+    /**
+     * @param cache       where responses are kept between requests and runs, or null for none
+     * @param offline     whether to answer from the cache only, failing requests it cannot answer
+     * @param rateLimiter paces the requests sent by every caller of this client
+     */
+    public BulbapediaClient(ResponseCache cache, boolean offline, RateLimiter rateLimiter) {
+        this(API_ENDPOINT, cache, offline, rateLimiter);
+    }
+
+    /**
+     * @param apiEndpoint the URL of the wiki's api.php
+     */
+    BulbapediaClient(String apiEndpoint, ResponseCache cache, boolean offline, RateLimiter rateLimiter) {
+        if (offline && cache == null) {
+            throw new IllegalArgumentException("Offline mode needs a response cache");
+        }
         this.httpClient = HttpClient.newBuilder()
                 .connectTimeout(Duration.ofSeconds(30))
                 .build();
+        this.apiEndpoint = apiEndpoint;
+        this.cache = cache;
+        this.offline = offline;
+        this.rateLimiter = rateLimiter;
     }
 
     private String buildUrl(Map<String, String> params) {
@@ -36,7 +87,7 @@ public class BulbapediaClient {
                 }
             })
             .collect(Collectors.joining("&"));
-        return API_ENDPOINT + "?" + queryString;
+        return apiEndpoint + "?" + queryString;
     }
 
     public JSONObject getPageContent(String pageTitle) throws IOException, InterruptedException {
@@ -46,15 +97,7 @@ public class BulbapediaClient {
             "prop", "wikitext|categories|templates",
             "format", "json"
         );
-
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(buildUrl(params)))
-                .header("User-Agent", "BulbapediaKGBot/1.0 (pokemon.kg@example.com)")
-                .GET()
-                .build();
-
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-        return new JSONObject(response.body());
+        return fetch(params, pageTitle);
     }
 
     public JSONObject queryCategory(String category, String continueFrom) throws IOException, InterruptedException {
@@ -77,15 +120,7 @@ public class BulbapediaClient {
                 "format", "json"
             );
         }
-
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(buildUrl(params)))
-                .header("User-Agent", "BulbapediaKGBot/1.0 (pokemon.kg@example.com)")
-                .GET()
-                .build();
-
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-        return new JSONObject(response.body());
+        return fetch(params, null);
     }
 
     public JSONObject searchPages(String query) throws IOException, InterruptedException {
@@ -95,15 +130,7 @@ public class BulbapediaClient {
             "srsearch", query,
             "format", "json"
         );
-
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(buildUrl(params)))
-                .header("User-Agent", "BulbapediaKGBot/1.0 (pokemon.kg@example.com)")
-                .GET()
-                .build();
-
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-        return new JSONObject(response.body());
+        return fetch(params, null);
     }
 
     public JSONObject getTemplates(String pageTitle) throws IOException, InterruptedException {
@@ -113,14 +140,353 @@ public class BulbapediaClient {
             "prop", "templates",
             "format", "json"
         );
+        return fetch(params, pageTitle);
+    }
+
+    public void logStatistics() {
+        if (cache != null) {
+            logger.info("API responses and pages: {} served from cache, {} revalidated, {} downloaded",
+                cacheHits.get(), revalidations.get(), downloads.get());
+        }
+        logger.info("Request pace settled at {} requests/s, {} in flight",
+            String.format("%.2f", rateLimiter.getRate()), rateLimiter.getConcurrency());
+    }
+
+    /**
+     * Answers a request from the cache when the cached response is still current, and
+     * downloads it otherwise.
+     *
+     * @param pageTitle the page the response is about, if any, so that a cached response can
+     *                  be revalidated by its revision id
+     */
+    private JSONObject fetch(Map<String, String> params, String pageTitle) throws IOException, InterruptedException {
+        if (cache == null) {
+            return new JSONObject(send(params, null).body());
+        }
+
+        String key = ResponseCache.key(params);
+        ResponseCache.Entry cached = cache.get(key);
+        if (cached != null && (offline || cache.isFresh(key))) {
+            cacheHits.incrementAndGet();
+            return new JSONObject(cached.getBody());
+        }
+        if (offline) {
+            throw new IOException("Offline and not cached: " + params);
+        }
+
+        // A page response is current as long as the page has not been edited
+        if (cached != null && cached.getRevid() != null && pageTitle != null
+                && cached.getRevid().equals(latestRevisions(List.of(pageTitle)).get(pageTitle))) {
+            cache.markFresh(key);
+            revalidations.incrementAndGet();
+            return new JSONObject(cached.getBody());
+        }
+
+        HttpResponse<String> response = send(params, cached);
+        if (response.statusCode() == 304 && cached != null) {
+            cache.markFresh(key);
+            revalidations.incrementAndGet();
+            return new JSONObject(cached.getBody());
+        }
+        downloads.incrementAndGet();
+        JSONObject json = new JSONObject(response.body());
+        // Errors such as a missing page are not cached, the next crawl asks again
+        if (response.statusCode() == 200 && !json.has("error")) {
+            JSONObject parse = json.optJSONObject("parse");
+            Long revid = parse != null && parse.has("revid") ? parse.getLong("revid") : null;
+            cache.put(key, new ResponseCache.Entry(response.body(),
+                response.headers().firstValue("ETag").orElse(null),
+                response.headers().firstValue("Last-Modified").orElse(null), revid));
+            cache.markFresh(key);
+        }
+        return json;
+    }
+
+    /**
+     * Fetches the wikitext of pages, {@value #MAX_TITLES_PER_REQUEST} titles per request.
+     *
+     * With a cache, every page is stored on its own, so it is reused whatever batch it is
+     * requested in next. Cached pages are revalidated in bulk by their revision ids and only
+     * the edited ones are downloaded again.
+     *
+     * @return the pages by the titles they were requested with, leaving out missing pages
+     */
+    public Map<String, WikiPage> getPages(List<String> titles) throws IOException, InterruptedException {
+        Map<String, WikiPage> pages = new LinkedHashMap<>();
+        for (int from = 0; from < titles.size(); from += MAX_TITLES_PER_REQUEST) {
+            fetchPages(titles.subList(from, Math.min(from + MAX_TITLES_PER_REQUEST, titles.size())), pages);
+        }
+        return pages;
+    }
+
+    /**
+     * The titles of the articles created or edited since the given time, newest change first.
+     * The wiki only keeps a limited history of recent changes, so this cannot answer for times
+     * further back than that.
+     */
+    public Set<String> getRecentChanges(Instant since) throws IOException, InterruptedException {
+        Map<String, String> params = new HashMap<>(Map.of(
+            "action", "query",
+            "list", "recentchanges",
+            "rcend", DateTimeFormatter.ISO_INSTANT.format(since),
+            "rcnamespace", "0",
+            "rctype", "edit|new",
+            "rcprop", "title",
+            "rclimit", "500",
+            "format", "json",
+            "formatversion", "2"
+        ));
+        Set<String> titles = new LinkedHashSet<>();
+        while (true) {
+            JSONObject response = query(params);
+            JSONArray changes = response.getJSONObject("query").optJSONArray("recentchanges");
+            for (int i = 0; changes != null && i < changes.length(); i++) {
+                titles.add(changes.getJSONObject(i).getString("title"));
+            }
+            JSONObject continuation = response.optJSONObject("continue");
+            if (continuation == null) {
+                return titles;
+            }
+            for (String name : continuation.keySet()) {
+                params.put(name, String.valueOf(continuation.get(name)));
+            }
+        }
+    }
+
+    /**
+     * The pages the cache holds, without asking the server whether they are current. They
+     * count as fresh for the rest of the run.
+     *
+     * @return the cached pages by requested title
+     */
+    public Map<String, WikiPage> getCachedPages(List<String> titles) throws IOException {
+        Map<String, WikiPage> pages = new LinkedHashMap<>();
+        if (cache == null) {
+            return pages;
+        }
+        for (String title : titles) {
+            ResponseCache.Entry cached = cache.get(pageKey(title));
+            if (cached != null) {
+                cacheHits.incrementAndGet();
+                cache.markFresh(pageKey(title));
+                pages.put(title, WikiPage.fromJson(new JSONObject(cached.getBody())));
+            }
+        }
+        return pages;
+    }
+
+    private void fetchPages(List<String> titles, Map<String, WikiPage> pages) throws IOException, InterruptedException {
+        List<String> toDownload = new ArrayList<>();
+        Map<String, WikiPage> stale = new LinkedHashMap<>();
+        for (String title : titles) {
+            ResponseCache.Entry cached = cache == null ? null : cache.get(pageKey(title));
+            if (cached == null) {
+                if (offline) {
+                    logger.warn("Offline and not cached: {}", title);
+                } else {
+                    toDownload.add(title);
+                }
+            } else if (offline || cache.isFresh(pageKey(title))) {
+                cacheHits.incrementAndGet();
+                pages.put(title, WikiPage.fromJson(new JSONObject(cached.getBody())));
+            } else {
+                stale.put(title, WikiPage.fromJson(new JSONObject(cached.getBody())));
+            }
+        }
+
+        if (!stale.isEmpty()) {
+            Map<String, Long> latest = latestRevisions(new ArrayList<>(stale.keySet()));
+            for (Map.Entry<String, WikiPage> entry : stale.entrySet()) {
+                if (Long.valueOf(entry.getValue().getRevid()).equals(latest.get(entry.getKey()))) {
+                    cache.markFresh(pageKey(entry.getKey()));
+                    revalidations.incrementAndGet();
+                    pages.put(entry.getKey(), entry.getValue());
+                } else {
+                    toDownload.add(entry.getKey());
+                }
+            }
+        }
+        if (toDownload.isEmpty()) {
+            return;
+        }
+
+        Map<String, String> params = new HashMap<>(Map.of(
+            "action", "query",
+            "prop", "revisions",
+            "rvprop", "ids|content",
+            "rvslots", "main",
+            "titles", String.join("|", toDownload),
+            "format", "json",
+            "formatversion", "2"
+        ));
+        // The content of large pages may not fit in one response, the rest follows on continuation
+        while (true) {
+            JSONObject response = query(params);
+            Map<String, String> requested = requestedTitles(response, toDownload);
+            JSONArray results = response.getJSONObject("query").optJSONArray("pages");
+            for (int i = 0; results != null && i < results.length(); i++) {
+                JSONObject result = results.getJSONObject(i);
+                WikiPage page = WikiPage.fromJson(result);
+                if (page == null) {
+                    continue;
+                }
+                String title = requested.getOrDefault(page.getTitle(), page.getTitle());
+                pages.put(title, page);
+                downloads.incrementAndGet();
+                if (cache != null) {
+                    cache.put(pageKey(title), new ResponseCache.Entry(result.toString(), null, null, page.getRevid()));
+                    cache.markFresh(pageKey(title));
+                }
+            }
+            JSONObject continuation = response.optJSONObject("continue");
+            if (continuation == null) {
+                return;
+            }
+            for (String name : continuation.keySet()) {
+                params.put(name, String.valueOf(continuation.get(name)));
+            }
+        }
+    }
+
+    /**
+     * @return the ids of the latest revisions by requested title, leaving out missing pages
+     */
+    private Map<String, Long> latestRevisions(List<String> titles) throws IOException, InterruptedException {
+        Map<String, String> params = Map.of(
+            "action", "query",
+            "prop", "info",
+            "titles", String.join("|", titles),
+            "format", "json",
+            "formatversion", "2"
+        );
+        JSONObject response = query(params);
+        Map<String, String> requested = requestedTitles(response, titles);
+        Map<String, Long> revisions = new HashMap<>();
+        JSONArray pages = response.getJSONObject("query").optJSONArray("pages");
+        for (int i = 0; pages != null && i < pages.length(); i++) {
+            JSONObject page = pages.getJSONObject(i);
+            if (page.has("lastrevid")) {
+                revisions.put(requested.getOrDefault(page.getString("title"), page.getString("title")),
+                    page.getLong("lastrevid"));
+            }
+        }
+        return revisions;
+    }
 
-        HttpRequest request = HttpRequest.newBuilder()
+    /**
+     * Maps the titles of a query response back to the titles requested, which the server
+     * normalizes, e.g. underscores to spaces.
+     */
+    private static Map<String, String> requestedTitles(JSONObject response, List<String> titles) {
+        Map<String, String> requested = new HashMap<>();
+        for (String title : titles) {
+            requested.put(title, title);
+        }
+        JSONArray normalized = response.getJSONObject("query").optJSONArray("normalized");
+        for (int i = 0; normalized != null && i < normalized.length(); i++) {
+            JSONObject mapping = normalized.getJSONObject(i);
+            requested.put(mapping.getString("to"), mapping.getString("from"));
+        }
+        return requested;
+    }
+
+    private JSONObject query(Map<String, String> params) throws IOException, InterruptedException {
+        if (offline) {
+            throw new IOException("Offline, not sending: " + params);
+        }
+        JSONObject response = new JSONObject(send(params, null).body());
+        if (!response.has("query")) {
+            throw new IOException("API request failed: " + response.optJSONObject("error"));
+        }
+        return response;
+    }
+
+    /**
+     * The key a page is cached under, as if it had been fetched on its own. Titles are
+     * normalized first, so every spelling of a title shares the page's entry.
+     */
+    private static String pageKey(String title) {
+        return ResponseCache.key(Map.of("action", "query", "prop", "revisions", "titles", normalizeTitle(title)));
+    }
+
+    /**
+     * The title as the wiki normalizes it: underscores read as spaces, runs of spaces
+     * collapsed, and the first letter upper case, so "Ivysaur_(Pokémon)" and
+     * "Ivysaur (Pokémon)" are the same page.
+     */
+    public static String normalizeTitle(String title) {
+        String normalized = title.replace('_', ' ').trim().replaceAll(" {2,}", " ");
+        if (normalized.isEmpty()) {
+            return normalized;
+        }
+        int first = normalized.codePointAt(0);
+        return new StringBuilder(normalized.length())
+            .appendCodePoint(Character.toUpperCase(first))
+            .append(normalized, Character.charCount(first), normalized.length())
+            .toString();
+    }
+
+    /**
+     * Sends a request once the rate limiter allows it, retrying while the server answers that
+     * it is overloaded.
+     */
+    private HttpResponse<String> send(Map<String, String> params, ResponseCache.Entry cached)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
                 .uri(URI.create(buildUrl(params)))
                 .header("User-Agent", "BulbapediaKGBot/1.0 (pokemon.kg@example.com)")
-                .GET()
-                .build();
+                .GET();
+        if (cached != null && cached.getEtag() != null) {
+            builder.header("If-None-Match", cached.getEtag());
+        }
+        if (cached != null && cached.getLastModified() != null) {
+            builder.header("If-Modified-Since", cached.getLastModified());
+        }
+        HttpRequest request = builder.build();
+
+        for (int attempt = 1; ; attempt++) {
+            rateLimiter.acquire();
+            HttpResponse<String> response;
+            try {
+                response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            } catch (IOException | InterruptedException e) {
+                rateLimiter.failed();
+                throw e;
+            }
+            if (response.statusCode() != 429 && response.statusCode() != 503) {
+                rateLimiter.completed();
+                return response;
+            }
 
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-        return new JSONObject(response.body());
+            Duration retryAfter = retryAfter(response);
+            rateLimiter.throttled(retryAfter);
+            if (attempt == MAX_ATTEMPTS) {
+                throw new IOException("Server still overloaded after " + MAX_ATTEMPTS + " attempts: "
+                    + request.uri());
+            }
+            logger.warn("Server answered {}, retrying in {} s at {} requests/s",
+                response.statusCode(), retryAfter.getSeconds(), String.format("%.2f", rateLimiter.getRate()));
+        }
+    }
+
+    /**
+     * The delay the server asked for, in seconds or as an HTTP date.
+     */
+    private static Duration retryAfter(HttpResponse<String> response) {
+        Optional<String> header = response.headers().firstValue("Retry-After");
+        if (header.isPresent()) {
+            try {
+                return Duration.ofSeconds(Math.max(0, Long.parseLong(header.get().trim())));
+            } catch (NumberFormatException e) {
+                try {
+                    Duration delay = Duration.between(Instant.now(),
+                        ZonedDateTime.parse(header.get().trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+                    return delay.isNegative() ? Duration.ZERO : delay;
+                } catch (DateTimeParseException ignored) {
+                    // Fall back to the default below
+                }
+            }
+        }
+        return DEFAULT_RETRY_AFTER;
     }
 }
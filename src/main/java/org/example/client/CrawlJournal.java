@@ -0,0 +1,158 @@
+package org.example.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Progress of a crawl, appended to a file as it is made so a crawl that stopped can resume.
+ *
+ * The journal records the members of each category as they are listed along with the
+ * continuation token of the listing, the categories that are completely listed and the pages
+ * that were handed on. Every record is one tab-separated line forced to disk before the crawl
+ * goes on. A line cut short by a crash is ignored when the journal is read back.
+ */
+public class CrawlJournal implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(CrawlJournal.class);
+    private static final String MEMBER = "member";
+    private static final String CONTINUE = "continue";
+    private static final String LISTED = "listed";
+    private static final String DONE = "done";
+
+    private final Path file;
+    private final FileChannel channel;
+    private final Map<String, Set<String>> members = new HashMap<>();
+    private final Map<String, String> continuations = new HashMap<>();
+    private final Set<String> listed = new HashSet<>();
+    private final Set<String> done = new HashSet<>();
+
+    public CrawlJournal(Path file) throws IOException {
+        this.file = file;
+        int validLength = 0;
+        if (Files.isRegularFile(file)) {
+            byte[] content = Files.readAllBytes(file);
+            validLength = content.length;
+            while (validLength > 0 && content[validLength - 1] != '\n') {
+                validLength--;
+            }
+            replay(new String(content, 0, validLength, StandardCharsets.UTF_8));
+            if (!done.isEmpty() || !members.isEmpty()) {
+                logger.info("Resuming crawl from {}: {} categories listed, {} pages done",
+                    file, listed.size(), done.size());
+            }
+        }
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        // Drop a line cut short, so the next record starts on a line of its own
+        channel.truncate(validLength);
+        channel.position(validLength);
+    }
+
+    /**
+     * The members of the category listed so far.
+     */
+    public synchronized List<String> getMembers(String category) {
+        return new ArrayList<>(members.getOrDefault(category, Collections.emptySet()));
+    }
+
+    /**
+     * @return the token to continue listing the category from, or null to start from the top
+     */
+    public synchronized String getContinuation(String category) {
+        return continuations.get(category);
+    }
+
+    public synchronized boolean isListed(String category) {
+        return listed.contains(category);
+    }
+
+    public synchronized boolean isDone(String title) {
+        return done.contains(title);
+    }
+
+    /**
+     * Records a page of a category listing.
+     *
+     * @param continuation the token for the next page of the listing, or null if this was the
+     *                     last
+     */
+    public synchronized void recordListing(String category, List<String> titles, String continuation)
+            throws IOException {
+        StringBuilder records = new StringBuilder();
+        for (String title : titles) {
+            records.append(MEMBER).append('\t').append(category).append('\t').append(title).append('\n');
+        }
+        if (continuation != null) {
+            records.append(CONTINUE).append('\t').append(category).append('\t').append(continuation).append('\n');
+        } else {
+            records.append(LISTED).append('\t').append(category).append('\n');
+        }
+        append(records.toString());
+        replay(records.toString());
+    }
+
+    public synchronized void recordDone(String title) throws IOException {
+        String record = DONE + '\t' + title + '\n';
+        append(record);
+        done.add(title);
+    }
+
+    /**
+     * Deletes the journal once the crawl is finished, so the next one starts over.
+     */
+    public synchronized void complete() throws IOException {
+        channel.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private void append(String records) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(records.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+    }
+
+    private void replay(String records) {
+        int start = 0;
+        int end;
+        while ((end = records.indexOf('\n', start)) >= 0) {
+            String[] fields = records.substring(start, end).split("\t", -1);
+            start = end + 1;
+            if (fields.length == 3 && fields[0].equals(MEMBER)) {
+                // A listing page cut short is listed again, so its members may be recorded twice
+                members.computeIfAbsent(fields[1], category -> new LinkedHashSet<>()).add(fields[2]);
+            } else if (fields.length == 3 && fields[0].equals(CONTINUE)) {
+                continuations.put(fields[1], fields[2]);
+            } else if (fields.length == 2 && fields[0].equals(LISTED)) {
+                listed.add(fields[1]);
+                continuations.remove(fields[1]);
+            } else if (fields.length == 2 && fields[0].equals(DONE)) {
+                done.add(fields[1]);
+            }
+        }
+    }
+}
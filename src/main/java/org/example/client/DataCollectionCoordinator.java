@@ -3,130 +3,165 @@ package org.example.client;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.example.parser.WikiInfoboxParser;
-import org.json.JSONObject;
 
+import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.function.Consumer;
 
+/**
+ * Crawls the Pokemon pages and enriches each one from the pages it links to.
+ *
+ * The pages of the previous evolutions are fetched for 50 Pokemon at a time, in one request,
+ * and usually straight from the pages the crawl has just cached. Every Pokemon is then
+ * enriched on a virtual thread of its own and handed on as soon as it is done. How many
+ * requests are actually in flight is up to the client's rate limiter.
+ */
 public class DataCollectionCoordinator {
     private static final Logger logger = LoggerFactory.getLogger(DataCollectionCoordinator.class);
     
     private final BulbapediaClient client;
     private final WikiInfoboxParser parser;
     private final EvolutionChainFetcher evolutionFetcher;
-    private final ExecutorService executor;
     
-    private static final int THREAD_POOL_SIZE = 4;
-    private static final int BATCH_SIZE = 50;
+    // Pokemon being enriched at once, bounding the memory held by waiting tasks
+    private static final int MAX_IN_FLIGHT = 256;
+    // Pokemon whose previous evolutions are fetched together, as many titles as one request takes
+    private static final int PREVO_BATCH_SIZE = 50;
 
     public DataCollectionCoordinator() {
-        this.client = new BulbapediaClient();
+        this(new BulbapediaClient());
+    }
+
+    /**
+     * @param client the client every stage of the collection fetches through, so they share
+     *               its response cache
+     */
+    public DataCollectionCoordinator(BulbapediaClient client) {
+        this(client, null);
+    }
+
+    /**
+     * @param journal where crawl progress is recorded and resumed from, or null for none
+     */
+    public DataCollectionCoordinator(BulbapediaClient client, CrawlJournal journal) {
+        this.client = client;
         this.parser = new WikiInfoboxParser();
-        this.evolutionFetcher = new EvolutionChainFetcher(client);
-        this.executor = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
+        this.evolutionFetcher = new EvolutionChainFetcher(client, journal);
     }
 
     public List<Map<String, String>> collectAllData() {
-        List<Map<String, String>> allData = new ArrayList<>();
-        
-        try {
-            // First collect all Pokemon data
-            List<Map<String, String>> pokemonData = evolutionFetcher.fetchAllPokemon();
-            allData.addAll(pokemonData);
-            
-            // Process in batches to avoid overwhelming the server
-            List<List<Map<String, String>>> batches = splitIntoBatches(pokemonData, BATCH_SIZE);
-            
-            for (List<Map<String, String>> batch : batches) {
-                List<CompletableFuture<Map<String, String>>> futures = new ArrayList<>();
-                
-                for (Map<String, String> pokemon : batch) {
-                    CompletableFuture<Map<String, String>> future = CompletableFuture.supplyAsync(() -> {
-                        try {
-                            return enrichPokemonData(pokemon);
-                        } catch (Exception e) {
-                            logger.error("Error enriching Pokemon data: {}", pokemon.get("title"), e);
-                            return pokemon;
-                        }
-                    }, executor);
-                    
-                    futures.add(future);
-                }
-                
-                // Wait for all futures in the batch to complete
-                CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
-                
-                // Add enriched data
-                for (CompletableFuture<Map<String, String>> future : futures) {
-                    try {
-                        Map<String, String> enrichedData = future.get();
-                        if (enrichedData != null) {
-                            synchronized (allData) {
-                                allData.add(enrichedData);
-                            }
-                        }
-                    } catch (Exception e) {
-                        logger.error("Error getting enriched data", e);
-                    }
+        List<Map<String, String>> allData = Collections.synchronizedList(new ArrayList<>());
+        collectAllData(allData::add);
+        return allData;
+    }
+
+    /**
+     * Passes each Pokemon to the sink once it is enriched, in the order they complete. The sink
+     * is called from the crawl threads, several at once, so it has to be thread-safe.
+     */
+    public void collectAllData(Consumer<Map<String, String>> sink) {
+        collect(evolutionFetcher::fetchAllPokemon, sink);
+    }
+
+    /**
+     * Like {@link #collectAllData(Consumer)}, for the given Pokemon pages only.
+     */
+    public void collectData(List<String> pokemonPages, Consumer<Map<String, String>> sink) {
+        collect(fetched -> evolutionFetcher.fetchPokemon(pokemonPages, fetched), sink);
+    }
+
+    private void collect(Consumer<Consumer<Map<String, String>>> fetch, Consumer<Map<String, String>> sink) {
+        Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Map<String, String>> batch = new ArrayList<>();
+            fetch.accept(pokemon -> {
+                inFlight.acquireUninterruptibly();
+                batch.add(pokemon);
+                if (batch.size() == PREVO_BATCH_SIZE) {
+                    enrich(List.copyOf(batch), executor, inFlight, sink);
+                    batch.clear();
                 }
-                
-                // Add delay between batches
-                Thread.sleep(2000);
+            });
+            if (!batch.isEmpty()) {
+                enrich(List.copyOf(batch), executor, inFlight, sink);
             }
         } catch (Exception e) {
             logger.error("Error collecting data", e);
         } finally {
-            shutdown();
+            client.logStatistics();
         }
-        
-        return allData;
     }
 
-    private Map<String, String> enrichPokemonData(Map<String, String> pokemon) throws Exception {
-        // Get additional data from linked pages
-        if (pokemon.containsKey("evolvesFrom")) {
-            String prevoPage = pokemon.get("evolvesFrom") + "_(Pokémon)";
-            try {
-                Map<String, String> prevoData = parser.processWikitext(
-                    Collections.singletonMap("wikitext", 
-                        client.getPageContent(prevoPage)
-                             .getJSONObject("parse")
-                             .getJSONObject("wikitext")
-                             .getString("*")));
-                pokemon.put("prevoPokemon", prevoData.get("name"));
-                pokemon.put("prevoNdex", prevoData.get("ndex"));
-            } catch (Exception e) {
-                logger.warn("Could not fetch previous evolution data for: {}", pokemon.get("title"));
-            }
+    /**
+     * Fetches the pages of the previous evolutions of a batch of Pokemon in one request, then
+     * enriches each Pokemon on a thread of its own.
+     */
+    private void enrich(List<Map<String, String>> batch, ExecutorService executor, Semaphore inFlight,
+                        Consumer<Map<String, String>> sink) {
+        CompletableFuture<Map<String, WikiPage>> prevos = CompletableFuture.supplyAsync(() -> fetchPrevos(batch), executor);
+        for (Map<String, String> pokemon : batch) {
+            executor.execute(() -> {
+                Map<String, String> enriched;
+                try {
+                    enriched = enrichPokemonData(pokemon, prevos.join());
+                } catch (Exception e) {
+                    logger.error("Error enriching Pokemon data: {}", pokemon.get("title"), e);
+                    enriched = pokemon;
+                }
+                try {
+                    sink.accept(enriched);
+                } catch (Exception e) {
+                    logger.error("Error processing Pokemon data: {}", pokemon.get("title"), e);
+                } finally {
+                    inFlight.release();
+                }
+            });
         }
+    }
 
-        // Get move data
+    /**
+     * @return the pages of the previous evolutions by title, usually served from the pages
+     * the evolution fetcher has just cached
+     */
+    private Map<String, WikiPage> fetchPrevos(List<Map<String, String>> batch) {
+        Set<String> prevoPages = new LinkedHashSet<>();
+        for (Map<String, String> pokemon : batch) {
+            if (pokemon.containsKey("evolvesFrom")) {
+                prevoPages.add(prevoPage(pokemon));
+            }
+        }
+        if (prevoPages.isEmpty()) {
+            return Map.of();
+        }
         try {
-            JSONObject moveTemplates = client.getTemplates(pokemon.get("title"));
-            // Process move templates...
-        } catch (Exception e) {
-            logger.warn("Could not fetch move data for: {}", pokemon.get("title"));
+            return client.getPages(new ArrayList<>(prevoPages));
+        } catch (IOException e) {
+            logger.warn("Could not fetch {} previous evolution pages from: {}", prevoPages.size(),
+                prevoPages.iterator().next(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
-
-        return pokemon;
+        return Map.of();
     }
 
-    private List<List<Map<String, String>>> splitIntoBatches(List<Map<String, String>> data, int batchSize) {
-        List<List<Map<String, String>>> batches = new ArrayList<>();
-        for (int i = 0; i < data.size(); i += batchSize) {
-            batches.add(data.subList(i, Math.min(i + batchSize, data.size())));
-        }
-        return batches;
+    private static String prevoPage(Map<String, String> pokemon) {
+        return pokemon.get("evolvesFrom") + " (Pokémon)";
     }
 
-    public void shutdown() {
-        executor.shutdown();
-        try {
-            if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
-                executor.shutdownNow();
+    private Map<String, String> enrichPokemonData(Map<String, String> pokemon, Map<String, WikiPage> prevos) {
+        // Get additional data from linked pages
+        if (pokemon.containsKey("evolvesFrom")) {
+            WikiPage prevo = prevos.get(prevoPage(pokemon));
+            if (prevo != null) {
+                Map<String, String> prevoData = parser.processWikitext(
+                    Collections.singletonMap("wikitext", prevo.getWikitext()));
+                pokemon.put("prevoPokemon", prevoData.get("name"));
+                pokemon.put("prevoNdex", prevoData.get("ndex"));
+            } else {
+                logger.warn("Could not fetch previous evolution data for: {}", pokemon.get("title"));
             }
-        } catch (InterruptedException e) {
-            executor.shutdownNow();
         }
+        return pokemon;
     }
 }
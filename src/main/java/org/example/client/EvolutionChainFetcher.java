@@ -8,13 +8,14 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 public class EvolutionChainFetcher {
     private static final Logger logger = LoggerFactory.getLogger(EvolutionChainFetcher.class);
     private final BulbapediaClient client;
+    private final CrawlJournal journal;
     private final Map<String, String> processedPages;
-    private static final int DELAY_MS = 1000; // 1 second delay between requests
+    private static final int PAGES_PER_REQUEST = 50;
     
     // Categories to process
     private static final List<String> POKEMON_CATEGORIES = Arrays.asList(
@@ -26,59 +27,154 @@ public class EvolutionChainFetcher {
     );
 
     public EvolutionChainFetcher(BulbapediaClient client) {
+        this(client, null);
+    }
+
+    /**
+     * @param journal where progress is recorded and resumed from, or null to always start over
+     */
+    public EvolutionChainFetcher(BulbapediaClient client, CrawlJournal journal) {
         this.client = client;
+        this.journal = journal;
         this.processedPages = new ConcurrentHashMap<>();
     }
 
     public List<Map<String, String>> fetchAllPokemon() {
         List<Map<String, String>> allPokemonData = new ArrayList<>();
-        
+        fetchAllPokemon(allPokemonData::add);
+        return allPokemonData;
+    }
+
+    /**
+     * Passes each Pokemon to the sink as soon as the batch of pages it is in has arrived.
+     */
+    public void fetchAllPokemon(Consumer<Map<String, String>> sink) {
         for (String category : POKEMON_CATEGORIES) {
             try {
                 logger.info("Fetching Pokemon from category: {}", category);
                 List<String> pokemonPages = getPokemonFromCategory(category);
                 
-                for (String pokemonPage : pokemonPages) {
-                    if (processedPages.containsKey(pokemonPage)) {
-                        continue;
-                    }
-                    
-                    try {
-                        Map<String, String> pokemonData = fetchPokemonData(pokemonPage);
-                        if (pokemonData != null && !pokemonData.isEmpty()) {
-                            allPokemonData.add(pokemonData);
-                            processedPages.put(pokemonPage, "processed");
-                        }
-                        
-                        // Add delay to avoid overwhelming the server
-                        TimeUnit.MILLISECONDS.sleep(DELAY_MS);
-                    } catch (Exception e) {
-                        logger.error("Error processing Pokemon page: {}", pokemonPage, e);
-                    }
-                }
+                fetchPokemon(pokemonPages, sink);
             } catch (Exception e) {
                 logger.error("Error processing category: {}", category, e);
             }
         }
+    }
+
+    /**
+     * Fetches the given Pokemon pages, passing each Pokemon to the sink as soon as the batch
+     * of pages it is in has arrived.
+     */
+    public void fetchPokemon(List<String> pokemonPages, Consumer<Map<String, String>> sink) {
+        List<String> pending = new ArrayList<>();
+        for (String pokemonPage : pokemonPages) {
+            if (!processedPages.containsKey(pokemonPage)) {
+                pending.add(pokemonPage);
+            }
+        }
         
-        return allPokemonData;
+        for (int from = 0; from < pending.size(); from += PAGES_PER_REQUEST) {
+            List<String> batch = pending.subList(from, Math.min(from + PAGES_PER_REQUEST, pending.size()));
+            Map<String, WikiPage> pages;
+            try {
+                pages = fetchPages(batch);
+            } catch (IOException e) {
+                logger.error("Error fetching {} Pokemon pages from: {}", batch.size(), batch.get(0), e);
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            for (String pokemonPage : batch) {
+                WikiPage page = pages.get(pokemonPage);
+                if (page == null) {
+                    logger.warn("No content for Pokemon page: {}", pokemonPage);
+                    continue;
+                }
+                try {
+                    Map<String, String> pokemonData = extractPokemonData(page);
+                    if (!pokemonData.isEmpty()) {
+                        sink.accept(pokemonData);
+                        processedPages.put(pokemonPage, "processed");
+                        if (journal != null && !journal.isDone(pokemonPage)) {
+                            journal.recordDone(pokemonPage);
+                        }
+                    }
+                } catch (Exception e) {
+                    logger.error("Error processing Pokemon page: {}", pokemonPage, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Lists the Pokemon pages of every category the full crawl goes through.
+     */
+    public Set<String> listPokemonPages() throws IOException, InterruptedException {
+        Set<String> pokemonPages = new LinkedHashSet<>();
+        for (String category : POKEMON_CATEGORIES) {
+            pokemonPages.addAll(getPokemonFromCategory(category));
+        }
+        return pokemonPages;
+    }
+
+    /**
+     * Whether the title is that of a Pokemon's own page. Titles are listed with spaces by
+     * the API and written with underscores in links, so both are accepted.
+     */
+    public static boolean isPokemonPage(String title) {
+        return title.endsWith("_(Pokémon)") || title.endsWith(" (Pokémon)");
+    }
+
+    /**
+     * Pages done before a restart are read back from the response cache rather than fetched
+     * again, so the Pokemon on them are handed on once more without any request.
+     */
+    private Map<String, WikiPage> fetchPages(List<String> titles) throws IOException, InterruptedException {
+        if (journal == null) {
+            return client.getPages(titles);
+        }
+        List<String> done = new ArrayList<>();
+        for (String title : titles) {
+            if (journal.isDone(title)) {
+                done.add(title);
+            }
+        }
+        Map<String, WikiPage> pages = client.getCachedPages(done);
+        List<String> missing = new ArrayList<>();
+        for (String title : titles) {
+            if (!pages.containsKey(title)) {
+                missing.add(title);
+            }
+        }
+        pages.putAll(client.getPages(missing));
+        return pages;
     }
 
     private List<String> getPokemonFromCategory(String category) throws IOException, InterruptedException {
-        List<String> pokemonPages = new ArrayList<>();
+        Set<String> pokemonPages = new LinkedHashSet<>();
         String continueFrom = null;
+        if (journal != null) {
+            // Resume the listing where it stopped
+            pokemonPages.addAll(journal.getMembers(category));
+            if (journal.isListed(category)) {
+                return new ArrayList<>(pokemonPages);
+            }
+            continueFrom = journal.getContinuation(category);
+        }
         
         do {
             JSONObject response = client.queryCategory(category, continueFrom);
             JSONObject query = response.getJSONObject("query");
+            List<String> listed = new ArrayList<>();
             
             if (query.has("categorymembers")) {
                 JSONArray members = query.getJSONArray("categorymembers");
                 for (int i = 0; i < members.length(); i++) {
                     JSONObject member = members.getJSONObject(i);
                     String title = member.getString("title");
-                    if (title.endsWith("_(Pokémon)")) {
-                        pokemonPages.add(title);
+                    if (isPokemonPage(title)) {
+                        listed.add(title);
                     }
                 }
             }
@@ -89,27 +185,22 @@ public class EvolutionChainFetcher {
             } else {
                 continueFrom = null;
             }
-            
-            TimeUnit.MILLISECONDS.sleep(DELAY_MS);
+            if (journal != null) {
+                journal.recordListing(category, listed, continueFrom);
+            }
+            pokemonPages.addAll(listed);
         } while (continueFrom != null);
         
-        return pokemonPages;
+        return new ArrayList<>(pokemonPages);
     }
 
-    private Map<String, String> fetchPokemonData(String pokemonPage) throws IOException, InterruptedException {
+    private Map<String, String> extractPokemonData(WikiPage page) {
         Map<String, String> pokemonData = new HashMap<>();
-        
-        JSONObject response = client.getPageContent(pokemonPage);
-        if (!response.has("parse")) {
-            return null;
-        }
-        
-        JSONObject parseData = response.getJSONObject("parse");
-        String wikitext = parseData.getJSONObject("wikitext").getString("*");
+        String wikitext = page.getWikitext();
         
         pokemonData.put("wikitext", wikitext);
-        pokemonData.put("pageid", String.valueOf(parseData.getInt("pageid")));
-        pokemonData.put("title", parseData.getString("title"));
+        pokemonData.put("pageid", String.valueOf(page.getPageId()));
+        pokemonData.put("title", page.getTitle());
         
         // Extract Pokemon number from wikitext
         String ndex = extractNdex(wikitext);
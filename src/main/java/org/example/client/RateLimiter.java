@@ -0,0 +1,176 @@
+package org.example.client;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Paces the requests of every caller sharing a client: a token bucket bounds the request
+ * rate and a limit bounds the requests in flight.
+ *
+ * Both limits adapt additive-increase/multiplicative-decrease. Every completed request raises
+ * them a little; a 429 or 503 halves them and holds all requests back for the Retry-After the
+ * server asked for. Halvings are at most once per {@link #DECREASE_COOLDOWN}, so a burst of
+ * throttled responses to requests sent together counts once. Response times are not taken as
+ * a sign of load: a 50-page batch is always much slower than a revision check, and only the
+ * server knows when it is overloaded.
+ *
+ * While requests are sent as fast as allowed, each completion adds {@link #RATE_INCREASE}
+ * requests/s, so the rate grows by a tenth of itself every second and recovers from a halving
+ * in about 7 seconds, at any rate. The requests in flight grow by one per round of them.
+ *
+ * Waiting callers park on a lock rather than a monitor, so crawl tasks on virtual threads do
+ * not pin their carrier threads while they wait.
+ */
+public class RateLimiter {
+    private static final double RATE_INCREASE = 0.1;
+    private static final double THROTTLED_FACTOR = 0.5;
+    private static final long DECREASE_COOLDOWN = TimeUnit.SECONDS.toNanos(1);
+    private static final double MIN_RATE = 0.1;
+
+    private final double maxRate;
+    private final int maxConcurrency;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+
+    private double rate;
+    private double concurrency;
+    private double tokens;
+    private long refilledAt = System.nanoTime();
+    private int inFlight;
+    private long pausedUntil = System.nanoTime();
+    private long lastDecrease = System.nanoTime() - DECREASE_COOLDOWN;
+
+    /**
+     * Starts at the crawler's former pace of one request per second, one at a time, and grows
+     * up to 20 per second with 8 in flight.
+     */
+    public RateLimiter() {
+        this(1.0, 20.0, 8);
+    }
+
+    /**
+     * @param initialRate    requests per second to start at
+     * @param maxRate        the most requests per second to grow to
+     * @param maxConcurrency the most requests in flight to grow to
+     */
+    public RateLimiter(double initialRate, double maxRate, int maxConcurrency) {
+        this.rate = initialRate;
+        this.maxRate = maxRate;
+        this.maxConcurrency = maxConcurrency;
+        this.concurrency = 1;
+        this.tokens = 1;
+    }
+
+    /**
+     * Blocks until a request may be sent. Every call must be followed by one to
+     * {@link #completed}, {@link #throttled} or {@link #failed}.
+     */
+    public void acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            while (true) {
+                long now = System.nanoTime();
+                refill(now);
+                long waitNanos;
+                if (now < pausedUntil) {
+                    waitNanos = pausedUntil - now;
+                } else if (inFlight >= (int) concurrency) {
+                    waitNanos = 0;
+                } else if (tokens >= 1) {
+                    tokens -= 1;
+                    inFlight++;
+                    return;
+                } else {
+                    waitNanos = (long) ((1 - tokens) / rate * 1e9) + 1;
+                }
+                if (waitNanos == 0) {
+                    changed.await();
+                } else {
+                    changed.awaitNanos(waitNanos);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records a request the server answered.
+     */
+    public void completed() {
+        lock.lock();
+        try {
+            inFlight--;
+            rate = Math.min(maxRate, rate + RATE_INCREASE);
+            // One more request in flight once a full window of them succeeded
+            concurrency = Math.min(maxConcurrency, concurrency + 1 / concurrency);
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records a request the server refused as too many, to be retried after the given delay.
+     */
+    public void throttled(Duration retryAfter) {
+        lock.lock();
+        try {
+            inFlight--;
+            decrease(THROTTLED_FACTOR);
+            pausedUntil = Math.max(pausedUntil, System.nanoTime() + retryAfter.toNanos());
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records a request that failed without an answer from the server.
+     */
+    public void failed() {
+        lock.lock();
+        try {
+            inFlight--;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double getRate() {
+        lock.lock();
+        try {
+            return rate;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getConcurrency() {
+        lock.lock();
+        try {
+            return (int) concurrency;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void decrease(double factor) {
+        long now = System.nanoTime();
+        if (now - lastDecrease < DECREASE_COOLDOWN) {
+            return;
+        }
+        lastDecrease = now;
+        rate = Math.max(MIN_RATE, rate * factor);
+        concurrency = Math.max(1, concurrency * factor);
+    }
+
+    private void refill(long now) {
+        // Allow a burst of at most one second's worth of requests
+        tokens = Math.min(Math.max(1, rate), tokens + (now - refilledAt) / 1e9 * rate);
+        refilledAt = now;
+    }
+}
@@ -0,0 +1,195 @@
+package org.example.client;
+
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * API responses on local disk, one file per request named by the SHA-256 of its parameters.
+ *
+ * Once the files outgrow the size limit the least recently used are deleted. Reading an entry
+ * touches its file, so the order survives restarts. Entries that were downloaded or revalidated
+ * during this run are marked fresh and served to every later caller without asking the server.
+ */
+public class ResponseCache {
+    private static final Logger logger = LoggerFactory.getLogger(ResponseCache.class);
+    private static final String SUFFIX = ".json";
+
+    private final Path directory;
+    private final long maxBytes;
+    // Entry sizes by key, least recently used first
+    private final LinkedHashMap<String, Long> sizes = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<String> fresh = ConcurrentHashMap.newKeySet();
+    private long totalBytes;
+
+    public static class Entry {
+        private final String body;
+        private final String etag;
+        private final String lastModified;
+        private final Long revid;
+
+        public Entry(String body, String etag, String lastModified, Long revid) {
+            this.body = body;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.revid = revid;
+        }
+
+        public String getBody() {
+            return body;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * The page revision the response was rendered from, if it is about one page.
+         */
+        public Long getRevid() {
+            return revid;
+        }
+    }
+
+    public ResponseCache(Path directory, long maxBytes) throws IOException {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        Files.createDirectories(directory);
+
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        Map<Path, FileTime> accessed = new LinkedHashMap<>();
+        for (Path file : files) {
+            accessed.put(file, Files.getLastModifiedTime(file));
+        }
+        files.sort(Comparator.comparing(accessed::get));
+        for (Path file : files) {
+            long size = Files.size(file);
+            sizes.put(keyOf(file), size);
+            totalBytes += size;
+        }
+        logger.info("Response cache at {} holds {} entries, {} KB", directory, sizes.size(), totalBytes / 1024);
+        evict();
+    }
+
+    /**
+     * The cache key of a request, independent of the order of its parameters.
+     */
+    public static String key(Map<String, String> params) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        for (Map.Entry<String, String> param : new TreeMap<>(params).entrySet()) {
+            digest.update((param.getKey() + "=" + param.getValue() + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * @return the cached response, or null if there is none
+     */
+    public Entry get(String key) throws IOException {
+        synchronized (this) {
+            if (sizes.get(key) == null) {
+                return null;
+            }
+        }
+        Path file = fileOf(key);
+        String content;
+        try {
+            content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+        } catch (NoSuchFileException e) {
+            // Evicted meanwhile
+            return null;
+        }
+        JSONObject json = new JSONObject(content);
+        return new Entry(json.getString("body"), json.optString("etag", null),
+            json.optString("lastModified", null), json.has("revid") ? json.getLong("revid") : null);
+    }
+
+    public void put(String key, Entry entry) throws IOException {
+        JSONObject json = new JSONObject();
+        json.put("body", entry.getBody());
+        json.putOpt("etag", entry.getEtag());
+        json.putOpt("lastModified", entry.getLastModified());
+        json.putOpt("revid", entry.getRevid());
+        byte[] bytes = json.toString().getBytes(StandardCharsets.UTF_8);
+
+        Path file = fileOf(key);
+        Path temp = Files.createTempFile(directory, key, ".tmp");
+        Files.write(temp, bytes);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        synchronized (this) {
+            Long previous = sizes.put(key, (long) bytes.length);
+            totalBytes += bytes.length - (previous == null ? 0 : previous);
+            evict();
+        }
+    }
+
+    /**
+     * Whether the entry is known to be current, having been downloaded or revalidated during
+     * this run.
+     */
+    public boolean isFresh(String key) {
+        return fresh.contains(key);
+    }
+
+    public void markFresh(String key) {
+        fresh.add(key);
+    }
+
+    private synchronized void evict() throws IOException {
+        Iterator<Map.Entry<String, Long>> eldest = sizes.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            Files.deleteIfExists(fileOf(entry.getKey()));
+            fresh.remove(entry.getKey());
+            totalBytes -= entry.getValue();
+            eldest.remove();
+        }
+    }
+
+    private Path fileOf(String key) {
+        return directory.resolve(key + SUFFIX);
+    }
+
+    private static String keyOf(Path file) {
+        String name = file.getFileName().toString();
+        return name.substring(0, name.length() - SUFFIX.length());
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.client;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * The latest revision of a wiki page, as returned by {@code prop=revisions}.
+ */
+public class WikiPage {
+    private final String title;
+    private final long pageId;
+    private final long revid;
+    private final String wikitext;
+
+    public WikiPage(String title, long pageId, long revid, String wikitext) {
+        this.title = title;
+        this.pageId = pageId;
+        this.revid = revid;
+        this.wikitext = wikitext;
+    }
+
+    /**
+     * Reads a page of a {@code formatversion=2} revisions response.
+     *
+     * @return the page, or null if it is missing or its content was not returned
+     */
+    static WikiPage fromJson(JSONObject page) {
+        JSONArray revisions = page.optJSONArray("revisions");
+        if (page.optBoolean("missing") || revisions == null || revisions.isEmpty()) {
+            return null;
+        }
+        JSONObject revision = revisions.getJSONObject(0);
+        JSONObject main = revision.optJSONObject("slots") == null ? null
+            : revision.getJSONObject("slots").optJSONObject("main");
+        if (main == null || !main.has("content")) {
+            return null;
+        }
+        return new WikiPage(page.getString("title"), page.getLong("pageid"), revision.getLong("revid"),
+            main.getString("content"));
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public long getPageId() {
+        return pageId;
+    }
+
+    public long getRevid() {
+        return revid;
+    }
+
+    public String getWikitext() {
+        return wikitext;
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.enrichment;
+
+/**
+ * Counts of the triples one {@link EnrichmentContributor} emitted during an enrichment, and
+ * of those that were new to the graph.
+ */
+public class ContributorStatistics {
+    private final String contributorName;
+    private long emitted;
+    private long kept;
+
+    public ContributorStatistics(String contributorName) {
+        this.contributorName = contributorName;
+    }
+
+    void record(boolean isNew) {
+        emitted++;
+        if (isNew) {
+            kept++;
+        }
+    }
+
+    public String getContributorName() { return contributorName; }
+    public long getEmitted() { return emitted; }
+    public long getKept() { return kept; }
+
+    /**
+     * The triples emitted that the graph already held or another contributor had emitted.
+     */
+    public long getRedundant() { return emitted - kept; }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d triples kept of %d emitted", contributorName, kept, emitted);
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.enrichment;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+
+import java.util.function.Consumer;
+
+/**
+ * Adds triples about the Pokemon of a converted graph, run by an {@link EnrichmentStage}.
+ *
+ * Each contributor owns the triples it emits: it should not emit those the converter or
+ * another contributor already writes. The stage counts the triples emitted that the graph
+ * already held, so overlaps show up in its statistics.
+ */
+public interface EnrichmentContributor {
+
+    String getName();
+
+    /**
+     * Emits the triples to add about one Pokemon. Called once per Pokemon, reading the graph
+     * as converted; the triples emitted are added after every contributor has run.
+     */
+    void contribute(Graph graph, Node pokemon, Consumer<Triple> out);
+}
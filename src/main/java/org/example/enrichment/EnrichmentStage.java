@@ -0,0 +1,72 @@
+package org.example.enrichment;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.GraphUtil;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Enriches the converted Pokemon with the triples of a declared set of contributors.
+ *
+ * Every contributor runs once per Pokemon, the resources with a schema:identifier. Triples the
+ * graph already holds or another contributor emitted are counted and dropped, and the rest
+ * are added in one go once all Pokemon are done.
+ */
+public class EnrichmentStage {
+    private static final Logger logger = LoggerFactory.getLogger(EnrichmentStage.class);
+    private static final Node SCHEMA_IDENTIFIER = NodeFactory.createURI("http://schema.org/identifier");
+
+    private final List<EnrichmentContributor> contributors;
+
+    public EnrichmentStage(List<EnrichmentContributor> contributors) {
+        this.contributors = Collections.unmodifiableList(new ArrayList<>(contributors));
+    }
+
+    public List<EnrichmentContributor> getContributors() {
+        return contributors;
+    }
+
+    /**
+     * @return the counts of each contributor, in the order they were declared
+     */
+    public List<ContributorStatistics> enrich(Model model) {
+        Graph graph = model.getGraph();
+        Set<Node> pokemon = new LinkedHashSet<>(
+            graph.find(Node.ANY, SCHEMA_IDENTIFIER, Node.ANY).mapWith(Triple::getSubject).toList());
+
+        List<ContributorStatistics> statistics = new ArrayList<>();
+        for (EnrichmentContributor contributor : contributors) {
+            statistics.add(new ContributorStatistics(contributor.getName()));
+        }
+        Set<Triple> additions = new LinkedHashSet<>();
+        for (Node subject : pokemon) {
+            for (int i = 0; i < contributors.size(); i++) {
+                ContributorStatistics stats = statistics.get(i);
+                contributors.get(i).contribute(graph, subject,
+                    triple -> stats.record(!graph.contains(triple) && additions.add(triple)));
+            }
+        }
+        GraphUtil.add(graph, additions.iterator());
+
+        long emitted = statistics.stream().mapToLong(ContributorStatistics::getEmitted).sum();
+        logger.info("Enriched {} Pokemon with {} triples ({} emitted)", pokemon.size(), additions.size(), emitted);
+        for (ContributorStatistics stats : statistics) {
+            if (stats.getRedundant() > 0) {
+                logger.warn("  {}, {} already present", stats, stats.getRedundant());
+            } else {
+                logger.info("  {}", stats);
+            }
+        }
+        return statistics;
+    }
+}
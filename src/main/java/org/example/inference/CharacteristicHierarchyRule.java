@@ -0,0 +1,60 @@
+package org.example.inference;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.vocabulary.RDFS;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Declares the physical and classification properties as sub-properties of
+ * pokemon:characteristic. These are axioms and do not depend on the data.
+ */
+public class CharacteristicHierarchyRule implements InferenceRule {
+    private static final String BASE_URI = "http://example.org/pokemon/";
+    private static final String SCHEMA_URI = "http://schema.org/";
+
+    private static final Node CHARACTERISTIC = NodeFactory.createURI(BASE_URI + "characteristic");
+    private static final List<Node> PROPERTIES = Arrays.asList(
+        NodeFactory.createURI(BASE_URI + "height"),
+        NodeFactory.createURI(BASE_URI + "weight"),
+        NodeFactory.createURI(BASE_URI + "category"),
+        NodeFactory.createURI(BASE_URI + "ability"),
+        NodeFactory.createURI(BASE_URI + "primaryType"),
+        NodeFactory.createURI(BASE_URI + "secondaryType"),
+        NodeFactory.createURI(SCHEMA_URI + "height"),
+        NodeFactory.createURI(SCHEMA_URI + "weight")
+    );
+
+    @Override
+    public String getName() {
+        return "characteristic-hierarchy";
+    }
+
+    @Override
+    public boolean isRecursive() {
+        return false;
+    }
+
+    @Override
+    public void axioms(Consumer<Triple> out) {
+        for (Node property : PROPERTIES) {
+            out.accept(Triple.create(property, RDFS.subPropertyOf.asNode(), CHARACTERISTIC));
+        }
+    }
+
+    @Override
+    public void apply(Graph graph, Graph delta, Consumer<Triple> out) {
+    }
+
+    @Override
+    public boolean derives(Graph graph, Triple triple) {
+        return triple.getPredicate().equals(RDFS.subPropertyOf.asNode())
+            && triple.getObject().equals(CHARACTERISTIC)
+            && PROPERTIES.contains(triple.getSubject());
+    }
+}
@@ -0,0 +1,195 @@
+package org.example.inference;
+
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.util.iterator.WrappedIterator;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Read-through view of a graph with RDFS class and property hierarchies applied at query time
+ * (backward chaining), answered from a {@link HierarchyIndex}:
+ *
+ * <ul>
+ *   <li>rdfs:subClassOf and rdfs:subPropertyOf are transitive (rdfs5, rdfs11);</li>
+ *   <li>a triple with a sub-property also holds for its super-properties (rdfs7);</li>
+ *   <li>optionally, an instance of a class is an instance of its superclasses (rdfs9).</li>
+ * </ul>
+ * Nothing is added to the underlying graph. Writes go to the underlying graph and a committed
+ * write to either hierarchy invalidates the index.
+ */
+public class HierarchyGraph extends IndexedGraph<HierarchyIndex> {
+    private static final Node TYPE = RDF.type.asNode();
+    private static final Node SUBCLASS_OF = RDFS.subClassOf.asNode();
+    private static final Node SUBPROPERTY_OF = RDFS.subPropertyOf.asNode();
+
+    private final boolean typeEntailment;
+
+    /**
+     * @param typeEntailment whether rdf:type is answered through the class hierarchy; without
+     *                       it, class memberships are read as stored
+     */
+    public HierarchyGraph(Graph base, boolean typeEntailment) {
+        super(base);
+        this.typeEntailment = typeEntailment;
+    }
+
+    @Override
+    protected HierarchyIndex buildIndex(Graph base) {
+        return HierarchyIndex.build(base);
+    }
+
+    @Override
+    protected boolean isIndexed(Node predicate) {
+        return predicate.equals(SUBCLASS_OF) || predicate.equals(SUBPROPERTY_OF);
+    }
+
+    @Override
+    protected ExtendedIterator<Triple> graphBaseFind(Triple pattern) {
+        HierarchyIndex index = getIndex();
+        Node subject = pattern.getSubject();
+        Node predicate = pattern.getPredicate();
+        Node object = pattern.getObject();
+
+        if (predicate.isConcrete()) {
+            if (predicate.equals(TYPE)) {
+                return findTypes(index, subject, object);
+            }
+            if (predicate.equals(SUBCLASS_OF)) {
+                return findClosure(index.classes(), SUBCLASS_OF, subject, object);
+            }
+            if (predicate.equals(SUBPROPERTY_OF)) {
+                return findClosure(index.properties(), SUBPROPERTY_OF, subject, object);
+            }
+            return findProperty(index, subject, predicate, object);
+        }
+        return findAnyProperty(index, subject, object)
+            .andThen(findTypes(index, subject, object))
+            .andThen(findClosure(index.classes(), SUBCLASS_OF, subject, object))
+            .andThen(findClosure(index.properties(), SUBPROPERTY_OF, subject, object));
+    }
+
+    private ExtendedIterator<Triple> findTypes(HierarchyIndex index, Node subject, Node type) {
+        if (!typeEntailment) {
+            return base.find(subject, TYPE, type);
+        }
+        HierarchyIndex.Hierarchy classes = index.classes();
+        if (subject.isConcrete() || !type.isConcrete()) {
+            // Walk up from the stored types, which are few per instance
+            Set<Triple> seen = new HashSet<>();
+            return WrappedIterator.create(Iter.flatMap(base.find(subject, TYPE, Node.ANY), triple -> {
+                List<Node> types = withAncestors(triple.getObject(), classes);
+                List<Triple> entailed = new ArrayList<>(types.size());
+                for (Node entailedType : types) {
+                    Triple candidate = Triple.create(triple.getSubject(), TYPE, entailedType);
+                    if ((!type.isConcrete() || type.equals(entailedType)) && seen.add(candidate)) {
+                        entailed.add(candidate);
+                    }
+                }
+                return entailed.iterator();
+            }));
+        }
+        if (!classes.hasDescendants(type)) {
+            return base.find(Node.ANY, TYPE, type);
+        }
+        // Walk down to the subclasses, reporting each instance once
+        List<Node> types = new ArrayList<>();
+        types.add(type);
+        types.addAll(classes.descendants(type));
+        Set<Node> seen = new HashSet<>();
+        return WrappedIterator.create(Iter.flatMap(types.iterator(), subclass ->
+            base.find(Node.ANY, TYPE, subclass)
+                .filterKeep(triple -> seen.add(triple.getSubject()))
+                .mapWith(triple -> Triple.create(triple.getSubject(), TYPE, type))));
+    }
+
+    private ExtendedIterator<Triple> findClosure(HierarchyIndex.Hierarchy hierarchy, Node predicate,
+                                                 Node subject, Node object) {
+        if (subject.isConcrete()) {
+            return WrappedIterator.create(hierarchy.ancestors(subject).stream()
+                .filter(ancestor -> !object.isConcrete() || ancestor.equals(object))
+                .map(ancestor -> Triple.create(subject, predicate, ancestor))
+                .iterator());
+        }
+        if (object.isConcrete()) {
+            return WrappedIterator.create(hierarchy.descendants(object).stream()
+                .map(descendant -> Triple.create(descendant, predicate, object))
+                .iterator());
+        }
+        return WrappedIterator.create(Iter.flatMap(hierarchy.nodes().iterator(), node ->
+            hierarchy.ancestors(node).stream()
+                .map(ancestor -> Triple.create(node, predicate, ancestor))
+                .iterator()));
+    }
+
+    private ExtendedIterator<Triple> findProperty(HierarchyIndex index, Node subject, Node predicate, Node object) {
+        HierarchyIndex.Hierarchy properties = index.properties();
+        ExtendedIterator<Triple> stored = base.find(subject, predicate, object);
+        if (!properties.hasDescendants(predicate)) {
+            return stored;
+        }
+        // Triples of the sub-properties, unless stored already or held by another sub-property
+        Set<Triple> seen = new HashSet<>();
+        return stored.andThen(Iter.flatMap(properties.descendants(predicate).iterator(), subProperty ->
+            isHierarchyVocabulary(subProperty)
+                ? Collections.emptyIterator()
+                : base.find(subject, subProperty, object)
+                    .mapWith(triple -> Triple.create(triple.getSubject(), predicate, triple.getObject()))
+                    .filterKeep(triple -> !base.contains(triple) && seen.add(triple))));
+    }
+
+    /**
+     * All stored triples other than the hierarchy vocabulary, each followed by what it entails
+     * for the super-properties of its predicate.
+     */
+    private ExtendedIterator<Triple> findAnyProperty(HierarchyIndex index, Node subject, Node object) {
+        HierarchyIndex.Hierarchy properties = index.properties();
+        Set<Triple> seen = new HashSet<>();
+        return WrappedIterator.create(Iter.flatMap(
+            base.find(subject, Node.ANY, object).filterDrop(triple -> isHierarchyVocabulary(triple.getPredicate())),
+            triple -> {
+                List<Node> superProperties = properties.ancestors(triple.getPredicate());
+                if (superProperties.isEmpty()) {
+                    return Collections.singletonList(triple).iterator();
+                }
+                List<Triple> entailed = new ArrayList<>(superProperties.size() + 1);
+                entailed.add(triple);
+                for (Node superProperty : superProperties) {
+                    Triple candidate = Triple.create(triple.getSubject(), superProperty, triple.getObject());
+                    if (!isHierarchyVocabulary(superProperty) && !base.contains(candidate) && seen.add(candidate)) {
+                        entailed.add(candidate);
+                    }
+                }
+                return entailed.iterator();
+            }));
+    }
+
+    private static List<Node> withAncestors(Node node, HierarchyIndex.Hierarchy hierarchy) {
+        List<Node> ancestors = hierarchy.ancestors(node);
+        if (ancestors.isEmpty()) {
+            return Collections.singletonList(node);
+        }
+        List<Node> nodes = new ArrayList<>(ancestors.size() + 1);
+        nodes.add(node);
+        for (Node ancestor : ancestors) {
+            if (!ancestor.equals(node)) {
+                nodes.add(ancestor);
+            }
+        }
+        return nodes;
+    }
+
+    // rdf:type and the hierarchy predicates are answered by their own rules
+    private static boolean isHierarchyVocabulary(Node predicate) {
+        return predicate.equals(TYPE) || predicate.equals(SUBCLASS_OF) || predicate.equals(SUBPROPERTY_OF);
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.inference;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.vocabulary.RDFS;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The rdfs:subClassOf and rdfs:subPropertyOf hierarchies of a graph, closed under
+ * transitivity.
+ *
+ * Ancestors are precomputed for every node. Most nodes share the same ancestors (every
+ * resource-specific type sits under one type class and pokemon:Pokemon), so equal ancestor
+ * lists are stored once. Descendants are walked from the direct edges on demand, which costs
+ * as much as the answer itself. The index is immutable once built.
+ */
+public class HierarchyIndex {
+    private final Hierarchy classes;
+    private final Hierarchy properties;
+
+    private HierarchyIndex(Hierarchy classes, Hierarchy properties) {
+        this.classes = classes;
+        this.properties = properties;
+    }
+
+    public static HierarchyIndex build(Graph graph) {
+        Map<List<Node>, List<Node>> shared = new HashMap<>();
+        return new HierarchyIndex(
+            Hierarchy.build(graph, RDFS.subClassOf.asNode(), shared),
+            Hierarchy.build(graph, RDFS.subPropertyOf.asNode(), shared));
+    }
+
+    public Hierarchy classes() {
+        return classes;
+    }
+
+    public Hierarchy properties() {
+        return properties;
+    }
+
+    /**
+     * One transitive hierarchy, e.g. the classes under rdfs:subClassOf.
+     */
+    public static class Hierarchy {
+        // Node -> all its ancestors; lists with equal contents are the same instance
+        private final Map<Node, List<Node>> ancestors;
+        private final Map<Node, List<Node>> directChildren;
+
+        private Hierarchy(Map<Node, List<Node>> ancestors, Map<Node, List<Node>> directChildren) {
+            this.ancestors = ancestors;
+            this.directChildren = directChildren;
+        }
+
+        static Hierarchy build(Graph graph, Node predicate, Map<List<Node>, List<Node>> shared) {
+            Map<Node, List<Node>> directParents = new HashMap<>();
+            Map<Node, List<Node>> directChildren = new HashMap<>();
+            graph.find(Node.ANY, predicate, Node.ANY).forEachRemaining(triple -> {
+                directParents.computeIfAbsent(triple.getSubject(), n -> new ArrayList<>(1)).add(triple.getObject());
+                directChildren.computeIfAbsent(triple.getObject(), n -> new ArrayList<>(1)).add(triple.getSubject());
+            });
+
+            Map<Node, List<Node>> ancestors = new HashMap<>(directParents.size() * 2);
+            for (Node node : directParents.keySet()) {
+                List<Node> closure = Collections.unmodifiableList(new ArrayList<>(reachable(node, directParents)));
+                ancestors.put(node, shared.computeIfAbsent(closure, c -> c));
+            }
+            return new Hierarchy(ancestors, directChildren);
+        }
+
+        /**
+         * Every node reachable from the given one, which only includes the node itself when
+         * it lies on a cycle.
+         */
+        private static Set<Node> reachable(Node start, Map<Node, List<Node>> edges) {
+            Set<Node> seen = new LinkedHashSet<>();
+            Deque<Node> pending = new ArrayDeque<>(edges.getOrDefault(start, Collections.emptyList()));
+            while (!pending.isEmpty()) {
+                Node next = pending.poll();
+                if (seen.add(next)) {
+                    pending.addAll(edges.getOrDefault(next, Collections.emptyList()));
+                }
+            }
+            return seen;
+        }
+
+        public List<Node> ancestors(Node node) {
+            return ancestors.getOrDefault(node, Collections.emptyList());
+        }
+
+        public Set<Node> descendants(Node node) {
+            return reachable(node, directChildren);
+        }
+
+        public boolean hasDescendants(Node node) {
+            return directChildren.containsKey(node);
+        }
+
+        /**
+         * The nodes that have at least one ancestor.
+         */
+        public Set<Node> nodes() {
+            return Collections.unmodifiableSet(ancestors.keySet());
+        }
+
+        public int size() {
+            return ancestors.size();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.inference;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.GraphUtil;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.compose.Union;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a materialized graph in step with changes to its base data (delete and rederive).
+ *
+ * <ol>
+ *   <li>Everything derivable from a deleted base triple is overdeleted, joining against the
+ *       graph as it was before the deletion.</li>
+ *   <li>Overdeleted triples that still follow in one step from what remains are put back.</li>
+ *   <li>Added base triples and the rederived triples are propagated semi-naively.</li>
+ * </ol>
+ * Every step only starts from the changed triples, so the work is proportional to the change
+ * and its consequences rather than to the size of the graph.
+ */
+public class IncrementalMaintainer {
+    private static final Logger logger = LoggerFactory.getLogger(IncrementalMaintainer.class);
+
+    private final List<InferenceRule> rules;
+
+    public IncrementalMaintainer(List<InferenceRule> rules) {
+        this.rules = new ArrayList<>(rules);
+    }
+
+    /**
+     * @param base     the base triples, with the change already applied
+     * @param inferred the derived triples, updated in place
+     * @param added    base triples added by the change
+     * @param deleted  base triples deleted by the change
+     * @return the predicates of the derived triples that may have been added or removed
+     */
+    public Set<Node> maintain(Graph base, Graph inferred, Graph added, Graph deleted) {
+        long start = System.nanoTime();
+
+        Graph overdeleted = overdelete(base, inferred, deleted);
+        GraphUtil.deleteFrom(inferred, overdeleted);
+        Graph rederived = rederive(new Union(base, inferred), overdeleted);
+        GraphUtil.addInto(inferred, rederived);
+
+        Graph delta = GraphFactory.createGraphMem();
+        GraphUtil.addInto(delta, added);
+        GraphUtil.addInto(delta, rederived);
+        Set<Node> changedPredicates = new HashSet<>();
+        overdeleted.find().forEachRemaining(triple -> changedPredicates.add(triple.getPredicate()));
+        long inserted = propagate(new Union(base, inferred), inferred, delta, changedPredicates);
+
+        logger.debug("Maintained inference for +{}/-{} base triples: {} overdeleted, {} rederived, {} derived in {} ms",
+            added.size(), deleted.size(), overdeleted.size(), rederived.size(), inserted,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return changedPredicates;
+    }
+
+    private Graph overdelete(Graph base, Graph inferred, Graph deleted) {
+        Graph overdeleted = GraphFactory.createGraphMem();
+        Graph before = new Union(new Union(base, deleted), inferred);
+        Graph delta = deleted;
+
+        while (!delta.isEmpty()) {
+            Graph next = GraphFactory.createGraphMem();
+            for (InferenceRule rule : rules) {
+                rule.apply(before, delta, triple -> {
+                    // Triples that are also base data stay true and have nothing to retract
+                    if (inferred.contains(triple) && !base.contains(triple) && !overdeleted.contains(triple)) {
+                        next.add(triple);
+                    }
+                });
+            }
+            GraphUtil.addInto(overdeleted, next);
+            delta = next;
+        }
+        return overdeleted;
+    }
+
+    private Graph rederive(Graph graph, Graph overdeleted) {
+        Graph rederived = GraphFactory.createGraphMem();
+        overdeleted.find().forEachRemaining(triple -> {
+            for (InferenceRule rule : rules) {
+                if (rule.derives(graph, triple)) {
+                    rederived.add(triple);
+                    return;
+                }
+            }
+        });
+        return rederived;
+    }
+
+    private long propagate(Graph graph, Graph inferred, Graph delta, Set<Node> changedPredicates) {
+        long derived = 0;
+        while (!delta.isEmpty()) {
+            Graph next = GraphFactory.createGraphMem();
+            for (InferenceRule rule : rules) {
+                rule.apply(graph, delta, triple -> {
+                    if (!graph.contains(triple)) {
+                        next.add(triple);
+                    }
+                });
+            }
+            GraphUtil.addInto(inferred, next);
+            next.find().forEachRemaining(triple -> changedPredicates.add(triple.getPredicate()));
+            derived += next.size();
+            delta = next;
+        }
+        return derived;
+    }
+}
@@ -0,0 +1,222 @@
+package org.example.inference;
+
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.TransactionHandler;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.impl.GraphBase;
+import org.apache.jena.shared.PrefixMapping;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through view of a graph answered with the help of an index built from it.
+ *
+ * The index is built lazily and shared, but only from committed data: it is kept with the
+ * version of the data it was built from, and the version changes around every commit that
+ * touches the indexed predicates. A transaction that reads other data than the latest commit,
+ * because it has changed indexed triples itself, began before a later commit or overlapped
+ * one, builds an index of its own instead, which is dropped when the transaction ends, be it
+ * committed or aborted. Outside transactions, writes take effect at once and a write to one
+ * of the indexed predicates invalidates the shared index.
+ *
+ * The dataset owning the underlying graph reports the transactions through
+ * {@link #beginTransaction}, {@link #startChange}, {@link #finishChange} and
+ * {@link #endTransaction}.
+ *
+ * @param <I> the index type, which must be immutable once built
+ */
+public abstract class IndexedGraph<I> extends GraphBase {
+    // Marks a transaction that cannot tell which committed version it reads
+    private static final long UNKNOWN_VERSION = -1;
+
+    protected final Graph base;
+    // Even while the indexed data is stable, odd while a change to it is being committed
+    private final AtomicLong version = new AtomicLong();
+    private volatile IndexSnapshot<I> snapshot;
+    private final ThreadLocal<TransactionState<I>> transaction = new ThreadLocal<>();
+
+    protected IndexedGraph(Graph base) {
+        this.base = base;
+        this.snapshot = new IndexSnapshot<>(null, UNKNOWN_VERSION);
+    }
+
+    protected IndexedGraph(Graph base, I index) {
+        this.base = base;
+        this.snapshot = new IndexSnapshot<>(index, version.get());
+    }
+
+    protected abstract I buildIndex(Graph base);
+
+    /**
+     * Whether triples with the given predicate go into the index.
+     */
+    protected abstract boolean isIndexed(Node predicate);
+
+    public Graph getBase() {
+        return base;
+    }
+
+    /**
+     * The index of the data the calling thread reads.
+     */
+    public I getIndex() {
+        TransactionState<I> state = transaction.get();
+        long readVersion = state == null ? version.get() : state.version;
+        if (state != null && (state.changed || readVersion != version.get())) {
+            // Data no other transaction reads: its own changes, or an earlier commit
+            if (state.index == null) {
+                state.index = buildIndex(base);
+            }
+            return state.index;
+        }
+        if (readVersion == UNKNOWN_VERSION || readVersion % 2 != 0) {
+            return buildIndex(base);
+        }
+        IndexSnapshot<I> current = snapshot;
+        if (current.version == readVersion) {
+            return current.index;
+        }
+        synchronized (this) {
+            if (snapshot.version == readVersion) {
+                return snapshot.index;
+            }
+            I index = buildIndex(base);
+            // Only kept if no commit has happened meanwhile
+            if (version.get() == readVersion) {
+                snapshot = new IndexSnapshot<>(index, readVersion);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Forces the shared index to be rebuilt on the next read, e.g. after the underlying graph
+     * was changed without going through this view.
+     */
+    public void invalidate() {
+        version.addAndGet(2);
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Records the transaction the calling thread has just begun.
+     *
+     * @param versionBefore the version read before the transaction began, so a transaction
+     *                      that overlapped a commit is recognized
+     */
+    public void beginTransaction(long versionBefore) {
+        long versionAfter = version.get();
+        boolean stable = versionBefore == versionAfter && versionAfter % 2 == 0;
+        transaction.set(new TransactionState<>(stable ? versionAfter : UNKNOWN_VERSION));
+    }
+
+    /**
+     * Whether the transaction of the calling thread has changed indexed triples.
+     */
+    public boolean isChanged() {
+        TransactionState<I> state = transaction.get();
+        return state != null && state.changed;
+    }
+
+    /**
+     * Marks the indexed data as changing, before the change is committed. Every call must be
+     * followed by one to {@link #finishChange} once the commit is over, whether it succeeded.
+     */
+    public void startChange() {
+        version.incrementAndGet();
+    }
+
+    public void finishChange() {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Drops what was kept for the transaction of the calling thread. Does nothing if the
+     * thread is not in a transaction.
+     */
+    public void endTransaction() {
+        transaction.remove();
+    }
+
+    /**
+     * Records a change to indexed triples: in a transaction, for the transaction alone until
+     * it is committed, and otherwise at once.
+     */
+    private void changed() {
+        TransactionState<I> state = transaction.get();
+        if (state == null) {
+            invalidate();
+        } else {
+            state.changed = true;
+            state.index = null;
+        }
+    }
+
+    @Override
+    public void performAdd(Triple triple) {
+        base.add(triple);
+        if (isIndexed(triple.getPredicate())) {
+            changed();
+        }
+    }
+
+    @Override
+    public void performDelete(Triple triple) {
+        base.delete(triple);
+        if (isIndexed(triple.getPredicate())) {
+            changed();
+        }
+    }
+
+    @Override
+    public void clear() {
+        base.clear();
+        changed();
+    }
+
+    @Override
+    public void remove(Node subject, Node predicate, Node object) {
+        base.remove(subject, predicate, object);
+        changed();
+    }
+
+    @Override
+    protected int graphBaseSize() {
+        return (int) Iter.count(graphBaseFind(Triple.ANY));
+    }
+
+    @Override
+    public TransactionHandler getTransactionHandler() {
+        return base.getTransactionHandler();
+    }
+
+    @Override
+    public PrefixMapping getPrefixMapping() {
+        return base.getPrefixMapping();
+    }
+
+    private static class TransactionState<I> {
+        private final long version;
+        private boolean changed;
+        private I index;
+
+        TransactionState(long version) {
+            this.version = version;
+        }
+    }
+
+    private static class IndexSnapshot<I> {
+        private final I index;
+        private final long version;
+
+        IndexSnapshot(I index, long version) {
+            this.index = index;
+            this.version = version;
+        }
+    }
+}
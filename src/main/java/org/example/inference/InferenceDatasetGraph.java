@@ -0,0 +1,381 @@
+package org.example.inference;
+
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.GraphUtil;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.compose.Union;
+import org.apache.jena.query.ReadWrite;
+import org.apache.jena.query.TxnType;
+import org.apache.jena.shared.AddDeniedException;
+import org.apache.jena.shared.DeleteDeniedException;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphWrapper;
+import org.apache.jena.sparql.core.DatasetGraphWrapperView;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.core.Transactional.Promote;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.system.Txn;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The dataset served by the SPARQL endpoint and the Linked Data interface.
+ *
+ * The storage dataset keeps the base data in its default graph and the derived triples in
+ * the {@link #INFERRED_GRAPH} named graph. The served default graph is the union of the two,
+ * read through a {@link SameAsGraph} so owl:sameAs equivalence is answered from an index
+ * instead of being materialized. Depending on the {@link ReasoningMode}, the union is also read
+ * through a {@link HierarchyGraph} that answers the RDFS hierarchies at query time.
+ *
+ * Writes to the default graph only ever change the base data. They are recorded for the
+ * current transaction and, on commit, the {@link IncrementalMaintainer} brings the derived
+ * triples up to date before the transaction is committed. Writes outside a transaction are
+ * run in one of their own. The indexes of the views are shared only as built from committed
+ * data, so no transaction reads through an index of another's uncommitted changes.
+ *
+ * Being a {@link DatasetGraphWrapperView}, queries are evaluated against this view rather
+ * than being handed to the query engine of the storage dataset.
+ */
+public class InferenceDatasetGraph extends DatasetGraphWrapper implements DatasetGraphWrapperView {
+    public static final Node INFERRED_GRAPH = NodeFactory.createURI("urn:x-pokemon:graph:inferred");
+
+    private final IncrementalMaintainer maintainer;
+    private final SameAsGraph defaultGraph;
+    private final List<IndexedGraph<?>> views = new ArrayList<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    // Base data changes of the current write transaction
+    private Graph added = GraphFactory.createGraphMem();
+    private Graph deleted = GraphFactory.createGraphMem();
+    private volatile Thread writer;
+
+    public InferenceDatasetGraph(DatasetGraph storage, ReasoningMode mode) {
+        super(storage);
+        this.maintainer = new IncrementalMaintainer(mode.rules());
+        // The union copies the prefixes of the base graph, which TDB2 only reads in a transaction
+        Graph union = Txn.calculateRead(storage,
+            () -> new BaseDataUnion(storage.getDefaultGraph(), storage.getGraph(INFERRED_GRAPH)));
+        if (mode.usesHierarchyIndex()) {
+            HierarchyGraph hierarchyGraph = new HierarchyGraph(union, mode.entailsTypesAtQueryTime());
+            views.add(hierarchyGraph);
+            union = hierarchyGraph;
+        }
+        this.defaultGraph = new SameAsGraph(union);
+        views.add(defaultGraph);
+    }
+
+    /**
+     * Replaces the stored data with already materialized base and derived triples.
+     */
+    public void load(Graph base, Graph inferred) {
+        views.forEach(IndexedGraph::startChange);
+        try {
+            Txn.executeWrite(get(), () -> {
+                Graph storedBase = get().getDefaultGraph();
+                Graph storedInferred = get().getGraph(INFERRED_GRAPH);
+                storedBase.clear();
+                storedInferred.clear();
+                GraphUtil.addInto(storedBase, base);
+                GraphUtil.addInto(storedInferred, inferred);
+            });
+        } finally {
+            views.forEach(IndexedGraph::finishChange);
+        }
+        generation.incrementAndGet();
+    }
+
+    /**
+     * The stored base data, without the derived triples. Read it in a transaction.
+     */
+    public Graph getBaseGraph() {
+        return get().getDefaultGraph();
+    }
+
+    /**
+     * A number that increases after every change to the served data: loads, clears and
+     * committed write transactions. Whatever was read at one generation may be reused for as
+     * long as the generation stays the same.
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    public SameAsIndex getSameAsIndex() {
+        return Txn.calculateRead(this, defaultGraph::getIndex);
+    }
+
+    /**
+     * The class and property hierarchies answered at query time, or null when the reasoning
+     * mode materializes them.
+     */
+    public HierarchyIndex getHierarchyIndex() {
+        for (IndexedGraph<?> view : views) {
+            if (view instanceof HierarchyGraph) {
+                return Txn.calculateRead(this, ((HierarchyGraph) view)::getIndex);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Graph getDefaultGraph() {
+        return defaultGraph;
+    }
+
+    @Override
+    public Iterator<Quad> find() {
+        return find(Node.ANY, Node.ANY, Node.ANY, Node.ANY);
+    }
+
+    @Override
+    public Iterator<Quad> find(Quad quad) {
+        return find(quad.getGraph(), quad.getSubject(), quad.getPredicate(), quad.getObject());
+    }
+
+    @Override
+    public Iterator<Quad> find(Node g, Node s, Node p, Node o) {
+        if (g != null && g.isConcrete() && !Quad.isDefaultGraph(g)) {
+            return super.find(g, s, p, o);
+        }
+        Iterator<Quad> defaultQuads = defaultGraph.find(s, p, o)
+            .mapWith(triple -> Quad.create(Quad.defaultGraphIRI, triple));
+        if (g != null && g.isConcrete()) {
+            return defaultQuads;
+        }
+        return Iter.concat(defaultQuads, findNG(Node.ANY, s, p, o));
+    }
+
+    @Override
+    public boolean contains(Quad quad) {
+        return contains(quad.getGraph(), quad.getSubject(), quad.getPredicate(), quad.getObject());
+    }
+
+    @Override
+    public boolean contains(Node g, Node s, Node p, Node o) {
+        return find(g, s, p, o).hasNext();
+    }
+
+    @Override
+    public void add(Quad quad) {
+        add(quad.getGraph(), quad.getSubject(), quad.getPredicate(), quad.getObject());
+    }
+
+    @Override
+    public void delete(Quad quad) {
+        delete(quad.getGraph(), quad.getSubject(), quad.getPredicate(), quad.getObject());
+    }
+
+    @Override
+    public void add(Node g, Node s, Node p, Node o) {
+        if (!isInTransaction()) {
+            Txn.executeWrite(this, () -> add(g, s, p, o));
+        } else if (Quad.isDefaultGraph(g)) {
+            defaultGraph.add(Triple.create(s, p, o));
+        } else if (INFERRED_GRAPH.equals(g)) {
+            throw new AddDeniedException("Derived triples are maintained by the reasoner");
+        } else {
+            super.add(g, s, p, o);
+        }
+    }
+
+    @Override
+    public void delete(Node g, Node s, Node p, Node o) {
+        if (!isInTransaction()) {
+            Txn.executeWrite(this, () -> delete(g, s, p, o));
+        } else if (Quad.isDefaultGraph(g)) {
+            defaultGraph.delete(Triple.create(s, p, o));
+        } else if (INFERRED_GRAPH.equals(g)) {
+            throw new DeleteDeniedException("Derived triples are maintained by the reasoner");
+        } else {
+            super.delete(g, s, p, o);
+        }
+    }
+
+    @Override
+    public void deleteAny(Node g, Node s, Node p, Node o) {
+        if (!isInTransaction()) {
+            Txn.executeWrite(this, () -> deleteAny(g, s, p, o));
+        } else if (g == null || !g.isConcrete()) {
+            deleteAny(Quad.defaultGraphIRI, s, p, o);
+            for (Node graphName : Iter.toList(listGraphNodes())) {
+                if (!INFERRED_GRAPH.equals(graphName)) {
+                    super.deleteAny(graphName, s, p, o);
+                }
+            }
+        } else if (Quad.isDefaultGraph(g)) {
+            List<Triple> matches = get().getDefaultGraph().find(s, p, o).toList();
+            matches.forEach(defaultGraph::delete);
+        } else if (INFERRED_GRAPH.equals(g)) {
+            throw new DeleteDeniedException("Derived triples are maintained by the reasoner");
+        } else {
+            super.deleteAny(g, s, p, o);
+        }
+    }
+
+    @Override
+    public void clear() {
+        views.forEach(IndexedGraph::startChange);
+        try {
+            super.clear();
+        } finally {
+            views.forEach(IndexedGraph::finishChange);
+        }
+        generation.incrementAndGet();
+    }
+
+    @Override
+    public void begin() {
+        long[] versions = viewVersions();
+        super.begin();
+        beginViews(versions);
+    }
+
+    @Override
+    public void begin(TxnType type) {
+        long[] versions = viewVersions();
+        super.begin(type);
+        beginViews(versions);
+    }
+
+    @Override
+    public void begin(ReadWrite mode) {
+        long[] versions = viewVersions();
+        super.begin(mode);
+        beginViews(versions);
+    }
+
+    @Override
+    public boolean promote(Promote mode) {
+        long[] versions = viewVersions();
+        boolean promoted = super.promote(mode);
+        if (promoted) {
+            // The transaction may now read later commits
+            beginViews(versions);
+        }
+        return promoted;
+    }
+
+    @Override
+    public void commit() {
+        Set<Node> changedPredicates = Set.of();
+        if (Thread.currentThread() == writer) {
+            changedPredicates = maintainer.maintain(
+                get().getDefaultGraph(), get().getGraph(INFERRED_GRAPH), added, deleted);
+            resetChanges();
+        }
+        // Views whose indexed triples change, directly or through the derived triples
+        List<IndexedGraph<?>> changing = new ArrayList<>();
+        for (IndexedGraph<?> view : views) {
+            if (view.isChanged() || changedPredicates.stream().anyMatch(view::isIndexed)) {
+                changing.add(view);
+            }
+        }
+        boolean write = transactionMode() == ReadWrite.WRITE;
+        changing.forEach(IndexedGraph::startChange);
+        try {
+            super.commit();
+        } finally {
+            changing.forEach(IndexedGraph::finishChange);
+            views.forEach(IndexedGraph::endTransaction);
+        }
+        // Only once committed, so nothing read before the commit is kept as the new generation
+        if (write) {
+            generation.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void abort() {
+        if (Thread.currentThread() == writer) {
+            resetChanges();
+        }
+        try {
+            super.abort();
+        } finally {
+            // Indexes of the uncommitted changes go with them
+            views.forEach(IndexedGraph::endTransaction);
+        }
+    }
+
+    @Override
+    public void end() {
+        if (Thread.currentThread() == writer) {
+            // Ended without a commit
+            resetChanges();
+        }
+        try {
+            super.end();
+        } finally {
+            views.forEach(IndexedGraph::endTransaction);
+        }
+    }
+
+    private long[] viewVersions() {
+        long[] versions = new long[views.size()];
+        for (int i = 0; i < versions.length; i++) {
+            versions[i] = views.get(i).getVersion();
+        }
+        return versions;
+    }
+
+    private void beginViews(long[] versionsBefore) {
+        for (int i = 0; i < versionsBefore.length; i++) {
+            views.get(i).beginTransaction(versionsBefore[i]);
+        }
+    }
+
+    private void resetChanges() {
+        writer = null;
+        if (!added.isEmpty()) {
+            added = GraphFactory.createGraphMem();
+        }
+        if (!deleted.isEmpty()) {
+            deleted = GraphFactory.createGraphMem();
+        }
+    }
+
+    /**
+     * Base and derived triples read as one graph. Writes go to the base triples only and
+     * are recorded when they actually change them.
+     */
+    private class BaseDataUnion extends Union {
+        BaseDataUnion(Graph base, Graph inferred) {
+            super(base, inferred);
+        }
+
+        @Override
+        public void performAdd(Triple triple) {
+            if (L.contains(triple)) {
+                return;
+            }
+            L.add(triple);
+            writer = Thread.currentThread();
+            if (deleted.contains(triple)) {
+                deleted.delete(triple);
+            } else {
+                added.add(triple);
+            }
+        }
+
+        @Override
+        public void performDelete(Triple triple) {
+            if (!L.contains(triple)) {
+                return;
+            }
+            L.delete(triple);
+            writer = Thread.currentThread();
+            if (added.contains(triple)) {
+                added.delete(triple);
+            } else {
+                deleted.add(triple);
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.inference;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Triple;
+
+import java.util.function.Consumer;
+
+/**
+ * A forward-chaining rule evaluated by a {@link MaterializationEngine} and kept up to date
+ * by the {@link IncrementalMaintainer}.
+ *
+ * Rules are written in delta form: {@link #apply} only has to emit the conclusions that use
+ * at least one triple of {@code delta} as a premise, joining the remaining premises against
+ * {@code graph}. The caller takes care of duplicate elimination and of feeding the newly
+ * derived triples back in as the next delta. Applying a rule to its own conclusions must
+ * terminate, even for rules that are not {@link #isRecursive() recursive}.
+ */
+public interface InferenceRule {
+
+    String getName();
+
+    /**
+     * Recursive rules may consume their own conclusions and are iterated until no new triples
+     * are derived. Non-recursive rules are applied exactly once.
+     */
+    boolean isRecursive();
+
+    /**
+     * Conclusions that hold regardless of the data. They are emitted once and never retracted.
+     */
+    default void axioms(Consumer<Triple> out) {
+    }
+
+    void apply(Graph graph, Graph delta, Consumer<Triple> out);
+
+    /**
+     * Whether a single application of this rule to {@code graph} concludes {@code triple}.
+     * Used to rederive triples that lost one of their derivations on a deletion.
+     */
+    boolean derives(Graph graph, Triple triple);
+}
@@ -0,0 +1,14 @@
+package org.example.inference;
+
+import org.apache.jena.rdf.model.Model;
+
+/**
+ * Computes the inference closure of a base model. Implementations must not modify the base
+ * model; the returned result holds the triples derived from it in a separate model.
+ */
+public interface MaterializationEngine {
+
+    String getName();
+
+    MaterializationResult materialize(Model baseModel);
+}
@@ -0,0 +1,58 @@
+package org.example.inference;
+
+import org.apache.jena.graph.compose.Union;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of a materialization: the base model, the triples derived from it (kept
+ * separately so they can be stored and maintained apart from the base data) and the
+ * statistics gathered while computing them.
+ */
+public class MaterializationResult {
+    private final Model baseModel;
+    private final Model inferredModel;
+    private final List<RuleStatistics> ruleStatistics;
+    private final long elapsedMillis;
+
+    public MaterializationResult(Model baseModel, Model inferredModel, List<RuleStatistics> ruleStatistics,
+                                 long elapsedMillis) {
+        this.baseModel = baseModel;
+        this.inferredModel = inferredModel;
+        this.ruleStatistics = Collections.unmodifiableList(new ArrayList<>(ruleStatistics));
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * A read view over the base and the derived triples.
+     */
+    public Model getModel() {
+        return ModelFactory.createModelForGraph(new Union(baseModel.getGraph(), inferredModel.getGraph()));
+    }
+
+    public Model getBaseModel() { return baseModel; }
+    public Model getInferredModel() { return inferredModel; }
+    public List<RuleStatistics> getRuleStatistics() { return ruleStatistics; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    public long getBaseSize() {
+        return baseModel.size();
+    }
+
+    public long getDerivedCount() {
+        return inferredModel.size();
+    }
+
+    public void logSummary(Logger logger) {
+        logger.info("Materialized {} triples from {} base triples ({} derived) in {} ms",
+            getBaseSize() + getDerivedCount(), getBaseSize(), getDerivedCount(), elapsedMillis);
+        for (RuleStatistics stats : ruleStatistics) {
+            logger.info("  {}", stats);
+        }
+    }
+}
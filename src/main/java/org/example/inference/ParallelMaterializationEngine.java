@@ -0,0 +1,168 @@
+package org.example.inference;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.impl.GraphBase;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.util.iterator.NullIterator;
+import org.apache.jena.util.iterator.WrappedIterator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Semi-naive evaluation with every round split across a fork/join pool.
+ *
+ * The delta of a round is partitioned by subject and each partition is joined against the
+ * whole graph by its own task, which already drops conclusions the graph holds. The triples a
+ * rule looks for in the delta are split into the partitions in a single pass, the first time
+ * any task looks for them, and every task then reads only its own slice. The partial results
+ * are merged once the round is over, which also drops the conclusions found by more than one
+ * partition. The graph is only read during a round, which Jena's in-memory graphs allow from
+ * several threads.
+ *
+ * The engine owns its pool; close it once it is no longer needed.
+ */
+public class ParallelMaterializationEngine extends SemiNaiveMaterializationEngine implements AutoCloseable {
+    // Partitions per worker, so a slow partition does not hold up the round
+    private static final int PARTITIONS_PER_WORKER = 4;
+
+    private final ForkJoinPool pool;
+    private final int partitions;
+
+    public ParallelMaterializationEngine() {
+        this(InferenceHandler.defaultRules(), Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelMaterializationEngine(List<InferenceRule> rules, int parallelism) {
+        super(rules);
+        this.pool = new ForkJoinPool(parallelism);
+        this.partitions = parallelism * PARTITIONS_PER_WORKER;
+    }
+
+    @Override
+    public String getName() {
+        return "parallel semi-naive (" + pool.getParallelism() + " workers)";
+    }
+
+    @Override
+    protected void apply(InferenceRule rule, Graph graph, Graph delta, DeltaCollector collector) {
+        if (pool.getParallelism() == 1) {
+            super.apply(rule, graph, delta, collector);
+            return;
+        }
+        PartitionedDelta partitioned = new PartitionedDelta(delta, partitions);
+        for (DeltaCollector partial : pool.invoke(new PartitionTask(rule, graph, partitioned, 0, partitions))) {
+            collector.merge(partial);
+        }
+    }
+
+    /**
+     * Shuts the pool down, once the materialization running, if any, is over.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private static class PartitionTask extends RecursiveTask<List<DeltaCollector>> {
+        private static final long serialVersionUID = 1L;
+
+        // Tasks are never serialized
+        private final transient InferenceRule rule;
+        private final transient Graph graph;
+        private final transient PartitionedDelta delta;
+        private final int from;
+        private final int to;
+
+        PartitionTask(InferenceRule rule, Graph graph, PartitionedDelta delta, int from, int to) {
+            this.rule = rule;
+            this.graph = graph;
+            this.delta = delta;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<DeltaCollector> compute() {
+            if (to - from == 1) {
+                DeltaCollector collector = new DeltaCollector(graph);
+                rule.apply(graph, delta.partition(from), collector);
+                List<DeltaCollector> partials = new ArrayList<>(delta.partitions);
+                partials.add(collector);
+                return partials;
+            }
+            int middle = (from + to) >>> 1;
+            PartitionTask right = new PartitionTask(rule, graph, delta, middle, to);
+            right.fork();
+            List<DeltaCollector> partials = new PartitionTask(rule, graph, delta, from, middle).compute();
+            partials.addAll(right.join());
+            return partials;
+        }
+    }
+
+    /**
+     * The delta of a round split by the hash of the subject. The triples matching a pattern
+     * are split in one pass the first time a partition is asked for them; partitions asking
+     * at the same time wait for that pass rather than scanning the delta themselves.
+     */
+    private static class PartitionedDelta {
+        private final Graph delta;
+        private final int partitions;
+        private final Map<Triple, List<List<Triple>>> slices = new ConcurrentHashMap<>();
+
+        PartitionedDelta(Graph delta, int partitions) {
+            this.delta = delta;
+            this.partitions = partitions;
+        }
+
+        int partitionOf(Node subject) {
+            return Math.floorMod(subject.hashCode(), partitions);
+        }
+
+        Graph partition(int partition) {
+            return new SubjectPartition(this, partition);
+        }
+
+        List<Triple> slice(Triple pattern, int partition) {
+            return slices.computeIfAbsent(pattern, this::split).get(partition);
+        }
+
+        private List<List<Triple>> split(Triple pattern) {
+            List<List<Triple>> split = new ArrayList<>(partitions);
+            for (int i = 0; i < partitions; i++) {
+                split.add(new ArrayList<>());
+            }
+            delta.find(pattern).forEachRemaining(triple -> split.get(partitionOf(triple.getSubject())).add(triple));
+            return split;
+        }
+    }
+
+    /**
+     * The triples of the delta whose subject hashes to one partition.
+     */
+    private static class SubjectPartition extends GraphBase {
+        private final PartitionedDelta delta;
+        private final int partition;
+
+        SubjectPartition(PartitionedDelta delta, int partition) {
+            this.delta = delta;
+            this.partition = partition;
+        }
+
+        @Override
+        protected ExtendedIterator<Triple> graphBaseFind(Triple pattern) {
+            Node subject = pattern.getSubject();
+            if (subject.isConcrete()) {
+                // Already narrowed to one subject by the delta's own index
+                return delta.partitionOf(subject) == partition ? delta.delta.find(pattern) : NullIterator.instance();
+            }
+            return WrappedIterator.create(delta.slice(pattern, partition).iterator());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.inference;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * How much of the inference closure is stored and how much is answered at query time.
+ */
+public enum ReasoningMode {
+    /**
+     * Every derived triple is materialized on load and maintained on update.
+     */
+    MATERIALIZED,
+
+    /**
+     * Only the resource-specific types are materialized. Class memberships and the closure of
+     * the class and property hierarchies are answered at query time by a {@link HierarchyGraph}.
+     */
+    BACKWARD,
+
+    /**
+     * Class memberships, which most queries ask for, are materialized. The closure of the class
+     * and property hierarchies is answered at query time.
+     */
+    HYBRID;
+
+    /**
+     * The rules whose conclusions are stored, in evaluation order.
+     */
+    public List<InferenceRule> rules() {
+        switch (this) {
+            case BACKWARD:
+                return Arrays.asList(new TypeHierarchyRule(false), new CharacteristicHierarchyRule());
+            case HYBRID:
+                return Arrays.asList(new TypeHierarchyRule(true), new CharacteristicHierarchyRule());
+            default:
+                return InferenceHandler.defaultRules();
+        }
+    }
+
+    /**
+     * Whether the served graph is read through a {@link HierarchyGraph}.
+     */
+    public boolean usesHierarchyIndex() {
+        return this != MATERIALIZED;
+    }
+
+    /**
+     * Whether rdf:type is answered through the class hierarchy at query time.
+     */
+    public boolean entailsTypesAtQueryTime() {
+        return this == BACKWARD;
+    }
+
+    /**
+     * Parses a mode name case-insensitively; no name means {@link #MATERIALIZED}.
+     */
+    public static ReasoningMode fromName(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return MATERIALIZED;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown reasoning mode '" + name + "', expected one of "
+                + Arrays.toString(values()));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.inference;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-rule counters collected while a {@link MaterializationEngine} runs.
+ */
+public class RuleStatistics {
+    private final String ruleName;
+    private int rounds;
+    private long candidates;
+    private long derived;
+    private long elapsedNanos;
+
+    public RuleStatistics(String ruleName) {
+        this.ruleName = ruleName;
+    }
+
+    void recordRound(long roundCandidates, long roundDerived, long roundNanos) {
+        rounds++;
+        candidates += roundCandidates;
+        derived += roundDerived;
+        elapsedNanos += roundNanos;
+    }
+
+    public String getRuleName() { return ruleName; }
+    public int getRounds() { return rounds; }
+    public long getCandidates() { return candidates; }
+    public long getDerived() { return derived; }
+    public long getElapsedMillis() { return TimeUnit.NANOSECONDS.toMillis(elapsedNanos); }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d new triples (%d candidates) in %d round(s), %d ms",
+            ruleName, derived, candidates, rounds, getElapsedMillis());
+    }
+}
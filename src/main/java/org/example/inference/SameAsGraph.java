@@ -0,0 +1,140 @@
+package org.example.inference;
+
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.util.iterator.NullIterator;
+import org.apache.jena.util.iterator.WrappedIterator;
+import org.apache.jena.vocabulary.OWL;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Read-through view of a graph with owl:sameAs applied at query time.
+ *
+ * Every resource answers for the properties of all resources in its {@link SameAsIndex}
+ * class, and owl:sameAs links every pair of members of a class. Nothing is copied into the
+ * underlying graph; a triple held by several members is reported once.
+ *
+ * Writes go to the underlying graph. A committed write touching owl:sameAs invalidates the
+ * index, which is rebuilt by the next reader; until then the writing transaction reads
+ * through an index of its own.
+ */
+public class SameAsGraph extends IndexedGraph<SameAsIndex> {
+    private static final Node SAME_AS = OWL.sameAs.asNode();
+
+    public SameAsGraph(Graph base) {
+        super(base);
+    }
+
+    public SameAsGraph(Graph base, SameAsIndex index) {
+        super(base, index);
+    }
+
+    @Override
+    protected SameAsIndex buildIndex(Graph base) {
+        return SameAsIndex.build(base);
+    }
+
+    @Override
+    protected boolean isIndexed(Node predicate) {
+        return predicate.equals(SAME_AS);
+    }
+
+    @Override
+    protected ExtendedIterator<Triple> graphBaseFind(Triple pattern) {
+        SameAsIndex index = getIndex();
+        Node subject = pattern.getSubject();
+        Node predicate = pattern.getPredicate();
+        Node object = pattern.getObject();
+
+        ExtendedIterator<Triple> result = NullIterator.instance();
+        if (!predicate.isConcrete() || predicate.equals(SAME_AS)) {
+            result = result.andThen(findSameAs(index, subject, object));
+        }
+        if (!predicate.isConcrete() || !predicate.equals(SAME_AS)) {
+            result = result.andThen(findShared(index, subject, predicate, object));
+        }
+        return result;
+    }
+
+    private ExtendedIterator<Triple> findSameAs(SameAsIndex index, Node subject, Node object) {
+        if (subject.isConcrete()) {
+            return WrappedIterator.create(linksFrom(index, subject, object).iterator());
+        }
+        if (object.isConcrete()) {
+            return WrappedIterator.create(index.members(object).stream()
+                .filter(member -> !member.equals(object))
+                .map(member -> Triple.create(member, SAME_AS, object))
+                .iterator());
+        }
+        return WrappedIterator.create(Iter.flatMap(index.clusters().iterator(),
+            cluster -> cluster.stream()
+                .flatMap(member -> linksFrom(index, member, Node.ANY).stream())
+                .iterator()));
+    }
+
+    private List<Triple> linksFrom(SameAsIndex index, Node subject, Node object) {
+        if (!index.isLinked(subject)) {
+            return Collections.emptyList();
+        }
+        return index.members(subject).stream()
+            .filter(member -> !member.equals(subject))
+            .filter(member -> !object.isConcrete() || member.equals(object))
+            .map(member -> Triple.create(subject, SAME_AS, member))
+            .collect(Collectors.toList());
+    }
+
+    private ExtendedIterator<Triple> findShared(SameAsIndex index, Node subject, Node predicate, Node object) {
+        if (subject.isConcrete()) {
+            List<Node> members = index.members(subject);
+            if (members.size() == 1) {
+                return withoutSameAs(base.find(subject, predicate, object));
+            }
+            Iterator<Triple> shared = Iter.flatMap(members.iterator(), member ->
+                withoutSameAs(base.find(member, predicate, object))
+                    .filterDrop(triple -> heldByEarlierMember(members, triple))
+                    .mapWith(triple -> Triple.create(subject, triple.getPredicate(), triple.getObject())));
+            return WrappedIterator.create(shared);
+        }
+
+        Iterator<Triple> shared = Iter.flatMap(withoutSameAs(base.find(Node.ANY, predicate, object)), triple -> {
+            List<Node> members = index.members(triple.getSubject());
+            if (members.size() == 1) {
+                return Collections.singletonList(triple).iterator();
+            }
+            if (heldByEarlierMember(members, triple)) {
+                return Collections.emptyIterator();
+            }
+            return members.stream()
+                .map(member -> Triple.create(member, triple.getPredicate(), triple.getObject()))
+                .iterator();
+        });
+        return WrappedIterator.create(shared);
+    }
+
+    private ExtendedIterator<Triple> withoutSameAs(ExtendedIterator<Triple> triples) {
+        return triples.filterDrop(triple -> triple.getPredicate().equals(SAME_AS));
+    }
+
+    /**
+     * A triple is reported on behalf of the first member of its class that holds it, so the
+     * same property held by several members is only produced once.
+     */
+    private boolean heldByEarlierMember(List<Node> members, Triple triple) {
+        for (Node member : members) {
+            if (member.equals(triple.getSubject())) {
+                return false;
+            }
+            if (base.contains(member, triple.getPredicate(), triple.getObject())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,149 @@
+package org.example.inference;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.vocabulary.OWL;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Equivalence classes of resources connected by owl:sameAs, in either direction and over
+ * any number of hops.
+ *
+ * The index is built with a union-find pass over the owl:sameAs links, which is close to
+ * linear in the number of links, and is immutable afterwards so it can be shared by
+ * concurrent readers. Resources without links are not stored and form their own singleton
+ * class.
+ */
+public class SameAsIndex {
+    private static final Node SAME_AS = OWL.sameAs.asNode();
+
+    // Resource -> the members of its class; all members share the same list instance
+    private final Map<Node, List<Node>> clusterOf;
+    private final List<List<Node>> clusters;
+
+    private SameAsIndex(Map<Node, List<Node>> clusterOf, List<List<Node>> clusters) {
+        this.clusterOf = clusterOf;
+        this.clusters = clusters;
+    }
+
+    public static SameAsIndex build(Graph graph) {
+        UnionFind unionFind = new UnionFind();
+        graph.find(Node.ANY, SAME_AS, Node.ANY).forEachRemaining(triple -> {
+            if (!triple.getObject().isLiteral() && !triple.getSubject().equals(triple.getObject())) {
+                unionFind.union(triple.getSubject(), triple.getObject());
+            }
+        });
+        return unionFind.toIndex();
+    }
+
+    /**
+     * All resources equivalent to the given one, including itself. The first member is the
+     * representative of the class.
+     */
+    public List<Node> members(Node node) {
+        List<Node> members = clusterOf.get(node);
+        return members != null ? members : Collections.singletonList(node);
+    }
+
+    public Node representative(Node node) {
+        return members(node).get(0);
+    }
+
+    public boolean isLinked(Node node) {
+        return clusterOf.containsKey(node);
+    }
+
+    public boolean sameAs(Node a, Node b) {
+        return a.equals(b) || (clusterOf.get(a) != null && clusterOf.get(a) == clusterOf.get(b));
+    }
+
+    /**
+     * The classes with more than one member.
+     */
+    public List<List<Node>> clusters() {
+        return clusters;
+    }
+
+    public int clusterCount() {
+        return clusters.size();
+    }
+
+    public int linkedResourceCount() {
+        return clusterOf.size();
+    }
+
+    /**
+     * Array-backed union-find with union by size and path halving.
+     */
+    private static class UnionFind {
+        private final Map<Node, Integer> ids = new HashMap<>();
+        private final List<Node> nodes = new ArrayList<>();
+        private int[] parent = new int[16];
+        private int[] size = new int[16];
+
+        private int id(Node node) {
+            Integer id = ids.get(node);
+            if (id != null) {
+                return id;
+            }
+            int newId = nodes.size();
+            if (newId == parent.length) {
+                parent = Arrays.copyOf(parent, newId * 2);
+                size = Arrays.copyOf(size, newId * 2);
+            }
+            parent[newId] = newId;
+            size[newId] = 1;
+            nodes.add(node);
+            ids.put(node, newId);
+            return newId;
+        }
+
+        private int find(int id) {
+            while (parent[id] != id) {
+                parent[id] = parent[parent[id]];
+                id = parent[id];
+            }
+            return id;
+        }
+
+        void union(Node a, Node b) {
+            int rootA = find(id(a));
+            int rootB = find(id(b));
+            if (rootA == rootB) {
+                return;
+            }
+            if (size[rootA] < size[rootB]) {
+                int swap = rootA;
+                rootA = rootB;
+                rootB = swap;
+            }
+            parent[rootB] = rootA;
+            size[rootA] += size[rootB];
+        }
+
+        SameAsIndex toIndex() {
+            Map<Integer, List<Node>> byRoot = new HashMap<>();
+            for (int id = 0; id < nodes.size(); id++) {
+                int root = find(id);
+                byRoot.computeIfAbsent(root, r -> new ArrayList<>(size[r])).add(nodes.get(id));
+            }
+
+            Map<Node, List<Node>> clusterOf = new HashMap<>(nodes.size() * 2);
+            List<List<Node>> clusters = new ArrayList<>(byRoot.size());
+            for (List<Node> members : byRoot.values()) {
+                List<Node> cluster = Collections.unmodifiableList(members);
+                clusters.add(cluster);
+                for (Node member : members) {
+                    clusterOf.put(member, cluster);
+                }
+            }
+            return new SameAsIndex(clusterOf, Collections.unmodifiableList(clusters));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package org.example.inference;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.GraphUtil;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.compose.Union;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Delta-driven (semi-naive) evaluation of an ordered list of {@link InferenceRule}s.
+ *
+ * Rules run in the given order, each one to its own fixpoint, so a rule sees everything
+ * derived by the rules before it. The first round of a rule treats the whole graph as new;
+ * every following round only joins the triples derived in the round before, instead of
+ * rescanning the full graph until nothing changes.
+ */
+public class SemiNaiveMaterializationEngine implements MaterializationEngine {
+    private static final Logger logger = LoggerFactory.getLogger(SemiNaiveMaterializationEngine.class);
+
+    private final List<InferenceRule> rules;
+
+    public SemiNaiveMaterializationEngine() {
+        this(InferenceHandler.defaultRules());
+    }
+
+    public SemiNaiveMaterializationEngine(List<InferenceRule> rules) {
+        this.rules = new ArrayList<>(rules);
+    }
+
+    @Override
+    public String getName() {
+        return "semi-naive";
+    }
+
+    @Override
+    public MaterializationResult materialize(Model baseModel) {
+        long start = System.nanoTime();
+
+        // Rules read base and derived triples together; only derived triples are stored
+        Graph inferred = GraphFactory.createGraphMem();
+        Graph graph = new Union(baseModel.getGraph(), inferred);
+
+        List<RuleStatistics> statistics = new ArrayList<>();
+        for (InferenceRule rule : rules) {
+            RuleStatistics ruleStats = runToFixpoint(rule, graph, inferred);
+            logger.debug("{} -> {} derived statements", ruleStats, inferred.size());
+            statistics.add(ruleStats);
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return new MaterializationResult(baseModel, ModelFactory.createModelForGraph(inferred),
+            statistics, elapsedMillis);
+    }
+
+    private RuleStatistics runToFixpoint(InferenceRule rule, Graph graph, Graph inferred) {
+        RuleStatistics stats = new RuleStatistics(rule.getName());
+        Graph delta = graph;
+        boolean firstRound = true;
+
+        while (true) {
+            long roundStart = System.nanoTime();
+            DeltaCollector collector = new DeltaCollector(graph);
+            if (firstRound) {
+                rule.axioms(collector);
+                firstRound = false;
+            }
+            apply(rule, graph, delta, collector);
+            GraphUtil.addInto(inferred, collector.derived);
+            stats.recordRound(collector.candidates, collector.derived.size(), System.nanoTime() - roundStart);
+
+            if (!rule.isRecursive() || collector.derived.isEmpty()) {
+                return stats;
+            }
+            delta = collector.derived;
+        }
+    }
+
+    /**
+     * Evaluates one round of a rule. The graph does not change while the round runs.
+     */
+    protected void apply(InferenceRule rule, Graph graph, Graph delta, DeltaCollector collector) {
+        rule.apply(graph, delta, collector);
+    }
+
+    /**
+     * Keeps the conclusions of one round that are not yet in the graph. The graph itself is
+     * only updated once the round is over so rules can iterate it while emitting.
+     */
+    protected static class DeltaCollector implements Consumer<Triple> {
+        private final Graph graph;
+        private final Graph derived = GraphFactory.createGraphMem();
+        private long candidates;
+
+        protected DeltaCollector(Graph graph) {
+            this.graph = graph;
+        }
+
+        @Override
+        public void accept(Triple triple) {
+            candidates++;
+            if (!graph.contains(triple)) {
+                derived.add(triple);
+            }
+        }
+
+        /**
+         * Takes over the conclusions of another collector of the same round, dropping the
+         * ones both have derived.
+         */
+        protected void merge(DeltaCollector other) {
+            candidates += other.candidates;
+            GraphUtil.addInto(derived, other.derived);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.inference;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.vocabulary.RDFS;
+
+import java.util.function.Consumer;
+
+/**
+ * rdfs:subClassOf is transitive. A new edge a -> b is joined with the superclasses of b and
+ * with the subclasses of a, which covers both sides of the T(x,z) :- T(x,y), T(y,z) join.
+ */
+public class SubClassTransitivityRule implements InferenceRule {
+    private static final Node SUBCLASS_OF = RDFS.subClassOf.asNode();
+
+    @Override
+    public String getName() {
+        return "subclass-transitivity";
+    }
+
+    @Override
+    public boolean isRecursive() {
+        return true;
+    }
+
+    @Override
+    public void apply(Graph graph, Graph delta, Consumer<Triple> out) {
+        delta.find(Node.ANY, SUBCLASS_OF, Node.ANY).forEachRemaining(triple -> {
+            Node subClass = triple.getSubject();
+            Node superClass = triple.getObject();
+            if (superClass.isLiteral()) {
+                return;
+            }
+
+            graph.find(superClass, SUBCLASS_OF, Node.ANY).forEachRemaining(up ->
+                out.accept(Triple.create(subClass, SUBCLASS_OF, up.getObject())));
+            graph.find(Node.ANY, SUBCLASS_OF, subClass).forEachRemaining(down ->
+                out.accept(Triple.create(down.getSubject(), SUBCLASS_OF, superClass)));
+        });
+    }
+
+    @Override
+    public boolean derives(Graph graph, Triple triple) {
+        if (!triple.getPredicate().equals(SUBCLASS_OF)) {
+            return false;
+        }
+        ExtendedIterator<Triple> steps = graph.find(triple.getSubject(), SUBCLASS_OF, Node.ANY);
+        try {
+            while (steps.hasNext()) {
+                Node step = steps.next().getObject();
+                if (!step.isLiteral() && graph.contains(step, SUBCLASS_OF, triple.getObject())) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            steps.close();
+        }
+    }
+}
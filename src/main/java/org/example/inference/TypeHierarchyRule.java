@@ -0,0 +1,182 @@
+package org.example.inference;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Declares one class per Pokemon type under pokemon:Pokemon and classifies every resource
+ * with a pokemon:primaryType into its type class and a resource-specific type subclass.
+ *
+ * The type classes and the resource-specific types also carry a pokemon:primaryType; they
+ * are not classified again, which keeps the rule from feeding on its own conclusions.
+ *
+ * Memberships of the type class and pokemon:Pokemon follow from the resource-specific type
+ * by rdfs9, so they can be left to a reasoner that answers rdf:type at query time.
+ */
+public class TypeHierarchyRule implements InferenceRule {
+    private static final String BASE_URI = "http://example.org/pokemon/";
+    private static final String TYPE_NS = BASE_URI + "Type/";
+    private static final String SPECIFIC_TYPE_SUFFIX = "/type";
+
+    private static final String[] TYPES = {
+        "Normal", "Fire", "Water", "Electric", "Grass", "Ice",
+        "Fighting", "Poison", "Ground", "Flying", "Psychic", "Bug",
+        "Rock", "Ghost", "Dragon", "Dark", "Steel", "Fairy"
+    };
+
+    private static final Node POKEMON_CLASS = NodeFactory.createURI(BASE_URI + "Pokemon");
+    private static final Node PRIMARY_TYPE = NodeFactory.createURI(BASE_URI + "primaryType");
+    private static final Node TYPE = RDF.type.asNode();
+    private static final Node SUBCLASS_OF = RDFS.subClassOf.asNode();
+
+    // Type name literal -> type class, and back
+    private static final Map<Node, Node> TYPE_CLASSES = new HashMap<>();
+    private static final Map<Node, Node> TYPE_NAMES = new HashMap<>();
+    static {
+        for (String type : TYPES) {
+            Node name = NodeFactory.createLiteral(type);
+            Node typeClass = NodeFactory.createURI(TYPE_NS + type);
+            TYPE_CLASSES.put(name, typeClass);
+            TYPE_NAMES.put(typeClass, name);
+        }
+    }
+
+    private final boolean materializeMemberships;
+
+    public TypeHierarchyRule() {
+        this(true);
+    }
+
+    /**
+     * @param materializeMemberships whether to derive the memberships of the type class and
+     *                               pokemon:Pokemon, or only the resource-specific type
+     */
+    public TypeHierarchyRule(boolean materializeMemberships) {
+        this.materializeMemberships = materializeMemberships;
+    }
+
+    @Override
+    public String getName() {
+        return "type-hierarchy";
+    }
+
+    @Override
+    public boolean isRecursive() {
+        return false;
+    }
+
+    @Override
+    public void axioms(Consumer<Triple> out) {
+        for (Map.Entry<Node, Node> entry : TYPE_CLASSES.entrySet()) {
+            out.accept(Triple.create(entry.getValue(), SUBCLASS_OF, POKEMON_CLASS));
+            out.accept(Triple.create(entry.getValue(), PRIMARY_TYPE, entry.getKey()));
+        }
+    }
+
+    @Override
+    public void apply(Graph graph, Graph delta, Consumer<Triple> out) {
+        delta.find(Node.ANY, PRIMARY_TYPE, Node.ANY).forEachRemaining(triple -> {
+            Node typeClass = TYPE_CLASSES.get(triple.getObject());
+            Node pokemon = triple.getSubject();
+            if (typeClass == null || !isClassified(pokemon)) {
+                return;
+            }
+
+            Node specificType = specificType(pokemon);
+            if (materializeMemberships) {
+                out.accept(Triple.create(pokemon, TYPE, typeClass));
+                out.accept(Triple.create(pokemon, TYPE, POKEMON_CLASS));
+            }
+            out.accept(Triple.create(specificType, SUBCLASS_OF, typeClass));
+            out.accept(Triple.create(pokemon, TYPE, specificType));
+            out.accept(Triple.create(specificType, PRIMARY_TYPE, triple.getObject()));
+        });
+    }
+
+    @Override
+    public boolean derives(Graph graph, Triple triple) {
+        Node subject = triple.getSubject();
+        Node predicate = triple.getPredicate();
+        Node object = triple.getObject();
+
+        if (TYPE_NAMES.containsKey(subject)) {
+            return (predicate.equals(SUBCLASS_OF) && object.equals(POKEMON_CLASS))
+                || (predicate.equals(PRIMARY_TYPE) && subject.equals(TYPE_CLASSES.get(object)));
+        }
+        if (predicate.equals(TYPE)) {
+            if (object.equals(specificTypeOrNull(subject))) {
+                return hasKnownPrimaryType(graph, subject);
+            }
+            if (!materializeMemberships) {
+                return false;
+            }
+            if (object.equals(POKEMON_CLASS)) {
+                return hasKnownPrimaryType(graph, subject);
+            }
+            return TYPE_NAMES.containsKey(object) && isClassified(subject)
+                && graph.contains(subject, PRIMARY_TYPE, TYPE_NAMES.get(object));
+        }
+
+        Node pokemon = pokemonOf(subject);
+        if (pokemon == null) {
+            return false;
+        }
+        if (predicate.equals(SUBCLASS_OF) && TYPE_NAMES.containsKey(object)) {
+            return graph.contains(pokemon, PRIMARY_TYPE, TYPE_NAMES.get(object));
+        }
+        if (predicate.equals(PRIMARY_TYPE) && TYPE_CLASSES.containsKey(object)) {
+            return graph.contains(pokemon, PRIMARY_TYPE, object);
+        }
+        return false;
+    }
+
+    private boolean hasKnownPrimaryType(Graph graph, Node pokemon) {
+        if (!isClassified(pokemon)) {
+            return false;
+        }
+        ExtendedIterator<Triple> types = graph.find(pokemon, PRIMARY_TYPE, Node.ANY);
+        try {
+            while (types.hasNext()) {
+                if (TYPE_CLASSES.containsKey(types.next().getObject())) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            types.close();
+        }
+    }
+
+    private static boolean isClassified(Node node) {
+        return node.isURI()
+            && !node.getURI().startsWith(TYPE_NS)
+            && !node.getURI().endsWith(SPECIFIC_TYPE_SUFFIX);
+    }
+
+    private static Node specificType(Node pokemon) {
+        return NodeFactory.createURI(pokemon.getURI() + SPECIFIC_TYPE_SUFFIX);
+    }
+
+    private static Node specificTypeOrNull(Node pokemon) {
+        return isClassified(pokemon) ? specificType(pokemon) : null;
+    }
+
+    // The resource a resource-specific type was created for, or null
+    private static Node pokemonOf(Node specificType) {
+        if (!specificType.isURI() || !specificType.getURI().endsWith(SPECIFIC_TYPE_SUFFIX)) {
+            return null;
+        }
+        String uri = specificType.getURI();
+        Node pokemon = NodeFactory.createURI(uri.substring(0, uri.length() - SPECIFIC_TYPE_SUFFIX.length()));
+        return isClassified(pokemon) ? pokemon : null;
+    }
+}
@@ -1,68 +1,80 @@
 package org.example.linking;
 
-import org.apache.jena.rdf.model.*;
-import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.example.enrichment.EnrichmentContributor;
+import org.example.enrichment.EnrichmentStage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.function.Consumer;
 
-public class ExternalLinker {
+/**
+ * Links Pokemon with a known Wikidata entity to their Wikipedia article.
+ *
+ * The owl:sameAs links to DBpedia, Wikidata and Bulbapedia are written by the converter,
+ * which looks the Wikidata entities up here.
+ */
+public class ExternalLinker implements EnrichmentContributor {
     private static final Logger logger = LoggerFactory.getLogger(ExternalLinker.class);
     private static final Map<String, String> POKEMON_WIKIDATA_IDS = new HashMap<>();
-    
+    private static final Node SCHEMA_NAME = NodeFactory.createURI("http://schema.org/name");
+    private static final Node SCHEMA_SAME_AS = NodeFactory.createURI("http://schema.org/sameAs");
+
     static {
         // Grass starter line
         POKEMON_WIKIDATA_IDS.put("Bulbasaur", "Q1410");
         POKEMON_WIKIDATA_IDS.put("Ivysaur", "Q1411");
         POKEMON_WIKIDATA_IDS.put("Venusaur", "Q1412");
-        
+
         // Fire starter line
         POKEMON_WIKIDATA_IDS.put("Charmander", "Q1416");
         POKEMON_WIKIDATA_IDS.put("Charmeleon", "Q1417");
         POKEMON_WIKIDATA_IDS.put("Charizard", "Q1418");
-        
+
         // Water starter line
         POKEMON_WIKIDATA_IDS.put("Squirtle", "Q1420");
         POKEMON_WIKIDATA_IDS.put("Wartortle", "Q1421");
         POKEMON_WIKIDATA_IDS.put("Blastoise", "Q1422");
     }
 
+    /**
+     * @return the Wikidata entity of the Pokemon with the given English name, or null if it is
+     * not known
+     */
+    public static String getWikidataId(String pokemonName) {
+        return POKEMON_WIKIDATA_IDS.get(pokemonName);
+    }
+
     public void addExternalLinks(Model model) {
-        ResIterator pokemonIterator = model.listResourcesWithProperty(
-            model.createProperty("http://schema.org/name"));
+        new EnrichmentStage(List.of(this)).enrich(model);
+    }
 
-        while (pokemonIterator.hasNext()) {
-            Resource pokemon = pokemonIterator.next();
-            String pokemonName = pokemon.getProperty(
-                model.createProperty("http://schema.org/name"))
-                .getString();
+    @Override
+    public String getName() {
+        return "external-links";
+    }
 
-            // Add Wikidata link
-            String wikidataId = POKEMON_WIKIDATA_IDS.get(pokemonName);
-            if (wikidataId != null) {
-                String wikidataUri = "http://www.wikidata.org/entity/" + wikidataId;
-                pokemon.addProperty(OWL.sameAs, 
-                    model.createResource(wikidataUri));
-                logger.info("Added Wikidata link for {}: {}", 
-                    pokemonName, wikidataUri);
-                
-                // Add DBpedia link
-                String dbpediaUri = "http://dbpedia.org/resource/" + pokemonName.replace(" ", "_");
-                pokemon.addProperty(OWL.sameAs, 
-                    model.createResource(dbpediaUri));
-                logger.info("Added DBpedia link for {}: {}", 
-                    pokemonName, dbpediaUri);
+    @Override
+    public void contribute(Graph graph, Node pokemon, Consumer<Triple> out) {
+        List<Triple> names = graph.find(pokemon, SCHEMA_NAME, Node.ANY).toList();
+        if (names.isEmpty() || !names.get(0).getObject().isLiteral()) {
+            return;
+        }
+        String pokemonName = names.get(0).getObject().getLiteralLexicalForm();
 
-                // Add Wikipedia link 
-                String wikiUri = "https://en.wikipedia.org/wiki/" + pokemonName.replace(" ", "_");
-                pokemon.addProperty(model.createProperty("http://schema.org/sameAs"),
-                    model.createResource(wikiUri));
-                logger.info("Added Wikipedia link for {}: {}", 
-                    pokemonName, wikiUri);
-            } else {
-                logger.warn("No external IDs found for: {}", pokemonName);
-            }
+        // Add Wikipedia link
+        if (getWikidataId(pokemonName) != null) {
+            String wikiUri = "https://en.wikipedia.org/wiki/" + pokemonName.replace(" ", "_");
+            out.accept(Triple.create(pokemon, SCHEMA_SAME_AS, NodeFactory.createURI(wikiUri)));
+            logger.debug("Added Wikipedia link for {}: {}", pokemonName, wikiUri);
+        } else {
+            logger.debug("No external IDs found for: {}", pokemonName);
         }
     }
 }
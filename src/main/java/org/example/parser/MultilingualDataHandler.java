@@ -1,16 +1,28 @@
 package org.example.parser;
 
-import org.apache.jena.rdf.model.*;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.util.iterator.ExtendedIterator;
 import org.apache.jena.vocabulary.RDFS;
+import org.example.enrichment.EnrichmentContributor;
+import org.example.enrichment.EnrichmentStage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.function.Consumer;
 
-public class MultilingualDataHandler {
+public class MultilingualDataHandler implements EnrichmentContributor {
     private static final Logger logger = LoggerFactory.getLogger(MultilingualDataHandler.class);
-    private static final String TSV_FILE = "pokedex-i18n.tsv";
+    public static final String TSV_FILE = "pokedex-i18n.tsv";
+    private static final Node SCHEMA_IDENTIFIER = NodeFactory.createURI("http://schema.org/identifier");
+    private static final Node JAPANESE_NAME = NodeFactory.createURI("http://example.org/pokemon/japaneseName");
+    private static final Node ROMAJI_NAME = NodeFactory.createURI("http://example.org/pokemon/romajiName");
+    private static final Node LABEL = RDFS.label.asNode();
     private final Map<String, Map<String, String>> pokemonLabels = new HashMap<>();
     private final Set<String> supportedLanguages = new HashSet<>();
 
@@ -44,56 +56,57 @@ public class MultilingualDataHandler {
 
     public void enrichModelWithLabels(Model model) {
         logger.info("Starting model enrichment with multilingual labels");
-        Set<String> addedLanguages = new HashSet<>();
-        
-        ResIterator resIterator = model.listResourcesWithProperty(
-            model.createProperty("http://schema.org/identifier"));
-            
-        while (resIterator.hasNext()) {
-            Resource pokemon = resIterator.next();
-            
-            // Add English label from name
-            String name = pokemon.getProperty(
-                model.createProperty("http://schema.org/name"))
-                .getString();
-            pokemon.addProperty(RDFS.label, model.createLiteral(name, "en"));
-            addedLanguages.add("en");
-            
-            // Add Japanese label from property
-            Statement jnameStmt = pokemon.getProperty(
-                model.createProperty("http://example.org/pokemon/japaneseName"));
-            if (jnameStmt != null) {
-                pokemon.addProperty(RDFS.label, 
-                    model.createLiteral(jnameStmt.getString(), "ja"));
-                addedLanguages.add("ja");
-            }
-            
-            // Add romaji name
-            Statement romajiStmt = pokemon.getProperty(
-                model.createProperty("http://example.org/pokemon/romajiName"));
-            if (romajiStmt != null) {
-                pokemon.addProperty(RDFS.label,
-                    model.createLiteral(romajiStmt.getString(), "ja-Latn"));
-                addedLanguages.add("ja-Latn");
+        new EnrichmentStage(List.of(this)).enrich(model);
+        logger.info("Enriched model with multilingual labels");
+    }
+
+    @Override
+    public String getName() {
+        return "multilingual-labels";
+    }
+
+    /**
+     * Labels a Pokemon with its Japanese and romaji names and the translations loaded for its
+     * identifier. The English label is written by the converter.
+     */
+    @Override
+    public void contribute(Graph graph, Node pokemon, Consumer<Triple> out) {
+        // Add Japanese label from property
+        String japaneseName = literal(graph, pokemon, JAPANESE_NAME);
+        if (japaneseName != null) {
+            out.accept(Triple.create(pokemon, LABEL, NodeFactory.createLiteral(japaneseName, "ja")));
+        }
+
+        // Add romaji name
+        String romajiName = literal(graph, pokemon, ROMAJI_NAME);
+        if (romajiName != null) {
+            out.accept(Triple.create(pokemon, LABEL, NodeFactory.createLiteral(romajiName, "ja-Latn")));
+        }
+
+        // Add other languages from TSV
+        String identifier = literal(graph, pokemon, SCHEMA_IDENTIFIER);
+        Map<String, String> translations = identifier == null ? null : pokemonLabels.get(identifier);
+        if (translations != null) {
+            for (Map.Entry<String, String> entry : translations.entrySet()) {
+                out.accept(Triple.create(pokemon, LABEL,
+                    NodeFactory.createLiteral(entry.getValue(), entry.getKey())));
             }
-            
-            // Add other languages from TSV
-            String identifier = pokemon.getProperty(
-                model.createProperty("http://schema.org/identifier"))
-                .getString();
-            
-            Map<String, String> translations = pokemonLabels.get(identifier);
-            if (translations != null) {
-                for (Map.Entry<String, String> entry : translations.entrySet()) {
-                    pokemon.addProperty(RDFS.label, 
-                        model.createLiteral(entry.getValue(), entry.getKey()));
-                    addedLanguages.add(entry.getKey());
+        }
+    }
+
+    private static String literal(Graph graph, Node subject, Node property) {
+        ExtendedIterator<Triple> values = graph.find(subject, property, Node.ANY);
+        try {
+            while (values.hasNext()) {
+                Node value = values.next().getObject();
+                if (value.isLiteral()) {
+                    return value.getLiteralLexicalForm();
                 }
             }
+            return null;
+        } finally {
+            values.close();
         }
-        
-        logger.info("Added labels in the following languages: {}", addedLanguages);
-        logger.info("Enriched model with multilingual labels");
     }
 
     public void loadTSVData() {
@@ -10,81 +10,76 @@ import java.util.regex.Pattern;
 public class WikiInfoboxParser {
     private static final Logger logger = LoggerFactory.getLogger(WikiInfoboxParser.class);
     
-    private static final Map<String, Pattern> INFOBOX_PATTERNS = new HashMap<>();
+    // Infobox template names, mapped to the type each is reported as
+    private static final Map<String, String> INFOBOX_TEMPLATES = new LinkedHashMap<>();
     static {
-        INFOBOX_PATTERNS.put("Pokemon", Pattern.compile("\\{\\{Pokémon Infobox([^}]*?)\\}\\}", Pattern.DOTALL));
-        INFOBOX_PATTERNS.put("Move", Pattern.compile("\\{\\{Move Infobox([^}]*?)\\}\\}", Pattern.DOTALL));
-        INFOBOX_PATTERNS.put("Ability", Pattern.compile("\\{\\{Ability Infobox([^}]*?)\\}\\}", Pattern.DOTALL));
-        INFOBOX_PATTERNS.put("Item", Pattern.compile("\\{\\{Item Infobox([^}]*?)\\}\\}", Pattern.DOTALL));
-        INFOBOX_PATTERNS.put("Location", Pattern.compile("\\{\\{Location Infobox([^}]*?)\\}\\}", Pattern.DOTALL));
+        INFOBOX_TEMPLATES.put("Pokémon Infobox", "Pokemon");
+        INFOBOX_TEMPLATES.put("Move Infobox", "Move");
+        INFOBOX_TEMPLATES.put("Ability Infobox", "Ability");
+        INFOBOX_TEMPLATES.put("Item Infobox", "Item");
+        INFOBOX_TEMPLATES.put("Location Infobox", "Location");
     }
-    
-    private static final Pattern PARAMETER_PATTERN = Pattern.compile("\\|\\s*([^=]+?)\\s*=\\s*([^|\\}]*?)\\s*(?=\\||\\}\\})", Pattern.DOTALL);
-    private static final Pattern CATEGORY_PATTERN = Pattern.compile("\\[\\[Category:([^\\]]+)\\]\\]");
 
+    private static final Pattern GENERATION_PATTERN = Pattern.compile("(\\d+)");
+
+    /**
+     * Adds the parameters of the page's first infobox and its categories to the data.
+     *
+     * The wikitext is read in a single pass by {@link WikitextScanner}, which follows templates
+     * and links nested in parameter values.
+     */
     public Map<String, String> processWikitext(Map<String, String> data) {
         Map<String, String> result = new HashMap<>(data);
-        
-        if (data.containsKey("wikitext")) {
-            String wikitext = data.get("wikitext");
-            
-            // Process all infobox types
-            for (Map.Entry<String, Pattern> entry : INFOBOX_PATTERNS.entrySet()) {
-                String type = entry.getKey();
-                Pattern pattern = entry.getValue();
-                Matcher matcher = pattern.matcher(wikitext);
-                
-                if (matcher.find()) {
-                    Map<String, String> infoboxData = parseInfobox(matcher.group(1), type);
-                    result.putAll(infoboxData);
+        String wikitext = data.get("wikitext");
+
+        if (wikitext != null) {
+            Set<String> categories = new LinkedHashSet<>();
+            WikitextScanner.scan(wikitext, INFOBOX_TEMPLATES, new WikitextScanner.Handler() {
+                private String type;
+
+                @Override
+                public void infobox(String type) {
+                    this.type = type;
                     result.put("infoboxType", type);
-                    break;  // Only process the first matching infobox
                 }
-            }
-            
-            // Process categories
-            Set<String> categories = new HashSet<>();
-            Matcher categoryMatcher = CATEGORY_PATTERN.matcher(wikitext);
-            while (categoryMatcher.find()) {
-                categories.add(categoryMatcher.group(1).trim());
-            }
+
+                @Override
+                public void parameter(String key, String value) {
+                    handleParameter(result, type, key, value);
+                }
+
+                @Override
+                public void category(String name) {
+                    categories.add(name);
+                }
+            });
             if (!categories.isEmpty()) {
                 result.put("categories", String.join("|", categories));
             }
         }
-        
+
         return result;
     }
 
-    private Map<String, String> parseInfobox(String infoboxContent, String type) {
-        Map<String, String> parameters = new HashMap<>();
-        Matcher paramMatcher = PARAMETER_PATTERN.matcher(infoboxContent);
-        
-        while (paramMatcher.find()) {
-            String key = paramMatcher.group(1).trim();
-            String value = cleanWikiText(paramMatcher.group(2).trim());
-            
-            // Special handling for different infobox types
-            switch (type) {
-                case "Pokemon":
-                    handlePokemonParameter(parameters, key, value);
-                    break;
-                case "Move":
-                    handleMoveParameter(parameters, key, value);
-                    break;
-                case "Ability":
-                    handleAbilityParameter(parameters, key, value);
-                    break;
-                case "Item":
-                    handleItemParameter(parameters, key, value);
-                    break;
-                case "Location":
-                    handleLocationParameter(parameters, key, value);
-                    break;
-            }
+    private void handleParameter(Map<String, String> parameters, String type, String key, String value) {
+        // Special handling for different infobox types
+        switch (type) {
+            case "Pokemon":
+                handlePokemonParameter(parameters, key, value);
+                break;
+            case "Move":
+                handleMoveParameter(parameters, key, value);
+                break;
+            case "Ability":
+                handleAbilityParameter(parameters, key, value);
+                break;
+            case "Item":
+                handleItemParameter(parameters, key, value);
+                break;
+            case "Location":
+                handleLocationParameter(parameters, key, value);
+                break;
         }
-        
-        return parameters;
     }
 
     private void handlePokemonParameter(Map<String, String> params, String key, String value) {
@@ -160,28 +155,9 @@ public class WikiInfoboxParser {
         }
     }
 
-    private String cleanWikiText(String text) {
-        if (text == null || text.isEmpty()) {
-            return "";
-        }
-
-        // Remove wiki markup
-        text = text.replaceAll("\\{\\{tt\\|([^|]+)\\|[^}]+\\}\\}", "$1");  // Handle {{tt|text|description}}
-        text = text.replaceAll("\\[\\[(?:[^|\\]]*\\|)?([^\\]]+)\\]\\]", "$1");  // Handle [[link|text]]
-        text = text.replaceAll("'''?([^']+)'''?", "$1");  // Handle '''text'''
-        text = text.replaceAll("''([^']+)''", "$1");  // Handle ''text''
-        text = text.replaceAll("<!--.*?-->", "");  // Remove comments
-        text = text.replaceAll("<br\\s*/?\\s*>", " ");  // Handle line breaks
-        text = text.replaceAll("\\{\\{[^}]+\\}\\}", "");  // Remove remaining templates
-        text = text.replaceAll("\\s+", " ");  // Normalize whitespace
-
-        return text.trim();
-    }
-
     private int extractGeneration(String value) {
         // Try to extract generation number from various formats
-        Pattern genPattern = Pattern.compile("(\\d+)");
-        Matcher genMatcher = genPattern.matcher(value);
+        Matcher genMatcher = GENERATION_PATTERN.matcher(value);
         if (genMatcher.find()) {
             return Integer.parseInt(genMatcher.group(1));
         }
@@ -0,0 +1,284 @@
+package org.example.parser;
+
+import java.util.Map;
+
+/**
+ * Reads the parts of a page's wikitext the parser needs in a single pass: the parameters of
+ * the first infobox, cleaned of markup, and the categories.
+ *
+ * Templates and links nest, so the scanner tracks their depth: a parameter ends at the first
+ * pipe or closing braces of the infobox itself, not at those of a template inside its value.
+ * Cleaned values are written into one reused buffer.
+ */
+final class WikitextScanner {
+    private static final String CATEGORY_LINK = "[[Category:";
+    private static final String COMMENT_START = "<!--";
+    private static final String COMMENT_END = "-->";
+    private static final String TOOLTIP = "tt|";
+
+    /**
+     * Receives what the scanner reads, in the order it appears in the wikitext.
+     */
+    interface Handler {
+        void infobox(String type);
+
+        void parameter(String key, String value);
+
+        void category(String name);
+    }
+
+    private final String text;
+    private final Map<String, String> infoboxTemplates;
+    private final Handler handler;
+    private final StringBuilder buffer = new StringBuilder();
+
+    private WikitextScanner(String text, Map<String, String> infoboxTemplates, Handler handler) {
+        this.text = text;
+        this.infoboxTemplates = infoboxTemplates;
+        this.handler = handler;
+    }
+
+    /**
+     * @param infoboxTemplates the infobox template names to look for, mapped to the type they are
+     *                         reported as
+     */
+    static void scan(String text, Map<String, String> infoboxTemplates, Handler handler) {
+        new WikitextScanner(text, infoboxTemplates, handler).scanPage();
+    }
+
+    private void scanPage() {
+        int length = text.length();
+        boolean infoboxFound = false;
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (c == '<' && text.startsWith(COMMENT_START, i)) {
+                i = skipComment(i, length);
+            } else if (!infoboxFound && c == '{' && text.startsWith("{{", i)) {
+                String template = infoboxTemplateAt(i + 2);
+                if (template != null) {
+                    infoboxFound = true;
+                    handler.infobox(infoboxTemplates.get(template));
+                    i = scanInfobox(i + 2 + template.length());
+                } else {
+                    i += 2;
+                }
+            } else if (c == '[' && text.startsWith(CATEGORY_LINK, i)) {
+                int start = i + CATEGORY_LINK.length();
+                int close = text.indexOf("]]", start);
+                if (close < 0) {
+                    break;
+                }
+                // Leave out the sort key of [[Category:Name|key]]
+                int pipe = text.indexOf('|', start);
+                handler.category(text.substring(start, pipe >= 0 && pipe < close ? pipe : close).trim());
+                i = close + 2;
+            } else {
+                i++;
+            }
+        }
+    }
+
+    /**
+     * @return the infobox template named at the position, or null if there is none
+     */
+    private String infoboxTemplateAt(int start) {
+        for (String template : infoboxTemplates.keySet()) {
+            if (text.startsWith(template, start)) {
+                int end = start + template.length();
+                // The name must end there, so "Pokémon Infobox/header" is not taken for it
+                if (end == text.length() || text.charAt(end) == '|' || text.charAt(end) == '}'
+                        || Character.isWhitespace(text.charAt(end))) {
+                    return template;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reports the parameters of the infobox whose name ends at the position.
+     *
+     * @return the position after the infobox
+     */
+    private int scanInfobox(int start) {
+        int length = text.length();
+        int depth = 0;
+        int parameterStart = -1;
+        int equals = -1;
+        int i = start;
+        while (i < length) {
+            char c = text.charAt(i);
+            char next = i + 1 < length ? text.charAt(i + 1) : 0;
+            if (c == '<' && text.startsWith(COMMENT_START, i)) {
+                i = skipComment(i, length);
+            } else if ((c == '{' && next == '{') || (c == '[' && next == '[')) {
+                depth++;
+                i += 2;
+            } else if (c == '}' && next == '}' && depth == 0) {
+                parameter(parameterStart, equals, i);
+                return i + 2;
+            } else if ((c == '}' && next == '}') || (c == ']' && next == ']')) {
+                depth = Math.max(0, depth - 1);
+                i += 2;
+            } else {
+                if (depth == 0 && c == '|') {
+                    parameter(parameterStart, equals, i);
+                    parameterStart = i + 1;
+                    equals = -1;
+                } else if (depth == 0 && c == '=' && equals < 0) {
+                    equals = i;
+                }
+                i++;
+            }
+        }
+        parameter(parameterStart, equals, length);
+        return length;
+    }
+
+    private void parameter(int start, int equals, int end) {
+        if (start < 0 || equals < 0) {
+            return;
+        }
+        String key = text.substring(start, equals).trim();
+        if (!key.isEmpty()) {
+            handler.parameter(key, clean(equals + 1, end));
+        }
+    }
+
+    /**
+     * The text between the positions without links, formatting, comments and templates other
+     * than tooltips, and with runs of whitespace collapsed.
+     */
+    private String clean(int start, int end) {
+        buffer.setLength(0);
+        appendCleaned(start, end);
+        int length = buffer.length();
+        if (length > 0 && buffer.charAt(length - 1) == ' ') {
+            buffer.setLength(length - 1);
+        }
+        return buffer.toString();
+    }
+
+    private void appendCleaned(int start, int end) {
+        int i = start;
+        while (i < end) {
+            char c = text.charAt(i);
+            char next = i + 1 < end ? text.charAt(i + 1) : 0;
+            int lineBreakEnd = c == '<' ? lineBreakEnd(i, end) : -1;
+            if (c == '<' && text.startsWith(COMMENT_START, i)) {
+                i = skipComment(i, end);
+            } else if (lineBreakEnd > 0) {
+                appendSpace();
+                i = lineBreakEnd;
+            } else if ((c == '{' && next == '{') || (c == '[' && next == '[')) {
+                int close = closingBrackets(i, end);
+                if (close < 0) {
+                    buffer.append(c);
+                    i++;
+                    continue;
+                }
+                if (c == '[') {
+                    // [[target|text]] reads as its text, [[target]] as its target
+                    int pipe = pipe(i + 2, close);
+                    appendCleaned(pipe < 0 ? i + 2 : pipe + 1, close);
+                } else if (text.startsWith(TOOLTIP, i + 2)) {
+                    // {{tt|text|description}} reads as its text
+                    int pipe = pipe(i + 2 + TOOLTIP.length(), close);
+                    appendCleaned(i + 2 + TOOLTIP.length(), pipe < 0 ? close : pipe);
+                }
+                i = close + 2;
+            } else if (c == '\'' && next == '\'') {
+                // Bold and italic quotes
+                while (i < end && text.charAt(i) == '\'') {
+                    i++;
+                }
+            } else if (Character.isWhitespace(c)) {
+                appendSpace();
+                i++;
+            } else {
+                buffer.append(c);
+                i++;
+            }
+        }
+    }
+
+    private void appendSpace() {
+        int length = buffer.length();
+        if (length > 0 && buffer.charAt(length - 1) != ' ') {
+            buffer.append(' ');
+        }
+    }
+
+    /**
+     * @return the position of the brackets closing those opened at the position, or -1 if they
+     * are not closed before the end
+     */
+    private int closingBrackets(int start, int end) {
+        int depth = 0;
+        int i = start;
+        while (i + 1 < end) {
+            char c = text.charAt(i);
+            char next = text.charAt(i + 1);
+            if ((c == '{' && next == '{') || (c == '[' && next == '[')) {
+                depth++;
+                i += 2;
+            } else if ((c == '}' && next == '}') || (c == ']' && next == ']')) {
+                if (--depth == 0) {
+                    return i;
+                }
+                i += 2;
+            } else {
+                i++;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the position of the first pipe between the positions outside nested brackets, or
+     * -1 if there is none
+     */
+    private int pipe(int start, int end) {
+        int depth = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if ((c == '{' || c == '[') && i + 1 < end && text.charAt(i + 1) == c) {
+                depth++;
+                i++;
+            } else if ((c == '}' || c == ']') && i + 1 < end && text.charAt(i + 1) == c) {
+                depth--;
+                i++;
+            } else if (c == '|' && depth == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the position after a {@code <br>}, {@code <br/>} or {@code <br />} tag at the
+     * position, or -1 if there is none
+     */
+    private int lineBreakEnd(int start, int end) {
+        if (!text.startsWith("<br", start)) {
+            return -1;
+        }
+        int i = start + 3;
+        while (i < end && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        if (i < end && text.charAt(i) == '/') {
+            i++;
+        }
+        while (i < end && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i < end && text.charAt(i) == '>' ? i + 1 : -1;
+    }
+
+    private int skipComment(int start, int end) {
+        int close = text.indexOf(COMMENT_END, start + COMMENT_START.length());
+        return close < 0 || close + COMMENT_END.length() > end ? end : close + COMMENT_END.length();
+    }
+}
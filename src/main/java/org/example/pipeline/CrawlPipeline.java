@@ -0,0 +1,201 @@
+package org.example.pipeline;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.example.client.DataCollectionCoordinator;
+import org.example.parser.WikiInfoboxParser;
+import org.example.rdf.PokemonRDFConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Crawls, parses and converts Pokemon one at a time, passing the triples of each to a sink as
+ * soon as it is converted.
+ *
+ * The crawl threads parse each page's infobox and drop its wikitext as soon as the Pokemon is
+ * enriched, all at once, and only meet at the queue they hand the parsed Pokemon to. Converter
+ * threads, one per core by default, turn the parsed Pokemon into triples
+ * in buffers of their own and hand them to the sink in batches, one converter at a time, so the
+ * sink only sees one writer and takes its lock once per batch rather than per triple. The
+ * queue in front of them is bounded, so when conversion or the sink falls behind the crawl
+ * waits, and memory stays bounded however many pages are crawled.
+ */
+public class CrawlPipeline {
+    private static final Logger logger = LoggerFactory.getLogger(CrawlPipeline.class);
+    private static final int DEFAULT_CAPACITY = 256;
+    // Triples a converter collects before taking its turn at the sink
+    private static final int BATCH_SIZE = 8192;
+    // Marks the end of the crawl in the queue, compared by identity
+    private static final Map<String, String> END = new HashMap<>();
+
+    private final DataCollectionCoordinator coordinator;
+    private final WikiInfoboxParser parser;
+    private final PokemonRDFConverter converter;
+    private final int capacity;
+    private final int workers;
+
+    public CrawlPipeline(DataCollectionCoordinator coordinator) {
+        this(coordinator, new WikiInfoboxParser(), new PokemonRDFConverter(), DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Converts on as many threads as there are cores.
+     *
+     * @param capacity the most parsed Pokemon waiting for conversion
+     */
+    public CrawlPipeline(DataCollectionCoordinator coordinator, WikiInfoboxParser parser,
+                         PokemonRDFConverter converter, int capacity) {
+        this(coordinator, parser, converter, capacity, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param capacity the most parsed Pokemon waiting for conversion
+     * @param workers  the number of converter threads
+     */
+    public CrawlPipeline(DataCollectionCoordinator coordinator, WikiInfoboxParser parser,
+                         PokemonRDFConverter converter, int capacity, int workers) {
+        this.coordinator = coordinator;
+        this.parser = parser;
+        this.converter = converter;
+        this.capacity = capacity;
+        this.workers = workers;
+    }
+
+    /**
+     * Runs the crawl to its end, sending the triples of every Pokemon to the sink.
+     *
+     * @return the number of Pokemon converted
+     */
+    public long run(StreamRDF sink) throws InterruptedException {
+        return run(coordinator::collectAllData, sink);
+    }
+
+    /**
+     * Crawls only the given Pokemon pages, sending the triples of every Pokemon to the sink.
+     *
+     * @return the number of Pokemon converted
+     */
+    public long run(List<String> pokemonPages, StreamRDF sink) throws InterruptedException {
+        return run(crawled -> coordinator.collectData(pokemonPages, crawled), sink);
+    }
+
+    private long run(Consumer<Consumer<Map<String, String>>> crawl, StreamRDF sink) throws InterruptedException {
+        BlockingQueue<Map<String, String>> parsed = new ArrayBlockingQueue<>(capacity);
+        AtomicLong convertedCount = new AtomicLong();
+        ReentrantLock sinkLock = new ReentrantLock();
+        sink.start();
+        converter.sendPrefixes(sink);
+        Thread[] conversion = new Thread[workers];
+        for (int i = 0; i < workers; i++) {
+            conversion[i] = new Thread(() -> convert(parsed, sink, sinkLock, convertedCount), "rdf-converter-" + i);
+            conversion[i].start();
+        }
+
+        try {
+            // Called by many crawl threads at once; the parser keeps no state between pages
+            crawl.accept(pokemon -> {
+                Map<String, String> pokemonInfo = parser.processWikitext(pokemon);
+                // The wikitext is by far the largest part and nothing after parsing needs it
+                pokemonInfo.remove("wikitext");
+                try {
+                    enqueue(parsed, pokemonInfo, conversion);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for conversion", e);
+                }
+            });
+        } finally {
+            try {
+                enqueue(parsed, END, conversion);
+                for (Thread worker : conversion) {
+                    worker.join();
+                }
+            } finally {
+                sink.finish();
+            }
+        }
+        logger.info("Converted {} crawled Pokemon on {} threads", convertedCount.get(), workers);
+        return convertedCount.get();
+    }
+
+    /**
+     * Waits for room in the queue, as long as there is a converter to make it.
+     */
+    private static void enqueue(BlockingQueue<Map<String, String>> parsed, Map<String, String> pokemonInfo,
+                                Thread[] conversion) throws InterruptedException {
+        while (!parsed.offer(pokemonInfo, 1, TimeUnit.SECONDS)) {
+            if (Arrays.stream(conversion).noneMatch(Thread::isAlive)) {
+                throw new IllegalStateException("Conversion stopped before the crawl ended");
+            }
+        }
+    }
+
+    /**
+     * Converts parsed Pokemon into a buffer of this thread's own, handing it to the sink
+     * whenever it holds a batch.
+     */
+    private void convert(BlockingQueue<Map<String, String>> parsed, StreamRDF sink, ReentrantLock sinkLock,
+                         AtomicLong convertedCount) {
+        List<Triple> buffer = new ArrayList<>(BATCH_SIZE + 64);
+        StreamRDF bufferSink = new StreamRDFBase() {
+            @Override
+            public void triple(Triple triple) {
+                buffer.add(triple);
+            }
+        };
+        try {
+            while (true) {
+                Map<String, String> pokemonInfo = parsed.take();
+                if (pokemonInfo == END) {
+                    // Leave the end in the queue for the other converters
+                    parsed.put(END);
+                    break;
+                }
+                int converted = buffer.size();
+                try {
+                    converter.convert(pokemonInfo, bufferSink);
+                    convertedCount.incrementAndGet();
+                } catch (Exception e) {
+                    // Drop what was converted of the Pokemon before the error
+                    buffer.subList(converted, buffer.size()).clear();
+                    logger.error("Error processing Pokemon data: {}", pokemonInfo.get("title"), e);
+                }
+                if (buffer.size() >= BATCH_SIZE) {
+                    flush(buffer, sink, sinkLock);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            flush(buffer, sink, sinkLock);
+        }
+    }
+
+    private static void flush(List<Triple> buffer, StreamRDF sink, ReentrantLock sinkLock) {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        sinkLock.lock();
+        try {
+            for (Triple triple : buffer) {
+                sink.triple(triple);
+            }
+        } finally {
+            sinkLock.unlock();
+        }
+        buffer.clear();
+    }
+}
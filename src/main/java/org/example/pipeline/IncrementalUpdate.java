@@ -0,0 +1,101 @@
+package org.example.pipeline;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.system.Txn;
+import org.example.client.BulbapediaClient;
+import org.example.client.EvolutionChainFetcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Brings a dataset up to date with the Pokemon pages edited on Bulbapedia since a given time.
+ *
+ * Only the edited pages of Pokemon a full crawl lists are crawled and converted. In one write
+ * transaction every triple about the subjects they describe is then replaced with the new
+ * ones, which lets the inference dataset maintain its derived triples incrementally as it
+ * does for SPARQL updates.
+ */
+public class IncrementalUpdate {
+    private static final Logger logger = LoggerFactory.getLogger(IncrementalUpdate.class);
+
+    /**
+     * How long the wiki keeps its recent changes, MediaWiki's default. An older dataset needs
+     * a full crawl.
+     */
+    public static final Duration RECENT_CHANGES_MAX_AGE = Duration.ofDays(90);
+
+    private final BulbapediaClient client;
+    private final CrawlPipeline pipeline;
+    private final Consumer<Model> enrichment;
+
+    /**
+     * @param enrichment applied to the converted Pokemon before they replace the old ones, as
+     *                   it was to the full crawl
+     */
+    public IncrementalUpdate(BulbapediaClient client, CrawlPipeline pipeline, Consumer<Model> enrichment) {
+        this.client = client;
+        this.pipeline = pipeline;
+        this.enrichment = enrichment;
+    }
+
+    public static boolean canUpdateSince(Instant since) {
+        return since.isAfter(Instant.now().minus(RECENT_CHANGES_MAX_AGE));
+    }
+
+    /**
+     * Replaces the Pokemon edited since the given time in the default graph of the dataset.
+     *
+     * @return the number of Pokemon replaced
+     */
+    public long apply(Instant since, DatasetGraph dataset) throws IOException, InterruptedException {
+        if (!canUpdateSince(since)) {
+            throw new IllegalArgumentException("Recent changes do not reach back to " + since);
+        }
+        List<String> edited = new ArrayList<>();
+        for (String title : client.getRecentChanges(since)) {
+            if (EvolutionChainFetcher.isPokemonPage(title)) {
+                edited.add(title);
+            }
+        }
+        if (!edited.isEmpty()) {
+            // Only the Pokemon a full crawl would include, so the two never drift apart
+            edited.retainAll(new EvolutionChainFetcher(client).listPokemonPages());
+        }
+        logger.info("{} Pokemon pages edited since {}", edited.size(), since);
+        if (edited.isEmpty()) {
+            return 0;
+        }
+
+        Model changed = ModelFactory.createDefaultModel();
+        long converted = pipeline.run(edited, StreamRDFLib.graph(changed.getGraph()));
+        enrichment.accept(changed);
+
+        Graph graph = changed.getGraph();
+        Set<Node> subjects = graph.find().mapWith(Triple::getSubject).toSet();
+        Txn.executeWrite(dataset, () -> {
+            for (Node subject : subjects) {
+                dataset.deleteAny(Quad.defaultGraphIRI, subject, Node.ANY, Node.ANY);
+            }
+            graph.find().forEach(triple -> dataset.add(Quad.defaultGraphIRI,
+                triple.getSubject(), triple.getPredicate(), triple.getObject()));
+        });
+        logger.info("Replaced {} subjects with {} triples from {} edited Pokemon", subjects.size(),
+            graph.size(), converted);
+        return converted;
+    }
+}
@@ -1,134 +1,184 @@
 package org.example.rdf;
 
-import org.apache.jena.rdf.model.*;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFLib;
 import org.apache.jena.vocabulary.OWL;
 import org.apache.jena.vocabulary.RDF;
 import org.apache.jena.vocabulary.RDFS;
-import org.apache.jena.vocabulary.XSD;
+import org.example.linking.ExternalLinker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.math.BigDecimal;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+/**
+ * Converts the infobox fields of a Pokemon to RDF.
+ *
+ * The triples are written straight to a {@link StreamRDF}. Every predicate, class and class of
+ * the eighteen types is a {@link Node} created once, and URIs are built in a buffer reused by each
+ * thread, so converting a Pokemon allocates little more than the nodes that are its own.
+ */
 public class PokemonRDFConverter {
+    /**
+     * The version of the triples converted from an infobox. Raise it whenever they change, so
+     * a pokemon.ttl holding the triples of an older version is replaced rather than appended
+     * to. Version 2 gives each Pokemon its own type subclass and writes height and weight as
+     * written in the infobox.
+     */
+    public static final int OUTPUT_VERSION = 2;
+
     private static final Logger logger = LoggerFactory.getLogger(PokemonRDFConverter.class);
     private static final String BASE_URI = "http://example.org/pokemon/";
     private static final String SCHEMA_URI = "http://schema.org/";
+    private static final String POKEMON_NS = BASE_URI + "pokemon/";
+    private static final String TYPE_NS = BASE_URI + "Type/";
+    private static final String DBPEDIA_NS = "http://dbpedia.org/resource/";
+    private static final String WIKIDATA_NS = "http://www.wikidata.org/entity/";
+    private static final String BULBAPEDIA_NS = "https://bulbapedia.bulbagarden.net/wiki/";
     
     // Define schema.org properties
-    private static final Property SCHEMA_NAME = ResourceFactory.createProperty(SCHEMA_URI + "name");
-    private static final Property SCHEMA_HEIGHT = ResourceFactory.createProperty(SCHEMA_URI + "height");
-    private static final Property SCHEMA_WEIGHT = ResourceFactory.createProperty(SCHEMA_URI + "weight");
-    private static final Property SCHEMA_IDENTIFIER = ResourceFactory.createProperty(SCHEMA_URI + "identifier");
+    private static final Node SCHEMA_NAME = NodeFactory.createURI(SCHEMA_URI + "name");
+    private static final Node SCHEMA_HEIGHT = NodeFactory.createURI(SCHEMA_URI + "height");
+    private static final Node SCHEMA_WEIGHT = NodeFactory.createURI(SCHEMA_URI + "weight");
+    private static final Node SCHEMA_IDENTIFIER = NodeFactory.createURI(SCHEMA_URI + "identifier");
     
-    // Define Pokemon properties
-    private static final Property POKEMON_PRIMARY_TYPE = ResourceFactory.createProperty(BASE_URI + "primaryType");
-    private static final Property POKEMON_CHARACTERISTIC = ResourceFactory.createProperty(BASE_URI + "characteristic");
+    // Define Pokemon properties and classes
+    private static final Node POKEMON_PRIMARY_TYPE = NodeFactory.createURI(BASE_URI + "primaryType");
+    private static final Node POKEMON_CLASS = NodeFactory.createURI(BASE_URI + "Pokemon");
+
+    // Valid ranges of the physical characteristics
+    private static final BigDecimal MIN_HEIGHT = new BigDecimal("0.1");
+    private static final BigDecimal MAX_HEIGHT = new BigDecimal("25.0");
+    private static final BigDecimal MIN_WEIGHT = new BigDecimal("0.1");
+    private static final BigDecimal MAX_WEIGHT = new BigDecimal("1000.0");
+
+    private static final Node TYPE = RDF.type.asNode();
+    private static final Node SUBCLASS_OF = RDFS.subClassOf.asNode();
+    private static final Node LABEL = RDFS.label.asNode();
+    private static final Node SAME_AS = OWL.sameAs.asNode();
+
+    private static final Map<String, String> PREFIXES = new LinkedHashMap<>();
+    static {
+        PREFIXES.put("pokemon", BASE_URI);
+        PREFIXES.put("schema", SCHEMA_URI);
+        PREFIXES.put("rdfs", RDFS.getURI());
+        PREFIXES.put("owl", OWL.getURI());
+    }
+
+    private static final String[] TYPES = {"Normal", "Fire", "Water", "Electric", "Grass", "Ice", "Fighting",
+        "Poison", "Ground", "Flying", "Psychic", "Bug", "Rock", "Ghost", "Dragon", "Dark", "Steel", "Fairy"};
+    // Type name -> type class and name literal of the known types; any other is created when met
+    private static final Map<String, Node> TYPE_CLASSES = new HashMap<>();
+    private static final Map<String, Node> TYPE_NAMES = new HashMap<>();
+    static {
+        for (String type : TYPES) {
+            TYPE_CLASSES.put(type, NodeFactory.createURI(TYPE_NS + type));
+            TYPE_NAMES.put(type, NodeFactory.createLiteral(type));
+        }
+    }
+
+    private static final ThreadLocal<StringBuilder> URI_BUILDER = ThreadLocal.withInitial(StringBuilder::new);
 
     public Model convertToRDF(Map<String, String> pokemonInfo) {
         Model model = ModelFactory.createDefaultModel();
         
         // Set common prefixes
-        model.setNsPrefix("pokemon", BASE_URI);
-        model.setNsPrefix("schema", SCHEMA_URI);
-        model.setNsPrefix("rdfs", RDFS.getURI());
-        model.setNsPrefix("owl", OWL.getURI());
-    
-        String pokemonId = String.format("%04d", 
-            Integer.parseInt(pokemonInfo.getOrDefault("ndex", "0")));
-        Resource pokemonResource = model.createResource(BASE_URI + "pokemon/" + pokemonId);
+        model.setNsPrefixes(PREFIXES);
+        convert(pokemonInfo, StreamRDFLib.graph(model.getGraph()));
+        return model;
+    }
+
+    /**
+     * Sends the prefixes the converted triples use to the sink.
+     */
+    public void sendPrefixes(StreamRDF sink) {
+        PREFIXES.forEach(sink::prefix);
+    }
+
+    /**
+     * Sends the triples of a Pokemon to the sink, each once.
+     */
+    public void convert(Map<String, String> pokemonInfo, StreamRDF sink) {
+        String pokemonId = formatId(pokemonInfo.getOrDefault("ndex", "0"));
+        Node pokemon = uri(POKEMON_NS, pokemonId, "");
     
         // Add base type
-        pokemonResource.addProperty(RDF.type, model.createResource(BASE_URI + "Pokemon"));
+        sink.triple(Triple.create(pokemon, TYPE, POKEMON_CLASS));
         
         // Add type class membership
         String primaryType = pokemonInfo.get("type1");
         if (primaryType != null) {
-            Resource typeClass = model.createResource(BASE_URI + "Type/" + primaryType);
-            pokemonResource.addProperty(RDF.type, typeClass);
-            pokemonResource.addProperty(POKEMON_PRIMARY_TYPE, primaryType);
+            Node typeClass = TYPE_CLASSES.get(primaryType);
+            Node typeName = TYPE_NAMES.get(primaryType);
+            if (typeClass == null) {
+                typeClass = NodeFactory.createURI(TYPE_NS + primaryType);
+                typeName = NodeFactory.createLiteral(primaryType);
+            }
+            sink.triple(Triple.create(pokemon, TYPE, typeClass));
+            sink.triple(Triple.create(pokemon, POKEMON_PRIMARY_TYPE, typeName));
             
             // Add explicit type resource
-            Resource pokemonType = model.createResource(BASE_URI + 
-                pokemonResource.getLocalName() + "/type");
-            pokemonType.addProperty(RDFS.subClassOf, typeClass);
-            pokemonResource.addProperty(RDF.type, pokemonType);
+            Node pokemonType = uri(POKEMON_NS, pokemonId, "/type");
+            sink.triple(Triple.create(pokemonType, SUBCLASS_OF, typeClass));
+            sink.triple(Triple.create(pokemon, TYPE, pokemonType));
         }
-        
-        // Add external links with proper schema:name
+    
+        // Add basic properties with validation
         String name = pokemonInfo.get("name");
+        name = name == null || name.isBlank() ? null : name.trim();
         if (name != null) {
-            // DBpedia link
-            String dbpediaUri = "http://dbpedia.org/resource/" + name.replace(" ", "_");
-            Resource dbpediaResource = model.createResource(dbpediaUri)
-                .addProperty(SCHEMA_NAME, name);
-            pokemonResource.addProperty(OWL.sameAs, dbpediaResource);
-            
-            // Wikidata link
-            String wikidataId = getWikidataId(name);
-            if (wikidataId != null) {
-                Resource wikidataResource = model.createResource(
-                    "http://www.wikidata.org/entity/" + wikidataId)
-                    .addProperty(SCHEMA_NAME, name);
-                pokemonResource.addProperty(OWL.sameAs, wikidataResource);
-            }
+            sink.triple(Triple.create(pokemon, SCHEMA_NAME, NodeFactory.createLiteral(name)));
         }
-    
-        // Add basic properties with validation
-        addValidatedProperty(model, pokemonResource, SCHEMA_NAME, pokemonInfo.get("name"));
-        addValidatedProperty(model, pokemonResource, SCHEMA_IDENTIFIER, pokemonId);
+        sink.triple(Triple.create(pokemon, SCHEMA_IDENTIFIER, NodeFactory.createLiteral(pokemonId)));
         
         // Add physical characteristics
-        addDecimalProperty(model, pokemonResource, SCHEMA_HEIGHT, 
-            pokemonInfo.get("height-m"), 0.1, 25.0);
-        addDecimalProperty(model, pokemonResource, SCHEMA_WEIGHT, 
-            pokemonInfo.get("weight-kg"), 0.1, 1000.0);
+        addDecimalProperty(sink, pokemon, SCHEMA_HEIGHT, 
+            pokemonInfo.get("height-m"), MIN_HEIGHT, MAX_HEIGHT);
+        addDecimalProperty(sink, pokemon, SCHEMA_WEIGHT, 
+            pokemonInfo.get("weight-kg"), MIN_WEIGHT, MAX_WEIGHT);
     
         // Add multilingual labels
-        addMultilingualLabels(model, pokemonResource, pokemonInfo);
+        addMultilingualLabels(sink, pokemon, name, pokemonInfo);
     
-        // Add external links with verification
-        addExternalLinks(model, pokemonResource, pokemonInfo);
-    
-        return model;
-    }
-
-    private void addValidatedProperty(Model model, Resource resource, 
-      Property property, String value) {
-      if (value != null && !value.trim().isEmpty()) {
-      resource.addProperty(property, value.trim());
-      }
+        // Add external links with proper schema:name
+        addExternalLinks(sink, pokemon, name);
     }
 
-    private void addMultilingualLabels(Model model, Resource resource, 
-      Map<String, String> pokemonInfo) {
-      String name = pokemonInfo.get("name");
+    private void addMultilingualLabels(StreamRDF sink, Node resource, String name, Map<String, String> pokemonInfo) {
       if (name != null) {
-        resource.addProperty(RDFS.label, model.createLiteral(name, "en"));
+        sink.triple(Triple.create(resource, LABEL, NodeFactory.createLiteral(name, "en")));
         }
 
       String japaneseName = pokemonInfo.get("japanese_name");
       if (japaneseName != null) {
-        resource.addProperty(RDFS.label, model.createLiteral(japaneseName, "ja"));
+        sink.triple(Triple.create(resource, LABEL, NodeFactory.createLiteral(japaneseName, "ja")));
         }
 
       String romajiName = pokemonInfo.get("romaji_name");
       if (romajiName != null) {
-        resource.addProperty(RDFS.label, model.createLiteral(romajiName, "ja-Latn"));
+        sink.triple(Triple.create(resource, LABEL, NodeFactory.createLiteral(romajiName, "ja-Latn")));
         }
     }
 
-    private void addDecimalProperty(Model model, Resource resource, Property property, 
-                                  String value, double min, double max) {
+    private void addDecimalProperty(StreamRDF sink, Node resource, Node property, 
+                                  String value, BigDecimal min, BigDecimal max) {
         if (value != null && !value.trim().isEmpty()) {
             try {
-                double numericValue = Double.parseDouble(value);
+                // Parsed as written, so 0.7 is not stored as the nearest double
+                BigDecimal numericValue = new BigDecimal(value.trim());
                 // Validate range
-                if (numericValue >= min && numericValue <= max) {
-                    resource.addProperty(property, 
-                        model.createTypedLiteral(new BigDecimal(numericValue)));
+                if (numericValue.compareTo(min) >= 0 && numericValue.compareTo(max) <= 0) {
+                    sink.triple(Triple.create(resource, property,
+                        NodeFactory.createLiteral(numericValue.toPlainString(), XSDDatatype.XSDdecimal)));
                 } else {
                     logger.warn("Value {} for property {} is outside valid range [{}, {}]", 
                         value, property, min, max);
@@ -140,76 +190,52 @@ public class PokemonRDFConverter {
         }
     }
 
-    private void addExternalLinks(Model model, Resource resource, Map<String, String> pokemonInfo) {
-        String name = pokemonInfo.get("name");
+    private void addExternalLinks(StreamRDF sink, Node resource, String name) {
         if (name != null) {
-            Property schemaName = model.createProperty(SCHEMA_URI + "name");
+            Node nameLiteral = NodeFactory.createLiteral(name);
+            String wikiName = name.replace(' ', '_');
             
             // DBpedia
-            String dbpediaUri = "http://dbpedia.org/resource/" + name.replace(" ", "_");
-            Resource dbpedia = model.createResource(dbpediaUri);
-            dbpedia.addProperty(schemaName, name);
-            resource.addProperty(OWL.sameAs, dbpedia);
-            logger.debug("Added DBpedia link for {}: {}", name, dbpediaUri);
+            Node dbpedia = uri(DBPEDIA_NS, wikiName, "");
+            sink.triple(Triple.create(dbpedia, SCHEMA_NAME, nameLiteral));
+            sink.triple(Triple.create(resource, SAME_AS, dbpedia));
     
             // Wikidata
-            String wikidataId = getWikidataId(name);
+            String wikidataId = ExternalLinker.getWikidataId(name);
             if (wikidataId != null) {
-                String wikidataUri = "http://www.wikidata.org/entity/" + wikidataId;
-                Resource wikidata = model.createResource(wikidataUri);
-                wikidata.addProperty(schemaName, name);
-                resource.addProperty(OWL.sameAs, wikidata);
+                Node wikidata = uri(WIKIDATA_NS, wikidataId, "");
+                sink.triple(Triple.create(wikidata, SCHEMA_NAME, nameLiteral));
+                sink.triple(Triple.create(resource, SAME_AS, wikidata));
                 // Link DBpedia and Wikidata directly
-                dbpedia.addProperty(OWL.sameAs, wikidata);
-                logger.debug("Added Wikidata link for {}: {}", name, wikidataUri);
+                sink.triple(Triple.create(dbpedia, SAME_AS, wikidata));
             }
     
             // Bulbapedia
-            String bulbapediaUri = "https://bulbapedia.bulbagarden.net/wiki/" + 
-                name.replace(" ", "_") + "_(Pokémon)";
-            Resource bulbapedia = model.createResource(bulbapediaUri);
-            bulbapedia.addProperty(schemaName, name);
-            resource.addProperty(OWL.sameAs, bulbapedia);
-            logger.debug("Added Bulbapedia link for {}: {}", name, bulbapediaUri);
+            Node bulbapedia = uri(BULBAPEDIA_NS, wikiName, "_(Pokémon)");
+            sink.triple(Triple.create(bulbapedia, SCHEMA_NAME, nameLiteral));
+            sink.triple(Triple.create(resource, SAME_AS, bulbapedia));
         }
     }
 
-    private String getWikidataId(String pokemonName) {
-        Map<String, String> wikidataIds = new HashMap<>();
-        wikidataIds.put("Bulbasaur", "Q1410");
-        wikidataIds.put("Ivysaur", "Q1411");
-        wikidataIds.put("Venusaur", "Q1412");
-        wikidataIds.put("Charmander", "Q1416");
-        wikidataIds.put("Charmeleon", "Q1417");
-        wikidataIds.put("Charizard", "Q1418");
-        wikidataIds.put("Squirtle", "Q1420");
-        wikidataIds.put("Wartortle", "Q1421");
-        wikidataIds.put("Blastoise", "Q1422");
-        return wikidataIds.get(pokemonName);
+    private static Node uri(String namespace, String localName, String suffix) {
+        StringBuilder builder = URI_BUILDER.get();
+        builder.setLength(0);
+        return NodeFactory.createURI(builder.append(namespace).append(localName).append(suffix).toString());
     }
 
-    public void saveModel(Model model, String filename) {
-        try {
-            // First check if file exists and has content
-            java.io.File file = new java.io.File(filename);
-            if (file.exists() && file.length() > 0) {
-                // Load existing model
-                Model existingModel = ModelFactory.createDefaultModel();
-                existingModel.read(new java.io.FileInputStream(file), null, "TURTLE");
-                
-                // Add new data to existing model
-                existingModel.add(model);
-                
-                // Save combined model
-                logger.info("Updating existing RDF data in {}", filename);
-                existingModel.write(new java.io.FileWriter(filename), "TURTLE");
-            } else {
-                // Create new file with model
-                logger.info("Saving new RDF data to {}", filename);
-                model.write(new java.io.FileWriter(filename), "TURTLE");
-            }
-        } catch (java.io.IOException e) {
-            logger.error("Error saving RDF data:", e);
+    /**
+     * The National Pokedex number padded to four digits, as {@code String.format("%04d")} would.
+     */
+    private static String formatId(String ndex) {
+        int number = Integer.parseInt(ndex);
+        if (number < 0 || number > 9999) {
+            return String.format("%04d", number);
+        }
+        char[] digits = {'0', '0', '0', '0'};
+        for (int i = 3; number > 0; i--) {
+            digits[i] = (char) ('0' + number % 10);
+            number /= 10;
         }
+        return new String(digits);
     }
 }
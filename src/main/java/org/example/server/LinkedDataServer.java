@@ -1,36 +1,86 @@
 package org.example.server;
 
-import org.apache.jena.query.*;
-import org.apache.jena.rdf.model.Model;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWriter;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.system.Txn;
+import org.example.inference.InferenceDatasetGraph;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import spark.Request;
 import spark.Response;
 import spark.Spark;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.StringWriter;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
 
 public class LinkedDataServer {
     private static final Logger logger = LoggerFactory.getLogger(LinkedDataServer.class);
+    private static final Var RESOURCE = Var.alloc("resource");
+    // Prepared once and run with ?resource bound to the requested resource
+    private static final PreparedQuery DESCRIPTION_QUERY =
+        new PreparedQuery("CONSTRUCT { ?resource ?p ?o } WHERE { ?resource ?p ?o }");
+    // Pokedex numbers, as the converter names the Pokemon resources
+    private static final Pattern RESOURCE_ID = Pattern.compile("[0-9]{1,10}");
+    private static final String NOT_FOUND_PAGE = "<!DOCTYPE html>\n" +
+        "<html>\n" +
+        "<head>\n" +
+        "    <title>404 - Pokemon Not Found</title>\n" +
+        "    <style>\n" +
+        "        body { font-family: 'Segoe UI', system-ui, sans-serif; margin: 40px; }\n" +
+        "        .error-container { text-align: center; padding: 40px; }\n" +
+        "        h1 { color: #dc3545; margin-bottom: 20px; }\n" +
+        "        .message { color: #6c757d; margin-bottom: 30px; }\n" +
+        "        .back-link { color: #007bff; text-decoration: none; }\n" +
+        "        .back-link:hover { text-decoration: underline; }\n" +
+        "    </style>\n" +
+        "</head>\n" +
+        "<body>\n" +
+        "    <div class=\"error-container\">\n" +
+        "        <h1>404 - Pokemon Not Found</h1>\n" +
+        "        <p class=\"message\">The Pokemon you're looking for doesn't exist in our database.</p>\n" +
+        "        <a href=\"/resource/0001\" class=\"back-link\">← Start from Bulbasaur</a>\n" +
+        "    </div>\n" +
+        "</body>\n" +
+        "</html>";
     private final Dataset dataset;
     private final int port;
-    private String htmlTemplate;
+    private final LongSupplier generation;
+    private final RenderedPageCache pageCache = new RenderedPageCache();
+    // RDF responses up to this size are held to be tagged and cached; larger ones are streamed
+    private static final int RESPONSE_BUFFER_BYTES = 256 * 1024;
+    // Pages are rendered into a buffer reused by each thread
+    private static final ThreadLocal<StringBuilder> PAGE_BUFFER = ThreadLocal.withInitial(StringBuilder::new);
+    private PageTemplate template;
 
     public LinkedDataServer(Dataset dataset, int port) {
         this.dataset = dataset;
         this.port = port;
+        // Pages are only cached when the dataset reports its changes
+        this.generation = dataset.asDatasetGraph() instanceof InferenceDatasetGraph inferenceDataset
+            ? inferenceDataset::getGeneration
+            : null;
         loadTemplate();
     }
 
     private void loadTemplate() {
+        String htmlTemplate;
         try {
             // Try to load from resources first
             var classLoader = getClass().getClassLoader();
@@ -54,6 +104,7 @@ public class LinkedDataServer {
             logger.error("Error loading HTML template:", e);
             htmlTemplate = buildDefaultTemplate();
         }
+        template = PageTemplate.compile(htmlTemplate);
     }
 
     private String buildDefaultTemplate() {
@@ -101,298 +152,239 @@ public class LinkedDataServer {
         }
     }
 
-    private Object handleResourceRequest(Request request, Response response) {
+    private Object handleResourceRequest(Request request, Response response) throws IOException {
         String id = request.params(":id");
-        String resourceUri = "http://example.org/pokemon/pokemon/" + id;
-        String accept = request.headers("Accept");
 
         // Content negotiation
-        if (accept != null && accept.contains("text/html")) {
-            response.type("text/html");
-            return createHtmlResponse(resourceUri);
-        } else {
-            response.type("text/turtle");
-            return createRdfResponse(resourceUri);
+        ResourceFormat format = ResourceFormat.negotiate(request.headers("Accept"));
+        response.header("Vary", "Accept");
+        if (format == null) {
+            response.status(406);
+            response.type("text/plain");
+            return "Not acceptable; served as " + ResourceFormat.mediaTypes();
         }
+        response.type(format.getMediaType());
+
+        // Pages are only cached when the dataset reports its changes
+        long currentGeneration = generation == null ? 0 : generation.getAsLong();
+        RenderedPageCache.Page page = generation == null
+            ? null
+            : pageCache.getIfCurrent(format.getMediaType(), id, currentGeneration);
+        if (page == null) {
+            if (!exists(id)) {
+                // Not cached, so requests for made up resources cannot push real pages out
+                response.status(404);
+                if (format == ResourceFormat.HTML) {
+                    return NOT_FOUND_PAGE;
+                }
+                response.type("text/plain");
+                return "Not found";
+            }
+            if (format == ResourceFormat.HTML) {
+                page = new RenderedPageCache.Page(currentGeneration, renderHtml(id).getBytes(StandardCharsets.UTF_8));
+            } else {
+                SpillingOutputStream out = new SpillingOutputStream(RESPONSE_BUFFER_BYTES,
+                    () -> response.raw().getOutputStream());
+                try {
+                    writeDescription(id, format.getRdfFormat(), out);
+                } catch (RuntimeException e) {
+                    logger.error("Error creating RDF response:", e);
+                    if (out.isSpilled()) {
+                        // Part of the description is sent already; the response ends short
+                        return "";
+                    }
+                    response.status(500);
+                    return "# Error generating RDF";
+                }
+                if (out.isSpilled()) {
+                    // Sent as it was written, so it is neither tagged nor cached
+                    out.flush();
+                    return "";
+                }
+                page = new RenderedPageCache.Page(currentGeneration, out.toByteArray());
+            }
+            if (generation != null) {
+                page = pageCache.put(format.getMediaType(), id, page);
+            }
+        }
+        response.header("ETag", page.getEtag());
+        if (page.matches(request.headers("If-None-Match"))) {
+            response.status(304);
+            return "";
+        }
+        return page.getBody();
     }
 
-    private String createHtmlResponse(String resourceUri) {
-        Map<String, Object> data = fetchPokemonData(resourceUri);
-        if (data.isEmpty()) {
-            String template = "<!DOCTYPE html>\n" +
-                "<html>\n" +
-                "<head>\n" +
-                "    <title>404 - Pokemon Not Found</title>\n" +
-                "    <style>\n" +
-                "        body { font-family: 'Segoe UI', system-ui, sans-serif; margin: 40px; }\n" +
-                "        .error-container { text-align: center; padding: 40px; }\n" +
-                "        h1 { color: #dc3545; margin-bottom: 20px; }\n" +
-                "        .message { color: #6c757d; margin-bottom: 30px; }\n" +
-                "        .back-link { color: #007bff; text-decoration: none; }\n" +
-                "        .back-link:hover { text-decoration: underline; }\n" +
-                "    </style>\n" +
-                "</head>\n" +
-                "<body>\n" +
-                "    <div class=\"error-container\">\n" +
-                "        <h1>404 - Pokemon Not Found</h1>\n" +
-                "        <p class=\"message\">The Pokemon you're looking for doesn't exist in our database.</p>\n" +
-                "        <a href=\"/resource/0001\" class=\"back-link\">← Start from Bulbasaur</a>\n" +
-                "    </div>\n" +
-                "</body>\n" +
-                "</html>";
-            return template;
+    /**
+     * @return whether the identifier is well formed and the dataset describes the Pokemon it
+     * names
+     */
+    public boolean exists(String id) {
+        if (id == null || !RESOURCE_ID.matcher(id).matches()) {
+            return false;
         }
-        return renderTemplate(data);
+        Node resource = NodeFactory.createURI(resourceUri(id));
+        return Txn.calculateRead(dataset,
+            () -> dataset.asDatasetGraph().getDefaultGraph().contains(resource, Node.ANY, Node.ANY));
+    }
+
+    /**
+     * The HTML page of the Pokemon with the given identifier, or the not found page.
+     */
+    public String renderHtml(String id) {
+        // Read in one transaction, as the persistent store requires
+        return Txn.calculateRead(dataset, () -> createHtmlResponse(resourceUri(id)));
     }
 
-    private String createRdfResponse(String resourceUri) {
+    /**
+     * The Turtle description of the Pokemon with the given identifier.
+     */
+    public String renderTurtle(String id) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
         try {
-            String query = String.format(
-                "CONSTRUCT { <%s> ?p ?o } WHERE { <%s> ?p ?o }",
-                resourceUri, resourceUri
-            );
-            
-            QueryExecution qexec = QueryExecutionFactory.create(query, dataset);
-            Model description = qexec.execConstruct();
-            
-            StringWriter writer = new StringWriter();
-            description.write(writer, "TURTLE");
-            return writer.toString();
-        } catch (Exception e) {
+            writeDescription(id, RDFFormat.TURTLE_BLOCKS, out);
+        } catch (RuntimeException e) {
             logger.error("Error creating RDF response:", e);
             return "# Error generating RDF";
         }
+        return out.toString(StandardCharsets.UTF_8);
     }
 
-    private Map<String, Object> fetchPokemonData(String resourceUri) {
-        Map<String, Object> data = new HashMap<>();
-        
-        // First check if the Pokemon exists
-        String checkQuery = 
-            "ASK WHERE { <" + resourceUri + "> a <http://example.org/pokemon/Pokemon> }";
-        
-        try (QueryExecution qexec = QueryExecutionFactory.create(checkQuery, dataset)) {
-            boolean exists = qexec.execAsk();
-            if (!exists) {
-                return data;
+    /**
+     * Writes the description of the Pokemon with the given identifier in the format. Formats
+     * with a streaming writer get each triple as it is read; the others, such as JSON-LD and
+     * RDF/XML, are written once the description is collected.
+     */
+    public void writeDescription(String id, RDFFormat format, OutputStream out) {
+        Binding binding = BindingFactory.binding(RESOURCE, NodeFactory.createURI(resourceUri(id)));
+        Txn.executeRead(dataset, () -> {
+            if (StreamRDFWriter.registered(format)) {
+                StreamRDF stream = StreamRDFWriter.getWriterStream(out, format);
+                stream.start();
+                DESCRIPTION_QUERY.construct(dataset.asDatasetGraph(), binding, stream);
+                stream.finish();
+            } else {
+                RDFDataMgr.write(out, DESCRIPTION_QUERY.construct(dataset.asDatasetGraph(), binding), format);
             }
-        }
+        });
+    }
 
-        // Existing query for Pokemon data
-        String query = 
-            "PREFIX rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#>\n" +
-            "PREFIX pokemon: <http://example.org/pokemon/>\n" +
-            "PREFIX schema: <http://schema.org/>\n" +
-            "PREFIX owl: <http://www.w3.org/2002/07/owl#>\n" +
-            "SELECT DISTINCT ?name ?id ?primaryType ?secondaryType ?height ?weight " +
-            "?category ?japaneseName ?romajiName ?dbpedia ?wikidata\n" +
-            "WHERE {\n" +
-            "  BIND(<" + resourceUri + "> AS ?pokemon)\n" +
-            "  ?pokemon schema:name ?name ;\n" +
-            "          schema:identifier ?id ;\n" +
-            "          pokemon:primaryType ?primaryType .\n" +
-            "  OPTIONAL { ?pokemon schema:height ?height }\n" +
-            "  OPTIONAL { ?pokemon schema:weight ?weight }\n" +
-            "  OPTIONAL { ?pokemon pokemon:category ?category }\n" +
-            "  OPTIONAL { ?pokemon pokemon:secondaryType ?secondaryType }\n" +
-            "  OPTIONAL { ?pokemon pokemon:japaneseName ?japaneseName }\n" +
-            "  OPTIONAL { ?pokemon pokemon:romajiName ?romajiName }\n" +
-            "  OPTIONAL { ?pokemon owl:sameAs ?dbpedia .\n" +
-            "            FILTER(CONTAINS(STR(?dbpedia), 'dbpedia.org')) }\n" +
-            "  OPTIONAL { ?pokemon owl:sameAs ?wikidata .\n" +
-            "            FILTER(CONTAINS(STR(?wikidata), 'wikidata.org')) }\n" +
-            "}\n";
+    private static String resourceUri(String id) {
+        return "http://example.org/pokemon/pokemon/" + id;
+    }
+
+    private String createHtmlResponse(String resourceUri) {
+        Map<String, Object> data = PokemonDescription.describe(dataset.asDatasetGraph().getDefaultGraph(), resourceUri);
+        if (data.isEmpty()) {
+            return NOT_FOUND_PAGE;
+        }
+        return renderTemplate(data);
+    }
 
-        try (QueryExecution qexec = QueryExecutionFactory.create(query, dataset)) {
-            ResultSet results = qexec.execSelect();
-            if (results.hasNext()) {
-                QuerySolution solution = results.nextSolution();
-                data.put("name", solution.getLiteral("name").getString());
-                data.put("id", solution.getLiteral("id").getString());
-                data.put("primaryType", solution.getLiteral("primaryType").getString());
+    private String renderTemplate(Map<String, Object> data) {
+        StringBuilder page = PAGE_BUFFER.get();
+        page.setLength(0);
+        template.render(page, (slot, out) -> writeSlot(slot, data, out));
+        return page.toString();
+    }
 
-                if (solution.contains("height")) {
-                    data.put("height", formatDecimal(solution.getLiteral("height").getDouble()));
+    @SuppressWarnings("unchecked")
+    private static void writeSlot(String slot, Map<String, Object> data, StringBuilder out) {
+        String name = String.valueOf(data.getOrDefault("name", "Unknown"));
+        switch (slot) {
+            case "name":
+                PageTemplate.escape(name, out);
+                break;
+            case "id":
+                PageTemplate.escape(String.valueOf(data.getOrDefault("id", "0000")), out);
+                break;
+            case "height":
+                PageTemplate.escape(String.valueOf(data.getOrDefault("height", "0.0")), out);
+                break;
+            case "weight":
+                PageTemplate.escape(String.valueOf(data.getOrDefault("weight", "0.0")), out);
+                break;
+            case "category":
+                PageTemplate.escape(String.valueOf(data.getOrDefault("category", "Unknown")), out);
+                out.append(" Pokemon");
+                break;
+            case "typeBadges":
+                writeTypeBadge(String.valueOf(data.getOrDefault("primaryType", "Normal")), out);
+                if (data.containsKey("secondaryType")) {
+                    writeTypeBadge(String.valueOf(data.get("secondaryType")), out);
                 }
-                if (solution.contains("weight")) {
-                    data.put("weight", formatDecimal(solution.getLiteral("weight").getDouble()));
+                break;
+            case "namesSection":
+                writeNameRow("English", name, out);
+                if (data.containsKey("japaneseName")) {
+                    writeNameRow("Japanese", String.valueOf(data.get("japaneseName")), out);
                 }
-                if (solution.contains("category")) {
-                    data.put("category", solution.getLiteral("category").getString());
+                if (data.containsKey("romajiName")) {
+                    writeNameRow("Rōmaji", String.valueOf(data.get("romajiName")), out);
                 }
-                if (solution.contains("secondaryType")) {
-                    data.put("secondaryType", solution.getLiteral("secondaryType").getString());
+                break;
+            case "prevPokemonSection":
+                Map<String, String> prevPokemon = (Map<String, String>) data.get("prevPokemon");
+                if (prevPokemon != null) {
+                    writePokemonCard(prevPokemon, out);
+                    out.append("<span class=\"evolution-arrow\">→</span>");
                 }
-                if (solution.contains("japaneseName")) {
-                    data.put("japaneseName", solution.getLiteral("japaneseName").getString());
+                break;
+            case "nextPokemonSection":
+                Map<String, String> nextPokemon = (Map<String, String>) data.get("nextPokemon");
+                if (nextPokemon != null) {
+                    out.append("<span class=\"evolution-arrow\">→</span>");
+                    writePokemonCard(nextPokemon, out);
                 }
-                if (solution.contains("romajiName")) {
-                    data.put("romajiName", solution.getLiteral("romajiName").getString());
+                break;
+            case "externalLinksSection":
+                out.append("<a href=\"https://bulbapedia.bulbagarden.net/wiki/");
+                PageTemplate.escape(name, out);
+                out.append("_(Pok%C3%A9mon)\" class=\"external-link\" target=\"_blank\" rel=\"noopener noreferrer\">Bulbapedia</a>");
+                if (data.containsKey("dbpediaLink")) {
+                    writeExternalLink(String.valueOf(data.get("dbpediaLink")), "DBpedia", out);
                 }
-                if (solution.contains("dbpedia")) {
-                    data.put("dbpediaLink", solution.getResource("dbpedia").getURI());
+                if (data.containsKey("wikidataLink")) {
+                    writeExternalLink(String.valueOf(data.get("wikidataLink")), "Wikidata", out);
                 }
-                if (solution.contains("wikidata")) {
-                    data.put("wikidataLink", solution.getResource("wikidata").getURI());
-                }
-
-                // Add evolution chain data
-                addEvolutionData(data, resourceUri);
-            }
-        } catch (Exception e) {
-            logger.error("Error fetching Pokemon data: ", e);
+                break;
+            default:
+                // Left as it is, like any text of the template
+                out.append("${").append(slot).append('}');
         }
-
-        return data;
     }
 
-    private void addEvolutionData(Map<String, Object> data, String resourceUri) {
-        // Query for previous evolution
-        String prevQuery = 
-            "PREFIX pokemon: <http://example.org/pokemon/>\n" +
-            "PREFIX schema: <http://schema.org/>\n" +
-            "SELECT ?name ?id WHERE {\n" +
-            "  <" + resourceUri + "> pokemon:evolvesFrom ?prev .\n" +
-            "  ?prev schema:name ?name ;\n" +
-            "        schema:identifier ?id .\n" +
-            "}\n";
-            
-        try (QueryExecution qexec = QueryExecutionFactory.create(prevQuery, dataset)) {
-            ResultSet results = qexec.execSelect();
-            if (results.hasNext()) {
-                QuerySolution solution = results.nextSolution();
-                Map<String, String> prevPokemon = new HashMap<>();
-                prevPokemon.put("name", solution.getLiteral("name").getString());
-                prevPokemon.put("id", solution.getLiteral("id").getString());
-                data.put("prevPokemon", prevPokemon);
-            }
-        }
-
-        // Query for next evolution
-        String nextQuery = 
-            "PREFIX pokemon: <http://example.org/pokemon/>\n" +
-            "PREFIX schema: <http://schema.org/>\n" +
-            "SELECT ?name ?id WHERE {\n" +
-            "  ?next pokemon:evolvesFrom <" + resourceUri + "> ;\n" +
-            "        schema:name ?name ;\n" +
-            "        schema:identifier ?id .\n" +
-            "}\n";
-            
-        try (QueryExecution qexec = QueryExecutionFactory.create(nextQuery, dataset)) {
-            ResultSet results = qexec.execSelect();
-            if (results.hasNext()) {
-                QuerySolution solution = results.nextSolution();
-                Map<String, String> nextPokemon = new HashMap<>();
-                nextPokemon.put("name", solution.getLiteral("name").getString());
-                nextPokemon.put("id", solution.getLiteral("id").getString());
-                data.put("nextPokemon", nextPokemon);
-            }
-        }
+    private static void writeTypeBadge(String type, StringBuilder out) {
+        out.append("<span class=\"type-badge\" style=\"background-color: var(--");
+        PageTemplate.escape(type.toLowerCase(), out);
+        out.append("-color)\">");
+        PageTemplate.escape(type, out);
+        out.append("</span>");
     }
 
-    private String formatDecimal(double value) {
-        return String.format("%.1f", value);
+    private static void writeNameRow(String language, String name, StringBuilder out) {
+        out.append("<div class=\"stat-row\"><span class=\"stat-label\">").append(language)
+            .append("</span><span>");
+        PageTemplate.escape(name, out);
+        out.append("</span></div>");
     }
 
-    private String renderTemplate(Map<String, Object> data) {
-      if (data == null || data.isEmpty()) {
-          // return createNotFoundPage();
-          return null;
-      }
-  
-      String result = htmlTemplate;
-  
-      // Safely get required fields with defaults
-      String name = String.valueOf(data.getOrDefault("name", "Unknown"));
-      String id = String.valueOf(data.getOrDefault("id", "0000"));
-      String primaryType = String.valueOf(data.getOrDefault("primaryType", "Normal"));
-      String height = String.valueOf(data.getOrDefault("height", "0.0"));
-      String weight = String.valueOf(data.getOrDefault("weight", "0.0"));
-      String category = String.valueOf(data.getOrDefault("category", "Unknown"));
-  
-      // Replace basic fields
-      result = result.replace("${name}", name);
-      result = result.replace("${id}", id);
-      result = result.replace("${height}", height);
-      result = result.replace("${weight}", weight);
-      result = result.replace("${category}", category + " Pokemon");
-  
-      // Handle type badges
-      StringBuilder typeHtml = new StringBuilder();
-      typeHtml.append(String.format("<span class=\"type-badge\" style=\"background-color: var(--%s-color)\">%s</span>", 
-          primaryType.toLowerCase(), primaryType));
-      
-      if (data.containsKey("secondaryType")) {
-          String secondaryType = String.valueOf(data.get("secondaryType"));
-          typeHtml.append(String.format("<span class=\"type-badge\" style=\"background-color: var(--%s-color)\">%s</span>", 
-              secondaryType.toLowerCase(), secondaryType));
-      }
-      result = result.replace("${typeBadges}", typeHtml.toString());
-  
-      // Handle names section
-      StringBuilder namesHtml = new StringBuilder();
-      namesHtml.append(String.format("<div class=\"stat-row\"><span class=\"stat-label\">English</span><span>%s</span></div>", name));
-      
-      if (data.containsKey("japaneseName")) {
-          namesHtml.append(String.format("<div class=\"stat-row\"><span class=\"stat-label\">Japanese</span><span>%s</span></div>", 
-              data.get("japaneseName")));
-      }
-      if (data.containsKey("romajiName")) {
-          namesHtml.append(String.format("<div class=\"stat-row\"><span class=\"stat-label\">Rōmaji</span><span>%s</span></div>", 
-              data.get("romajiName")));
-      }
-      result = result.replace("${namesSection}", namesHtml.toString());
-  
-      // Handle evolution chain
-      @SuppressWarnings("unchecked")
-      Map<String, String> prevPokemon = (Map<String, String>) data.get("prevPokemon");
-      String prevHtml = "";
-      if (prevPokemon != null) {
-          prevHtml = String.format(
-              "<a href=\"/resource/%s\" class=\"pokemon-card\">" +
-              "<h3>%s</h3>" +
-              "<p>#%s</p>" +
-              "</a>" +
-              "<span class=\"evolution-arrow\">→</span>",
-              prevPokemon.get("id"), prevPokemon.get("name"), prevPokemon.get("id"));
-      }
-      result = result.replace("${prevPokemonSection}", prevHtml);
-  
-      @SuppressWarnings("unchecked")
-      Map<String, String> nextPokemon = (Map<String, String>) data.get("nextPokemon");
-      String nextHtml = "";
-      if (nextPokemon != null) {
-          nextHtml = String.format(
-              "<span class=\"evolution-arrow\">→</span>" +
-              "<a href=\"/resource/%s\" class=\"pokemon-card\">" +
-              "<h3>%s</h3>" +
-              "<p>#%s</p>" +
-              "</a>",
-              nextPokemon.get("id"), nextPokemon.get("name"), nextPokemon.get("id"));
-      }
-      result = result.replace("${nextPokemonSection}", nextHtml);
-  
-      // Handle external links
-      StringBuilder linksHtml = new StringBuilder();
-      linksHtml.append(String.format(
-          "<a href=\"https://bulbapedia.bulbagarden.net/wiki/%s_(Pok%%C3%%A9mon)\" " +
-          "class=\"external-link\" target=\"_blank\" rel=\"noopener noreferrer\">Bulbapedia</a>",
-          name));
-  
-      if (data.containsKey("dbpediaLink")) {
-          linksHtml.append(String.format(
-              "<a href=\"%s\" class=\"external-link\" target=\"_blank\" rel=\"noopener noreferrer\">DBpedia</a>",
-              data.get("dbpediaLink")));
-      }
-      if (data.containsKey("wikidataLink")) {
-          linksHtml.append(String.format(
-              "<a href=\"%s\" class=\"external-link\" target=\"_blank\" rel=\"noopener noreferrer\">Wikidata</a>",
-              data.get("wikidataLink")));
-      }
-      result = result.replace("${externalLinksSection}", linksHtml.toString());
+    private static void writePokemonCard(Map<String, String> pokemon, StringBuilder out) {
+        out.append("<a href=\"/resource/");
+        PageTemplate.escape(pokemon.get("id"), out);
+        out.append("\" class=\"pokemon-card\"><h3>");
+        PageTemplate.escape(pokemon.get("name"), out);
+        out.append("</h3><p>#");
+        PageTemplate.escape(pokemon.get("id"), out);
+        out.append("</p></a>");
+    }
 
-      return result;
-  }
+    private static void writeExternalLink(String uri, String label, StringBuilder out) {
+        out.append("<a href=\"");
+        PageTemplate.escape(uri, out);
+        out.append("\" class=\"external-link\" target=\"_blank\" rel=\"noopener noreferrer\">")
+            .append(label).append("</a>");
+    }
 
     public void stop() {
         Spark.stop();
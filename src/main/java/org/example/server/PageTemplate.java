@@ -0,0 +1,86 @@
+package org.example.server;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An HTML template compiled into the literal text between its {@code ${slot}} placeholders
+ * and the names of the slots, so rendering appends each piece once instead of searching and
+ * copying the whole template for every placeholder.
+ */
+public final class PageTemplate {
+    private static final String SLOT_START = "${";
+    private static final String SLOT_END = "}";
+
+    // One more literal than slots: literals[i] comes before slots[i]
+    private final String[] literals;
+    private final String[] slots;
+
+    /**
+     * Writes the content of a slot, escaping any text taken from the data.
+     */
+    @FunctionalInterface
+    public interface SlotWriter {
+        void write(String slot, StringBuilder out);
+    }
+
+    private PageTemplate(List<String> literals, List<String> slots) {
+        this.literals = literals.toArray(new String[0]);
+        this.slots = slots.toArray(new String[0]);
+    }
+
+    public static PageTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int start = source.indexOf(SLOT_START, position);
+            int end = start < 0 ? -1 : source.indexOf(SLOT_END, start + SLOT_START.length());
+            if (end < 0) {
+                break;
+            }
+            literals.add(source.substring(position, start));
+            slots.add(source.substring(start + SLOT_START.length(), end));
+            position = end + SLOT_END.length();
+        }
+        literals.add(source.substring(position));
+        return new PageTemplate(literals, slots);
+    }
+
+    public void render(StringBuilder out, SlotWriter slotWriter) {
+        out.append(literals[0]);
+        for (int i = 0; i < slots.length; i++) {
+            slotWriter.write(slots[i], out);
+            out.append(literals[i + 1]);
+        }
+    }
+
+    /**
+     * Appends the text with the characters that are markup in HTML text and attribute values
+     * replaced by references.
+     */
+    public static void escape(String text, StringBuilder out) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&':
+                    out.append("&amp;");
+                    break;
+                case '<':
+                    out.append("&lt;");
+                    break;
+                case '>':
+                    out.append("&gt;");
+                    break;
+                case '"':
+                    out.append("&quot;");
+                    break;
+                case '\'':
+                    out.append("&#39;");
+                    break;
+                default:
+                    out.append(c);
+            }
+        }
+    }
+}
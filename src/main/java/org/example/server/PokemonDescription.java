@@ -0,0 +1,160 @@
+package org.example.server;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDF;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads what the resource page of a Pokemon shows straight from the graph: the Pokemon's own
+ * triples in one pass over its subject index, and the name and identifier of the Pokemon it
+ * evolves from and into. Nothing is parsed or planned per request.
+ *
+ * Call it in a read transaction.
+ */
+public final class PokemonDescription {
+    private static final String BASE_URI = "http://example.org/pokemon/";
+    private static final String SCHEMA_URI = "http://schema.org/";
+
+    private static final Node TYPE = RDF.type.asNode();
+    private static final Node SAME_AS = OWL.sameAs.asNode();
+    private static final Node POKEMON_CLASS = NodeFactory.createURI(BASE_URI + "Pokemon");
+    private static final Node NAME = NodeFactory.createURI(SCHEMA_URI + "name");
+    private static final Node IDENTIFIER = NodeFactory.createURI(SCHEMA_URI + "identifier");
+    private static final Node HEIGHT = NodeFactory.createURI(SCHEMA_URI + "height");
+    private static final Node WEIGHT = NodeFactory.createURI(SCHEMA_URI + "weight");
+    private static final Node PRIMARY_TYPE = NodeFactory.createURI(BASE_URI + "primaryType");
+    private static final Node SECONDARY_TYPE = NodeFactory.createURI(BASE_URI + "secondaryType");
+    private static final Node CATEGORY = NodeFactory.createURI(BASE_URI + "category");
+    private static final Node JAPANESE_NAME = NodeFactory.createURI(BASE_URI + "japaneseName");
+    private static final Node ROMAJI_NAME = NodeFactory.createURI(BASE_URI + "romajiName");
+    private static final Node EVOLVES_FROM = NodeFactory.createURI(BASE_URI + "evolvesFrom");
+
+    private PokemonDescription() {
+    }
+
+    /**
+     * @return the fields of the page, or an empty map if the resource is not a Pokemon with a
+     * name, identifier and primary type
+     */
+    public static Map<String, Object> describe(Graph graph, String resourceUri) {
+        Node pokemon = NodeFactory.createURI(resourceUri);
+        Map<String, Object> data = new HashMap<>();
+        boolean isPokemon = false;
+
+        ExtendedIterator<Triple> triples = graph.find(pokemon, Node.ANY, Node.ANY);
+        try {
+            while (triples.hasNext()) {
+                Triple triple = triples.next();
+                Node predicate = triple.getPredicate();
+                Node object = triple.getObject();
+                if (predicate.equals(TYPE)) {
+                    isPokemon |= object.equals(POKEMON_CLASS);
+                } else if (predicate.equals(SAME_AS)) {
+                    if (object.isURI() && object.getURI().contains("dbpedia.org")) {
+                        data.putIfAbsent("dbpediaLink", object.getURI());
+                    } else if (object.isURI() && object.getURI().contains("wikidata.org")) {
+                        data.putIfAbsent("wikidataLink", object.getURI());
+                    }
+                } else if (predicate.equals(HEIGHT) || predicate.equals(WEIGHT)) {
+                    if (object.isLiteral() && object.getLiteralValue() instanceof Number number) {
+                        data.putIfAbsent(predicate.equals(HEIGHT) ? "height" : "weight",
+                            String.format("%.1f", number.doubleValue()));
+                    }
+                } else {
+                    String field = literalField(predicate);
+                    if (field != null && object.isLiteral()) {
+                        data.putIfAbsent(field, object.getLiteralLexicalForm());
+                    }
+                }
+            }
+        } finally {
+            triples.close();
+        }
+
+        if (!isPokemon || !data.containsKey("name") || !data.containsKey("id")
+                || !data.containsKey("primaryType")) {
+            return new HashMap<>();
+        }
+
+        Map<String, String> prevPokemon = evolution(graph, pokemon, true);
+        if (prevPokemon != null) {
+            data.put("prevPokemon", prevPokemon);
+        }
+        Map<String, String> nextPokemon = evolution(graph, pokemon, false);
+        if (nextPokemon != null) {
+            data.put("nextPokemon", nextPokemon);
+        }
+        return data;
+    }
+
+    /**
+     * @return the page field a literal of the predicate is shown in, or null if it is not shown
+     */
+    private static String literalField(Node predicate) {
+        if (predicate.equals(NAME)) {
+            return "name";
+        } else if (predicate.equals(IDENTIFIER)) {
+            return "id";
+        } else if (predicate.equals(PRIMARY_TYPE)) {
+            return "primaryType";
+        } else if (predicate.equals(SECONDARY_TYPE)) {
+            return "secondaryType";
+        } else if (predicate.equals(CATEGORY)) {
+            return "category";
+        } else if (predicate.equals(JAPANESE_NAME)) {
+            return "japaneseName";
+        } else if (predicate.equals(ROMAJI_NAME)) {
+            return "romajiName";
+        }
+        return null;
+    }
+
+    /**
+     * @param previous whether to look for the Pokemon this one evolves from, or else into
+     * @return the name and identifier of the first such Pokemon that has both, or null
+     */
+    private static Map<String, String> evolution(Graph graph, Node pokemon, boolean previous) {
+        ExtendedIterator<Triple> links = previous
+            ? graph.find(pokemon, EVOLVES_FROM, Node.ANY)
+            : graph.find(Node.ANY, EVOLVES_FROM, pokemon);
+        try {
+            while (links.hasNext()) {
+                Triple link = links.next();
+                Node other = previous ? link.getObject() : link.getSubject();
+                String name = literal(graph, other, NAME);
+                String id = literal(graph, other, IDENTIFIER);
+                if (name != null && id != null) {
+                    Map<String, String> evolution = new HashMap<>();
+                    evolution.put("name", name);
+                    evolution.put("id", id);
+                    return evolution;
+                }
+            }
+        } finally {
+            links.close();
+        }
+        return null;
+    }
+
+    private static String literal(Graph graph, Node subject, Node predicate) {
+        ExtendedIterator<Triple> values = graph.find(subject, predicate, Node.ANY);
+        try {
+            while (values.hasNext()) {
+                Node value = values.next().getObject();
+                if (value.isLiteral()) {
+                    return value.getLiteralLexicalForm();
+                }
+            }
+        } finally {
+            values.close();
+        }
+        return null;
+    }
+}
@@ -5,10 +5,24 @@ import org.apache.jena.fuseki.server.Operation;
 import org.apache.jena.query.Dataset;
 import org.apache.jena.query.DatasetFactory;
 import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFOps;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.system.Txn;
+import org.example.inference.HierarchyIndex;
+import org.example.inference.InferenceDatasetGraph;
 import org.example.inference.InferenceHandler;
+import org.example.inference.MaterializationEngine;
+import org.example.inference.MaterializationResult;
+import org.example.inference.ParallelMaterializationEngine;
+import org.example.inference.ReasoningMode;
+import org.example.inference.SameAsIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+
 public class PokemonFusekiServer {
     private static final Logger logger = LoggerFactory.getLogger(PokemonFusekiServer.class);
     private static final String DATASET_NAME = "pokemon";
@@ -16,10 +30,55 @@ public class PokemonFusekiServer {
     
     private final FusekiServer server;
     private final Dataset dataset;
+    private final InferenceDatasetGraph inferenceDataset;
+    private final ReasoningMode reasoningMode;
+    private final MaterializationEngine materializationEngine;
+    // Whether the engine was created here, and is closed with the server
+    private final boolean ownsEngine;
 
     public PokemonFusekiServer() {
-        // Create an in-memory dataset
-        dataset = DatasetFactory.createTxnMem();
+        this(ReasoningMode.MATERIALIZED);
+    }
+
+    public PokemonFusekiServer(ReasoningMode reasoningMode) {
+        this(reasoningMode, DatasetGraphFactory.createTxnMem());
+    }
+
+    /**
+     * @param storage the transactional dataset the base and derived graphs are kept in, e.g.
+     *                a persistent TDB2 database
+     */
+    public PokemonFusekiServer(ReasoningMode reasoningMode, DatasetGraph storage) {
+        this(reasoningMode, new ParallelMaterializationEngine(reasoningMode.rules(),
+            Runtime.getRuntime().availableProcessors()), storage, true);
+    }
+
+    /**
+     * @param materializationEngine the engine inferring on load, which must apply the rules of
+     *                              the reasoning mode: updates are maintained with those rules
+     */
+    public PokemonFusekiServer(ReasoningMode reasoningMode, MaterializationEngine materializationEngine) {
+        this(reasoningMode, materializationEngine, DatasetGraphFactory.createTxnMem());
+    }
+
+    /**
+     * @param materializationEngine the engine inferring on load, which must apply the rules of
+     *                              the reasoning mode: updates are maintained with those rules
+     */
+    public PokemonFusekiServer(ReasoningMode reasoningMode, MaterializationEngine materializationEngine,
+                               DatasetGraph storage) {
+        this(reasoningMode, materializationEngine, storage, false);
+    }
+
+    private PokemonFusekiServer(ReasoningMode reasoningMode, MaterializationEngine materializationEngine,
+                                DatasetGraph storage, boolean ownsEngine) {
+        this.reasoningMode = reasoningMode;
+        this.materializationEngine = materializationEngine;
+        this.ownsEngine = ownsEngine;
+
+        // Serve the storage dataset through the inference views
+        inferenceDataset = new InferenceDatasetGraph(storage, reasoningMode);
+        dataset = DatasetFactory.wrap(inferenceDataset);
         
         // Configure and create the server
         server = FusekiServer.create()
@@ -59,28 +118,43 @@ public class PokemonFusekiServer {
 
     public void stop() {
         server.stop();
+        if (ownsEngine && materializationEngine instanceof ParallelMaterializationEngine parallelEngine) {
+            parallelEngine.close();
+        }
         logger.info("Fuseki server stopped");
     }
 
-    public void loadData(Model model) {
+    /**
+     * Replaces the served data with the model and its inferences.
+     *
+     * @return false if inference failed and the model was loaded without it
+     */
+    public boolean loadData(Model model) {
         try {
             // Add inference rules to the model
-            Model inferenceModel = InferenceHandler.addInferenceRules(model);
-            
-            // Clear existing data
-            dataset.getDefaultModel().removeAll();
+            MaterializationResult result = InferenceHandler.materialize(model, materializationEngine);
             
-            // Add the inference model
-            dataset.getDefaultModel().add(inferenceModel);
+            // Replace existing data with the base and inferred triples
+            inferenceDataset.load(model.getGraph(), result.getInferredModel().getGraph());
             
-            logger.info("Loaded {} triples into the default graph (including inferred triples)", 
-                inferenceModel.size());
+            logger.info("Loaded {} base and {} inferred triples (inferred triples in <{}>, {} reasoning)", 
+                model.size(), result.getDerivedCount(), InferenceDatasetGraph.INFERRED_GRAPH.getURI(),
+                reasoningMode.name().toLowerCase());
+            SameAsIndex sameAsIndex = inferenceDataset.getSameAsIndex();
+            logger.info("owl:sameAs answered from {} equivalence classes over {} resources",
+                sameAsIndex.clusterCount(), sameAsIndex.linkedResourceCount());
+            HierarchyIndex hierarchyIndex = inferenceDataset.getHierarchyIndex();
+            if (hierarchyIndex != null) {
+                logger.info("RDFS hierarchies answered at query time from {} classes and {} properties",
+                    hierarchyIndex.classes().size(), hierarchyIndex.properties().size());
+            }
             
             // Log inference capabilities
             logger.info("\nInference capabilities enabled:");
-            logger.info("1. RDFS subclass hierarchy");
-            logger.info("2. Transitive properties (owl:sameAs)");
-            logger.info("3. Property inheritance");
+            logger.info("1. RDFS subclass hierarchy" + (reasoningMode.usesHierarchyIndex() ? " (at query time)" : ""));
+            logger.info("2. Transitive properties (owl:sameAs, indexed)");
+            logger.info("3. Property inheritance (read through owl:sameAs classes)");
+            logger.info("4. Incremental maintenance of inferred triples on /update");
             
             // Log example queries
             logger.info("\nExample inference queries to try:");
@@ -100,18 +174,31 @@ public class PokemonFusekiServer {
             logger.info("SELECT ?type ?superType WHERE {");
             logger.info("  ?type rdfs:subClassOf+ ?superType .");
             logger.info("} ORDER BY ?type");
+            return true;
             
         } catch (Exception e) {
             logger.error("Error loading data with inference:", e);
             // Load data without inference as fallback
-            dataset.getDefaultModel().removeAll();
-            dataset.getDefaultModel().add(model);
+            inferenceDataset.load(model.getGraph(), GraphFactory.createGraphMem());
             logger.info("Loaded {} triples into the default graph (without inference)", 
                 model.size());
+            return false;
         }
     }
 
+    /**
+     * Sends the base data, without the derived triples, to the stream.
+     */
+    public void sendBaseData(StreamRDF stream) {
+        Txn.executeRead(inferenceDataset,
+            () -> StreamRDFOps.sendGraphToStream(inferenceDataset.getBaseGraph(), stream));
+    }
+
     public Dataset getDataset() {
         return dataset;
     }
+
+    public ReasoningMode getReasoningMode() {
+        return reasoningMode;
+    }
 }
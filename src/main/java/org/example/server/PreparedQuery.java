@@ -0,0 +1,98 @@
+package org.example.server;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.sparql.algebra.Algebra;
+import org.apache.jena.sparql.algebra.Op;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.Substitute;
+import org.apache.jena.sparql.engine.QueryIterator;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.iterator.QueryIterConvert;
+import org.apache.jena.sparql.exec.RowSetStream;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.sparql.modify.TemplateLib;
+
+/**
+ * A SPARQL query parsed, compiled to algebra and optimized once, to be run any number of times
+ * with some of its variables bound.
+ *
+ * The values are substituted into the optimized algebra, so they are never read as query
+ * text, and a URI holding {@code >} or braces cannot change what the query does.
+ */
+public final class PreparedQuery {
+    private final Query query;
+    private final Op op;
+
+    /**
+     * @throws org.apache.jena.query.QueryParseException if the query is not valid SPARQL
+     */
+    public PreparedQuery(String queryString) {
+        this.query = QueryFactory.create(queryString);
+        this.op = Algebra.optimize(Algebra.compile(query));
+    }
+
+    public Query getQuery() {
+        return query;
+    }
+
+    /**
+     * Runs the query, which must be a SELECT query. Read and close the results in the
+     * transaction they were created in.
+     *
+     * @param binding the values of the variables to bind, or an empty binding
+     */
+    public ResultSet select(DatasetGraph dataset, Binding binding) {
+        if (!query.isSelectType()) {
+            throw new IllegalStateException("Not a SELECT query: " + query);
+        }
+        return ResultSet.adapt(RowSetStream.create(query.getProjectVars(), execute(dataset, binding)));
+    }
+
+    /**
+     * Runs the query, which must be a CONSTRUCT query, and returns the triples it builds, with
+     * the prefixes it declares.
+     *
+     * @param binding the values of the variables to bind, or an empty binding
+     */
+    public Graph construct(DatasetGraph dataset, Binding binding) {
+        Graph graph = GraphFactory.createDefaultGraph();
+        construct(dataset, binding, StreamRDFLib.graph(graph));
+        return graph;
+    }
+
+    /**
+     * Runs the query, which must be a CONSTRUCT query, sending the prefixes it declares and
+     * then each triple to the stream as it is built, so the triples are never held together.
+     * A triple built from several solutions is sent once for each. The stream is neither
+     * started nor finished.
+     *
+     * @param binding the values of the variables to bind, or an empty binding
+     */
+    public void construct(DatasetGraph dataset, Binding binding, StreamRDF stream) {
+        if (!query.isConstructType()) {
+            throw new IllegalStateException("Not a CONSTRUCT query: " + query);
+        }
+        query.getPrefixMapping().getNsPrefixMap().forEach(stream::prefix);
+        QueryIterator rows = execute(dataset, binding);
+        try {
+            TemplateLib.calcTriples(query.getConstructTemplate().getTriples(), rows)
+                .forEachRemaining(stream::triple);
+        } finally {
+            rows.close();
+        }
+    }
+
+    /**
+     * @return the solutions of the query with the values substituted, each extended with the
+     * values
+     */
+    private QueryIterator execute(DatasetGraph dataset, Binding binding) {
+        QueryIterator rows = Algebra.exec(Substitute.substitute(op, binding), dataset);
+        return new QueryIterConvert(rows, row -> Algebra.merge(binding, row), null);
+    }
+}
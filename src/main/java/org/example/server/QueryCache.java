@@ -0,0 +1,54 @@
+package org.example.server;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Prepared queries by their text, so a query sent again is not parsed and optimized again.
+ *
+ * Any query may be sent, so the cache is bounded: past its capacity the least recently used
+ * query is dropped.
+ */
+public class QueryCache {
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private final Map<String, PreparedQuery> queries;
+
+    public QueryCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public QueryCache(int capacity) {
+        // Least recently used first
+        this.queries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedQuery> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * @throws org.apache.jena.query.QueryParseException if the query is not valid SPARQL
+     */
+    public PreparedQuery get(String queryString) {
+        synchronized (queries) {
+            PreparedQuery query = queries.get(queryString);
+            if (query != null) {
+                return query;
+            }
+        }
+        // Prepared outside the lock; a query prepared twice at once is harmless
+        PreparedQuery query = new PreparedQuery(queryString);
+        synchronized (queries) {
+            queries.putIfAbsent(queryString, query);
+        }
+        return query;
+    }
+
+    public int size() {
+        synchronized (queries) {
+            return queries.size();
+        }
+    }
+}
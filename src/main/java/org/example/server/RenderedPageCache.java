@@ -0,0 +1,140 @@
+package org.example.server;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Resource pages as they were last rendered, by media type and resource, each kept for the
+ * dataset generation it was rendered at.
+ *
+ * A page of an older generation is rendered again when next asked for. Past the capacity the
+ * least recently used page is dropped.
+ */
+public class RenderedPageCache {
+    private static final int DEFAULT_CAPACITY = 2048;
+
+    private final Map<String, Page> pages;
+
+    /**
+     * A rendered page with its strong entity tag, a hash of its bytes.
+     */
+    public static class Page {
+        private final long generation;
+        private final byte[] body;
+        private final String etag;
+
+        public Page(long generation, byte[] body) {
+            this.generation = generation;
+            this.body = body;
+            this.etag = "\"" + hash(body) + "\"";
+        }
+
+        public long getGeneration() {
+            return generation;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        /**
+         * @return whether an If-None-Match header lists the tag of the page, compared weakly
+         * as the header requires
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String tag : ifNoneMatch.split(",")) {
+                tag = tag.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    public RenderedPageCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public RenderedPageCache(int capacity) {
+        // Least recently used first
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Page> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * @param render renders the page when it is not cached at the generation
+     */
+    public Page get(String mediaType, String id, long generation, Supplier<String> render) {
+        Page page = getIfCurrent(mediaType, id, generation);
+        if (page != null) {
+            return page;
+        }
+        // Rendered outside the lock; a page rendered twice at once is harmless
+        return put(mediaType, id, new Page(generation, render.get().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * @return the page cached at the generation, or null if there is none
+     */
+    public Page getIfCurrent(String mediaType, String id, long generation) {
+        synchronized (pages) {
+            Page page = pages.get(key(mediaType, id));
+            return page != null && page.getGeneration() == generation ? page : null;
+        }
+    }
+
+    /**
+     * Caches the page, unless a page of a later generation is cached already.
+     *
+     * @return the page
+     */
+    public Page put(String mediaType, String id, Page page) {
+        String key = key(mediaType, id);
+        synchronized (pages) {
+            Page cached = pages.get(key);
+            if (cached == null || cached.getGeneration() < page.getGeneration()) {
+                pages.put(key, page);
+            }
+        }
+        return page;
+    }
+
+    public int size() {
+        synchronized (pages) {
+            return pages.size();
+        }
+    }
+
+    private static String key(String mediaType, String id) {
+        return mediaType + " " + id;
+    }
+
+    private static String hash(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
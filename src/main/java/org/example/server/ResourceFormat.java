@@ -0,0 +1,116 @@
+package org.example.server;
+
+import org.apache.jena.riot.RDFFormat;
+
+/**
+ * The media types a resource is served in, with the RDF format written for each.
+ *
+ * RDF is written in the plain variants of the formats: Turtle, N-Triples and RDF Thrift are
+ * streamed, while JSON-LD and RDF/XML are written flat from the collected description.
+ */
+enum ResourceFormat {
+    // In order of preference when the Accept header ranks several alike
+    TURTLE("text/turtle", RDFFormat.TURTLE_BLOCKS),
+    N_TRIPLES("application/n-triples", RDFFormat.NTRIPLES),
+    JSON_LD("application/ld+json", RDFFormat.JSONLD_FLAT),
+    RDF_XML("application/rdf+xml", RDFFormat.RDFXML_PLAIN),
+    RDF_THRIFT("application/rdf+thrift", RDFFormat.RDF_THRIFT),
+    HTML("text/html", null);
+
+    private final String mediaType;
+    private final RDFFormat rdfFormat;
+
+    ResourceFormat(String mediaType, RDFFormat rdfFormat) {
+        this.mediaType = mediaType;
+        this.rdfFormat = rdfFormat;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * @return the RDF format written, or null for the HTML page
+     */
+    public RDFFormat getRdfFormat() {
+        return rdfFormat;
+    }
+
+    /**
+     * The format the Accept header ranks highest. A range naming the media type outranks a
+     * wildcard of the same quality. Without a header the resource is described in Turtle.
+     *
+     * @return the format, or null if the header accepts none of those served
+     */
+    public static ResourceFormat negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return TURTLE;
+        }
+        ResourceFormat best = null;
+        double bestQuality = 0;
+        int bestSpecificity = -1;
+        for (ResourceFormat format : values()) {
+            double quality = 0;
+            int specificity = -1;
+            for (String range : accept.split(",")) {
+                String[] parts = range.split(";");
+                String type = parts[0].trim().toLowerCase();
+                int matchSpecificity = format.specificity(type);
+                if (matchSpecificity > specificity) {
+                    specificity = matchSpecificity;
+                    quality = quality(parts);
+                }
+            }
+            if (specificity >= 0 && quality > 0
+                    && (quality > bestQuality || (quality == bestQuality && specificity > bestSpecificity))) {
+                best = format;
+                bestQuality = quality;
+                bestSpecificity = specificity;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return the media types served, for the response when none is acceptable
+     */
+    public static String mediaTypes() {
+        StringBuilder types = new StringBuilder();
+        for (ResourceFormat format : values()) {
+            if (types.length() > 0) {
+                types.append(", ");
+            }
+            types.append(format.mediaType);
+        }
+        return types.toString();
+    }
+
+    /**
+     * @return 2 if the range is the media type, 1 if it is its type with any subtype, 0 for any
+     * media type and -1 if it does not match
+     */
+    private int specificity(String range) {
+        if (range.equals(mediaType)) {
+            return 2;
+        } else if (range.endsWith("/*") && mediaType.startsWith(range.substring(0, range.length() - 1))) {
+            return 1;
+        } else if (range.equals("*/*")) {
+            return 0;
+        }
+        return -1;
+    }
+
+    private static double quality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
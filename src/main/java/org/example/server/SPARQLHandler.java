@@ -1,22 +1,24 @@
 package org.example.server;
 
 import org.apache.jena.query.*;
-import org.apache.jena.rdf.model.Model;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class SPARQLHandler {
     private static final Logger logger = LoggerFactory.getLogger(SPARQLHandler.class);
     private final Dataset dataset;
+    private final QueryCache queryCache = new QueryCache();
 
     public SPARQLHandler(Dataset dataset) {
         this.dataset = dataset;
     }
 
+    /**
+     * Runs a SELECT query, parsed and optimized only the first time it is sent.
+     */
     public ResultSet executeQuery(String queryString) {
-        Query query = QueryFactory.create(queryString);
-        QueryExecution qexec = QueryExecutionFactory.create(query, dataset);
-        return qexec.execSelect();
+        return queryCache.get(queryString).select(dataset.asDatasetGraph(), BindingFactory.empty());
     }
 
     public void executeTestQueries() {
@@ -51,8 +53,8 @@ public class SPARQLHandler {
     }
 
     private void executePokemonDetailsQuery(String query) {
-        try (QueryExecution qexec = QueryExecutionFactory.create(query, dataset)) {
-            ResultSet results = qexec.execSelect();
+        ResultSet results = executeQuery(query);
+        try {
             while (results.hasNext()) {
                 QuerySolution solution = results.next();
                 StringBuilder sb = new StringBuilder();
@@ -65,16 +67,20 @@ public class SPARQLHandler {
                 sb.append(" | Weight: ").append(solution.get("weight")).append("kg");
                 logger.info(sb.toString());
             }
+        } finally {
+            results.close();
         }
     }
 
     private void executePokemonAbilitiesQuery(String query) {
-        try (QueryExecution qexec = QueryExecutionFactory.create(query, dataset)) {
-            ResultSet results = qexec.execSelect();
+        ResultSet results = executeQuery(query);
+        try {
             while (results.hasNext()) {
                 QuerySolution solution = results.next();
                 logger.info(solution.get("name") + " - Ability: " + solution.get("ability"));
             }
+        } finally {
+            results.close();
         }
     }
 
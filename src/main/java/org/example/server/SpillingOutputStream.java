@@ -0,0 +1,73 @@
+package org.example.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Holds what is written in memory up to a limit, so a small response can be tagged and cached
+ * before it is sent. Past the limit, what was held and all that follows goes to the target
+ * stream instead, so a large response is never held whole.
+ */
+final class SpillingOutputStream extends OutputStream {
+    private final int limit;
+    private final Target target;
+    private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private OutputStream spilled;
+
+    /**
+     * Opens the stream written to past the limit, once it is reached.
+     */
+    @FunctionalInterface
+    interface Target {
+        OutputStream open() throws IOException;
+    }
+
+    SpillingOutputStream(int limit, Target target) {
+        this.limit = limit;
+        this.target = target;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        if (spilled == null && buffer.size() + length > limit) {
+            spilled = target.open();
+            buffer.writeTo(spilled);
+            buffer = null;
+        }
+        if (spilled != null) {
+            spilled.write(bytes, offset, length);
+        } else {
+            buffer.write(bytes, offset, length);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (spilled != null) {
+            spilled.flush();
+        }
+    }
+
+    /**
+     * @return whether the limit was reached and what was written went to the target
+     */
+    boolean isSpilled() {
+        return spilled != null;
+    }
+
+    /**
+     * @return what was written, if it was held
+     */
+    byte[] toByteArray() {
+        if (spilled != null) {
+            throw new IllegalStateException("Written past the limit to the target");
+        }
+        return buffer.toByteArray();
+    }
+}
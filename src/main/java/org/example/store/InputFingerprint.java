@@ -0,0 +1,97 @@
+package org.example.store;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * SHA-256 over the contents of the inputs the knowledge graph is built from, and over the
+ * settings that change how it is built. Two builds with the same fingerprint produce the same
+ * store.
+ */
+public class InputFingerprint {
+    private final MessageDigest digest;
+
+    public InputFingerprint() {
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Adds a file by content. A missing file counts as an input too, so creating it later
+     * changes the fingerprint.
+     */
+    public InputFingerprint addFile(Path file) throws IOException {
+        addString("file:" + file.getFileName());
+        if (!Files.isRegularFile(file)) {
+            addString("absent");
+            return this;
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            addStream(in);
+        }
+        return this;
+    }
+
+    /**
+     * Adds a classpath resource by content.
+     */
+    public InputFingerprint addResource(String name) throws IOException {
+        return addResource(name, getClass().getClassLoader());
+    }
+
+    InputFingerprint addResource(String name, ClassLoader classLoader) throws IOException {
+        addString("resource:" + name);
+        try (InputStream in = classLoader.getResourceAsStream(name)) {
+            if (in == null) {
+                addString("absent");
+            } else {
+                addStream(in);
+            }
+        }
+        return this;
+    }
+
+    public InputFingerprint addSetting(String name, String value) {
+        addString("setting:" + name + "=" + value);
+        return this;
+    }
+
+    public String toHex() {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    private void addStream(InputStream in) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long length = 0;
+        try (DigestInputStream digestIn = new DigestInputStream(in, digest)) {
+            int read;
+            while ((read = digestIn.read(buffer)) != -1) {
+                length += read;
+            }
+        }
+        // Delimit the content from whatever is added next
+        addString("length:" + length);
+    }
+
+    private void addString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+}
@@ -0,0 +1,399 @@
+package org.example.store;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFOps;
+import org.apache.jena.riot.system.StreamRDFWriter;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.function.Consumer;
+
+/**
+ * The knowledge graph saved as a Turtle file.
+ *
+ * New triples are appended to the end of the file as N-Triples lines, which are Turtle
+ * statements too, so the triples already saved are never rewritten. Until an append is synced,
+ * the length the file had before it is recorded next to it; opening the file after a crash
+ * truncates it back to that length. Reading the file does not change it: the unfinished append is
+ * left out of what is read and only removed before the next write.
+ *
+ * When triples have to be removed, the whole file is replaced: the new snapshot is streamed to a
+ * temporary file in the same directory, synced and renamed over the old one.
+ *
+ * A copy of the graph in RDF Thrift, which parses in about half the time Turtle does, can be
+ * saved next to the file, along with the size and SHA-256 hash the Turtle file had when it was
+ * saved. It is read instead of the Turtle file as long as the file still has that size and hash;
+ * hashing the file takes a small fraction of the time parsing it does.
+ *
+ * The version of the converter whose output the file holds can be recorded next to it too, so
+ * a file written by an older converter is replaced rather than appended to.
+ */
+public class KnowledgeGraphFile {
+    private static final Logger logger = LoggerFactory.getLogger(KnowledgeGraphFile.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path path;
+    private final Path appendRecord;
+    private final Path temp;
+    private final Path snapshot;
+    private final Path snapshotStamp;
+    private final Path versionRecord;
+
+    public KnowledgeGraphFile(Path path) {
+        this.path = path.toAbsolutePath();
+        this.appendRecord = this.path.resolveSibling(this.path.getFileName() + ".append");
+        this.temp = this.path.resolveSibling(this.path.getFileName() + ".tmp");
+        this.snapshot = this.path.resolveSibling(this.path.getFileName() + ".rt");
+        this.snapshotStamp = this.path.resolveSibling(this.path.getFileName() + ".rt.stamp");
+        this.versionRecord = this.path.resolveSibling(this.path.getFileName() + ".version");
+    }
+
+    /**
+     * @return whether the file exists and holds anything
+     */
+    public boolean exists() throws IOException {
+        return Files.isRegularFile(path) && Files.size(path) > 0;
+    }
+
+    /**
+     * Reads the graph from the Thrift snapshot if it is up to date, or from the Turtle file
+     * without an append that did not finish.
+     */
+    public Model read() throws IOException {
+        if (isSnapshotCurrent()) {
+            return RDFDataMgr.loadModel(snapshot.toString(), Lang.RDFTHRIFT);
+        }
+        long length = recordedLength();
+        if (length < 0) {
+            return RDFDataMgr.loadModel(path.toString(), Lang.TURTLE);
+        }
+        Model model = ModelFactory.createDefaultModel();
+        try (InputStream in = new LimitedInputStream(Files.newInputStream(path), length)) {
+            RDFDataMgr.read(model, in, Lang.TURTLE);
+        }
+        return model;
+    }
+
+    /**
+     * @return whether the Thrift snapshot exists and was saved from the Turtle file as it is now
+     */
+    public boolean isSnapshotCurrent() throws IOException {
+        if (!Files.isRegularFile(snapshot) || !Files.isRegularFile(snapshotStamp) || !Files.isRegularFile(path)) {
+            return false;
+        }
+        String[] stamp = Files.readString(snapshotStamp, StandardCharsets.US_ASCII).trim().split(" ");
+        // The size is compared first so most changes are seen without reading the file
+        return stamp.length == 2 && stamp[0].equals(Long.toString(Files.size(path)))
+            && stamp[1].equals(hash(path));
+    }
+
+    /**
+     * Appends the triples of the graph that are not saved yet, or saves the graph as a new
+     * snapshot if the file does not exist.
+     *
+     * @param saved the triples already in the file
+     * @return the number of triples written
+     */
+    public long append(Graph graph, Graph saved) throws IOException {
+        recover();
+        if (!exists()) {
+            replace(graph);
+            return graph.size();
+        }
+        deleteSnapshot();
+        long appended = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long length = channel.size();
+            writeAppendRecord(length);
+            try {
+                channel.position(length);
+                OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+                if (!endsWithNewline(channel, length)) {
+                    out.write('\n');
+                }
+                StreamRDF stream = StreamRDFWriter.getWriterStream(out, RDFFormat.NTRIPLES);
+                stream.start();
+                ExtendedIterator<Triple> triples = graph.find();
+                try {
+                    while (triples.hasNext()) {
+                        Triple triple = triples.next();
+                        if (!saved.contains(triple)) {
+                            stream.triple(triple);
+                            appended++;
+                        }
+                    }
+                } finally {
+                    triples.close();
+                }
+                stream.finish();
+                out.flush();
+                channel.force(false);
+            } catch (IOException | RuntimeException e) {
+                channel.truncate(length);
+                channel.force(false);
+                throw e;
+            }
+        }
+        Files.delete(appendRecord);
+        logger.info("Appended {} triples to {}", appended, path);
+        return appended;
+    }
+
+    /**
+     * Replaces the file with a snapshot of the graph.
+     */
+    public void replace(Graph graph) throws IOException {
+        replace(stream -> StreamRDFOps.sendGraphToStream(graph, stream));
+    }
+
+    /**
+     * Replaces the file with the triples and prefixes sent to the stream by the writer.
+     */
+    public void replace(Consumer<StreamRDF> writer) throws IOException {
+        // An append record left over would otherwise truncate the new file when next recovered
+        recover();
+        deleteSnapshot();
+        writeAtomically(path, RDFFormat.TURTLE_BLOCKS, writer);
+    }
+
+    /**
+     * Saves the graph, which must be the one in the file, as the Thrift snapshot.
+     */
+    public void saveSnapshot(Graph graph) throws IOException {
+        saveSnapshot(stream -> StreamRDFOps.sendGraphToStream(graph, stream));
+    }
+
+    /**
+     * Saves the triples and prefixes sent to the stream by the writer, which must be those in the
+     * file, as the Thrift snapshot.
+     */
+    public void saveSnapshot(Consumer<StreamRDF> writer) throws IOException {
+        Files.deleteIfExists(snapshotStamp);
+        writeAtomically(snapshot, RDFFormat.RDF_THRIFT, writer);
+        writeRecord(snapshotStamp, Files.size(path) + " " + hash(path));
+    }
+
+    /**
+     * @return the version recorded for the converter output the file holds, or 0 if there is
+     * none
+     */
+    public int readVersion() throws IOException {
+        if (!Files.isRegularFile(versionRecord)) {
+            return 0;
+        }
+        String version = Files.readString(versionRecord, StandardCharsets.US_ASCII).trim();
+        try {
+            return Integer.parseInt(version);
+        } catch (NumberFormatException e) {
+            logger.warn("Ignoring the unreadable version in {}: {}", versionRecord, version);
+            return 0;
+        }
+    }
+
+    /**
+     * Records the version of the converter whose output the file now holds.
+     */
+    public void recordVersion(int version) throws IOException {
+        writeRecord(versionRecord, Integer.toString(version));
+    }
+
+    /**
+     * Removes the snapshot before the Turtle file changes, the stamp first so a snapshot left
+     * behind is never taken as current.
+     */
+    private void deleteSnapshot() throws IOException {
+        Files.deleteIfExists(snapshotStamp);
+        Files.deleteIfExists(snapshot);
+    }
+
+    private void writeAtomically(Path target, RDFFormat format, Consumer<StreamRDF> writer) throws IOException {
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+            StreamRDF stream = StreamRDFWriter.getWriterStream(out, format);
+            stream.start();
+            writer.accept(stream);
+            stream.finish();
+            out.flush();
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory();
+        logger.info("Saved {} to {}", format.getLang().getName(), target);
+    }
+
+    /**
+     * Truncates the file to the length recorded before an append that did not finish.
+     */
+    private void recover() throws IOException {
+        if (!Files.isRegularFile(appendRecord)) {
+            return;
+        }
+        long length = recordedLength();
+        if (length >= 0) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                if (channel.size() > length) {
+                    logger.warn("Removing an unfinished append from {}", path);
+                    channel.truncate(length);
+                    channel.force(false);
+                }
+            }
+        }
+        Files.delete(appendRecord);
+        syncDirectory();
+    }
+
+    /**
+     * @return the length the file had before an append that did not finish, or -1 if there is
+     * none
+     */
+    private long recordedLength() throws IOException {
+        if (!Files.isRegularFile(appendRecord) || !Files.isRegularFile(path)) {
+            return -1;
+        }
+        String record = new String(Files.readAllBytes(appendRecord), StandardCharsets.US_ASCII);
+        // The record is synced before the append starts, so one cut short means nothing was appended
+        return record.endsWith("\n") ? Long.parseLong(record.trim()) : -1;
+    }
+
+    /**
+     * Replaces a small file next to the Turtle file with a line of text, in one rename.
+     */
+    private void writeRecord(Path record, String line) throws IOException {
+        Path recordTemp = record.resolveSibling(record.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(recordTemp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.US_ASCII)));
+            channel.force(false);
+        }
+        Files.move(recordTemp, record, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory();
+    }
+
+    private void writeAppendRecord(long length) throws IOException {
+        try (FileChannel channel = FileChannel.open(appendRecord, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap((length + "\n").getBytes(StandardCharsets.US_ASCII)));
+            channel.force(false);
+        }
+        syncDirectory();
+    }
+
+    private static boolean endsWithNewline(FileChannel channel, long length) throws IOException {
+        if (length == 0) {
+            return true;
+        }
+        ByteBuffer last = ByteBuffer.allocate(1);
+        channel.read(last, length - 1);
+        return last.get(0) == '\n';
+    }
+
+    private static String hash(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Makes a rename in the file's directory durable, where the platform allows syncing a
+     * directory.
+     */
+    private void syncDirectory() {
+        try (FileChannel directory = FileChannel.open(path.getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            logger.debug("Could not sync directory {}", path.getParent(), e);
+        }
+    }
+
+    /**
+     * Reads no further than a given number of bytes into the stream.
+     */
+    private static final class LimitedInputStream extends FilterInputStream {
+        private long remaining;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = super.read(bytes, offset, (int) Math.min(length, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), remaining);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.store;
+
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.tdb2.DatabaseMgr;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * A TDB2 database on local disk holding the served dataset, next to the fingerprint of the
+ * inputs it was built from.
+ *
+ * The base and derived triples are kept in separate graphs by the dataset itself, so updates
+ * made through the SPARQL endpoint persist along with their inferences. When the inputs are
+ * unchanged on the next start, the store is opened as is and nothing is rebuilt.
+ */
+public class KnowledgeGraphStore implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(KnowledgeGraphStore.class);
+    private static final String DATABASE_DIR = "tdb2";
+    private static final String FINGERPRINT_FILE = "inputs.sha256";
+
+    private final Path directory;
+    private final DatasetGraph datasetGraph;
+
+    public KnowledgeGraphStore(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        long start = System.nanoTime();
+        this.datasetGraph = DatabaseMgr.connectDatasetGraph(directory.resolve(DATABASE_DIR).toString());
+        logger.info("Opened TDB2 store at {} in {} ms", directory, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public DatasetGraph getDatasetGraph() {
+        return datasetGraph;
+    }
+
+    /**
+     * Whether the store was completely built from inputs with the given fingerprint.
+     */
+    public boolean isCurrent(String fingerprint) throws IOException {
+        Path file = directory.resolve(FINGERPRINT_FILE);
+        if (!Files.isRegularFile(file)) {
+            return false;
+        }
+        return fingerprint.equals(new String(Files.readAllBytes(file), StandardCharsets.UTF_8).trim());
+    }
+
+    /**
+     * Records the fingerprint of the inputs the store now holds. Call only once the data has
+     * been committed.
+     */
+    public void recordFingerprint(String fingerprint) throws IOException {
+        Path file = directory.resolve(FINGERPRINT_FILE);
+        Path temp = directory.resolve(FINGERPRINT_FILE + ".tmp");
+        Files.write(temp, (fingerprint + "\n").getBytes(StandardCharsets.UTF_8));
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public void close() {
+        datasetGraph.close();
+    }
+}
@@ -1,13 +1,13 @@
 package org.example.validation;
 
-import java.io.FileInputStream;
+import java.nio.file.Paths;
 
 import org.apache.jena.rdf.model.Model;
-import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.shacl.ShaclValidator;
 import org.apache.jena.shacl.Shapes;
 import org.apache.jena.shacl.ValidationReport;
 import org.apache.jena.shacl.lib.ShLib;
+import org.example.store.KnowledgeGraphFile;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,10 +37,12 @@ public class RDFValidator {
         return shapesModel;
     }
 
+    /**
+     * Reads the saved knowledge graph, from its Thrift snapshot if that is up to date.
+     */
     public static ValidationResult validateRDF(String filename) {
         try {
-            Model model = ModelFactory.createDefaultModel();
-            model.read(new FileInputStream(filename), null, "TURTLE");
+            Model model = new KnowledgeGraphFile(Paths.get(filename)).read();
             
             ValidationResult result = new ValidationResult();
             result.setValid(true);
@@ -0,0 +1,173 @@
+package org.example.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class BulbapediaClientTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    // Latest revision by page title, as the fake wiki serves them
+    private final Map<String, Long> revisions = new ConcurrentHashMap<>();
+    // The query parameters of every request the fake wiki received
+    private final List<Map<String, String>> requests = new CopyOnWriteArrayList<>();
+    private HttpServer wiki;
+    private Path cacheDirectory;
+
+    @Before
+    public void startWiki() throws IOException {
+        wiki = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        wiki.createContext("/w/api.php", this::answer);
+        wiki.start();
+        cacheDirectory = folder.newFolder("http-cache").toPath();
+        revisions.put("Bulbasaur (Pokémon)", 10L);
+        revisions.put("Ivysaur (Pokémon)", 20L);
+    }
+
+    @After
+    public void stopWiki() {
+        wiki.stop(0);
+    }
+
+    @Test
+    public void titlesSpelledWithUnderscoresOrSpacesNormalizeAlike() {
+        assertEquals("Ivysaur (Pokémon)", BulbapediaClient.normalizeTitle("Ivysaur_(Pokémon)"));
+        assertEquals("Ivysaur (Pokémon)", BulbapediaClient.normalizeTitle("Ivysaur (Pokémon)"));
+        assertEquals("Ivysaur (Pokémon)", BulbapediaClient.normalizeTitle(" Ivysaur__(Pokémon) "));
+    }
+
+    @Test
+    public void firstLetterIsUpperCased() {
+        assertEquals("Ivysaur (Pokémon)", BulbapediaClient.normalizeTitle("ivysaur_(Pokémon)"));
+        assertEquals("Électhor", BulbapediaClient.normalizeTitle("électhor"));
+        assertEquals("", BulbapediaClient.normalizeTitle("_"));
+    }
+
+    @Test
+    public void pagesDownloadedInARunAreServedWithoutAskingAgain() throws Exception {
+        BulbapediaClient client = client(false);
+        List<String> titles = List.of("Bulbasaur (Pokémon)", "Ivysaur (Pokémon)");
+        assertEquals(2, client.getPages(titles).size());
+        assertEquals(1, requests.size());
+
+        assertEquals("Ivysaur rev 20", client.getPages(List.of("Ivysaur_(Pokémon)")).get("Ivysaur_(Pokémon)").getWikitext());
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    public void aLaterRunRevalidatesByRevisionAndDownloadsOnlyEditedPages() throws Exception {
+        List<String> titles = List.of("Bulbasaur (Pokémon)", "Ivysaur (Pokémon)");
+        client(false).getPages(titles);
+        revisions.put("Ivysaur (Pokémon)", 21L);
+        requests.clear();
+
+        Map<String, WikiPage> pages = client(false).getPages(titles);
+        assertEquals("Bulbasaur rev 10", pages.get("Bulbasaur (Pokémon)").getWikitext());
+        assertEquals("Ivysaur rev 21", pages.get("Ivysaur (Pokémon)").getWikitext());
+        assertEquals(2, requests.size());
+        assertEquals("info", requests.get(0).get("prop"));
+        assertEquals("Bulbasaur (Pokémon)|Ivysaur (Pokémon)", requests.get(0).get("titles"));
+        assertEquals("revisions", requests.get(1).get("prop"));
+        assertEquals("Ivysaur (Pokémon)", requests.get(1).get("titles"));
+    }
+
+    @Test
+    public void otherResponsesAreRevalidatedByTheirEntityTag() throws Exception {
+        JSONObject first = client(false).queryCategory("Pokémon", null);
+        requests.clear();
+
+        BulbapediaClient client = client(false);
+        assertEquals(first.toString(), client.queryCategory("Pokémon", null).toString());
+        assertEquals(1, requests.size());
+        assertEquals("\"members-1\"", requests.get(0).get("If-None-Match"));
+        // Revalidated once per run
+        client.queryCategory("Pokémon", null);
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    public void anOfflineRunReplaysTheCacheWithoutRequests() throws Exception {
+        client(false).getPages(List.of("Bulbasaur (Pokémon)"));
+        requests.clear();
+
+        Map<String, WikiPage> pages = client(true).getPages(List.of("Bulbasaur (Pokémon)", "Ivysaur (Pokémon)"));
+        assertEquals("Bulbasaur rev 10", pages.get("Bulbasaur (Pokémon)").getWikitext());
+        assertFalse(pages.containsKey("Ivysaur (Pokémon)"));
+        assertTrue(requests.isEmpty());
+    }
+
+    /**
+     * A client of the fake wiki starting a new run on the shared cache directory.
+     */
+    private BulbapediaClient client(boolean offline) throws IOException {
+        return new BulbapediaClient("http://localhost:" + wiki.getAddress().getPort() + "/w/api.php",
+            new ResponseCache(cacheDirectory, 1024 * 1024), offline, new RateLimiter(1000.0, 1000.0, 4));
+    }
+
+    private void answer(HttpExchange exchange) throws IOException {
+        Map<String, String> params = new ConcurrentHashMap<>();
+        for (String param : exchange.getRequestURI().getRawQuery().split("&")) {
+            String[] pair = param.split("=", 2);
+            params.put(URLDecoder.decode(pair[0], StandardCharsets.UTF_8), URLDecoder.decode(pair[1], StandardCharsets.UTF_8));
+        }
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch != null) {
+            params.put("If-None-Match", ifNoneMatch);
+        }
+        requests.add(params);
+
+        JSONObject response = new JSONObject();
+        if ("categorymembers".equals(params.get("list"))) {
+            if ("\"members-1\"".equals(ifNoneMatch)) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            exchange.getResponseHeaders().add("ETag", "\"members-1\"");
+            response.put("query", new JSONObject().put("categorymembers",
+                new JSONArray().put(new JSONObject().put("title", "Bulbasaur (Pokémon)"))));
+        } else {
+            JSONArray pages = new JSONArray();
+            for (String title : params.get("titles").split("\\|")) {
+                JSONObject page = new JSONObject().put("title", title).put("pageid", title.hashCode() & 0xffff);
+                long revid = revisions.get(title);
+                if ("info".equals(params.get("prop"))) {
+                    page.put("lastrevid", revid);
+                } else {
+                    String content = title.substring(0, title.indexOf(' ')) + " rev " + revid;
+                    page.put("revisions", new JSONArray().put(new JSONObject().put("revid", revid)
+                        .put("slots", new JSONObject().put("main", new JSONObject().put("content", content)))));
+                }
+                pages.put(page);
+            }
+            response.put("query", new JSONObject().put("pages", pages));
+        }
+        byte[] body = response.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
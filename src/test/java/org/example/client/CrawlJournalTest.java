@@ -0,0 +1,90 @@
+package org.example.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+public class CrawlJournalTest {
+    private static final String CATEGORY = "Category:Pokémon";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void resumesFromWhatWasRecorded() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("crawl.journal");
+        try (CrawlJournal journal = new CrawlJournal(file)) {
+            journal.recordListing(CATEGORY, List.of("Bulbasaur (Pokémon)", "Ivysaur (Pokémon)"), "page|2");
+            journal.recordListing("Category:Moves", List.of("Tackle (move)"), null);
+            journal.recordDone("Bulbasaur (Pokémon)");
+        }
+
+        try (CrawlJournal journal = new CrawlJournal(file)) {
+            assertEquals(List.of("Bulbasaur (Pokémon)", "Ivysaur (Pokémon)"), journal.getMembers(CATEGORY));
+            assertEquals("page|2", journal.getContinuation(CATEGORY));
+            assertFalse(journal.isListed(CATEGORY));
+            assertTrue(journal.isListed("Category:Moves"));
+            assertNull(journal.getContinuation("Category:Moves"));
+            assertTrue(journal.isDone("Bulbasaur (Pokémon)"));
+            assertFalse(journal.isDone("Ivysaur (Pokémon)"));
+        }
+    }
+
+    @Test
+    public void ignoresALineCutShortAndRecordsAfterTheLastWhole() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("crawl.journal");
+        try (CrawlJournal journal = new CrawlJournal(file)) {
+            journal.recordDone("Bulbasaur (Pokémon)");
+        }
+        Files.writeString(file, "done\tIvysaur (Pok", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        try (CrawlJournal journal = new CrawlJournal(file)) {
+            assertTrue(journal.isDone("Bulbasaur (Pokémon)"));
+            assertFalse(journal.isDone("Ivysaur (Pok"));
+            journal.recordDone("Venusaur (Pokémon)");
+        }
+        assertEquals("done\tBulbasaur (Pokémon)\ndone\tVenusaur (Pokémon)\n",
+            Files.readString(file, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void aListingResumedAfterACrashKeepsEachMemberOnce() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("crawl.journal");
+        try (CrawlJournal journal = new CrawlJournal(file)) {
+            journal.recordListing(CATEGORY, List.of("Bulbasaur (Pokémon)"), "page|2");
+        }
+        try (CrawlJournal journal = new CrawlJournal(file)) {
+            journal.recordListing(CATEGORY, List.of("Bulbasaur (Pokémon)", "Ivysaur (Pokémon)"), null);
+        }
+        try (CrawlJournal journal = new CrawlJournal(file)) {
+            assertEquals(List.of("Bulbasaur (Pokémon)", "Ivysaur (Pokémon)"), journal.getMembers(CATEGORY));
+            assertTrue(journal.isListed(CATEGORY));
+            assertNull(journal.getContinuation(CATEGORY));
+        }
+    }
+
+    @Test
+    public void aCompletedCrawlLeavesNothingToResume() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("crawl.journal");
+        try (CrawlJournal journal = new CrawlJournal(file)) {
+            journal.recordDone("Bulbasaur (Pokémon)");
+            journal.complete();
+        }
+        assertFalse(Files.exists(file));
+        try (CrawlJournal journal = new CrawlJournal(file)) {
+            assertFalse(journal.isDone("Bulbasaur (Pokémon)"));
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DataCollectionCoordinatorTest {
+    private static final int POKEMON = 120;
+
+    @Test
+    public void enrichesEveryPokemonWithItsPrevoFetchedInBatches() {
+        FakeClient client = new FakeClient();
+        List<Map<String, String>> collected = Collections.synchronizedList(new ArrayList<>());
+        new DataCollectionCoordinator(client).collectData(titles(), collected::add);
+
+        assertEquals(POKEMON, collected.size());
+        for (Map<String, String> pokemon : collected) {
+            int ndex = Integer.parseInt(pokemon.get("ndex"));
+            if (ndex == 1) {
+                assertNull(pokemon.get("prevoPokemon"));
+            } else {
+                assertEquals("Mon" + (ndex - 1), pokemon.get("prevoPokemon"));
+                assertEquals(String.valueOf(ndex - 1), pokemon.get("prevoNdex"));
+            }
+        }
+        // Three requests for the Pokemon pages and three for their previous evolutions
+        assertEquals(6, client.requests.get());
+    }
+
+    @Test
+    public void callsTheSinkFromSeveralCrawlThreadsAtOnce() {
+        // Only passed if four calls of the sink are running at the same time
+        CyclicBarrier together = new CyclicBarrier(4);
+        AtomicInteger calls = new AtomicInteger();
+        AtomicBoolean serialized = new AtomicBoolean();
+        Map<String, Map<String, String>> collected = new ConcurrentHashMap<>();
+        new DataCollectionCoordinator(new FakeClient()).collectData(titles(), pokemon -> {
+            if (calls.incrementAndGet() <= 4) {
+                try {
+                    together.await(10, TimeUnit.SECONDS);
+                } catch (TimeoutException | BrokenBarrierException e) {
+                    serialized.set(true);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            collected.put(pokemon.get("title"), pokemon);
+        });
+
+        assertFalse("the sink was never called by four threads at once", serialized.get());
+        assertEquals(POKEMON, collected.size());
+    }
+
+    private static List<String> titles() {
+        List<String> titles = new ArrayList<>();
+        for (int ndex = 1; ndex <= POKEMON; ndex++) {
+            titles.add("Mon" + ndex + " (Pokémon)");
+        }
+        return titles;
+    }
+
+    /**
+     * Answers every page request with the infobox of a made up Pokemon, each evolving from the
+     * one before it.
+     */
+    private static class FakeClient extends BulbapediaClient {
+        final AtomicInteger requests = new AtomicInteger();
+
+        @Override
+        public Map<String, WikiPage> getPages(List<String> titles) {
+            requests.incrementAndGet();
+            Map<String, WikiPage> pages = new HashMap<>();
+            for (String title : titles) {
+                int ndex = Integer.parseInt(title.substring(3, title.indexOf(' ')));
+                String wikitext = "{{Pokémon Infobox\n|name=Mon" + ndex + "\n|ndex=" + ndex + "\n|type1=Grass\n"
+                    + (ndex > 1 ? "|prevo=Mon" + (ndex - 1) + "\n" : "") + "|evointo=None\n}}\n";
+                pages.put(title, new WikiPage(title, ndex, ndex, wikitext));
+            }
+            return pages;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.Test;
+
+public class RateLimiterTest {
+    @Test
+    public void completedRequestsRaiseTheRateUpToTheMaximum() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(1000.0, 1010.0, 8);
+        for (int i = 0; i < 200; i++) {
+            limiter.acquire();
+            limiter.completed();
+        }
+        assertEquals(1010.0, limiter.getRate(), 1e-9);
+        assertEquals(8, limiter.getConcurrency());
+    }
+
+    @Test
+    public void throttledRequestHalvesTheRateOnce() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(1000.0, 1000.0, 8);
+        limiter.acquire();
+        limiter.throttled(Duration.ZERO);
+        assertEquals(500.0, limiter.getRate(), 1e-9);
+
+        // Within the cooldown another refusal counts as the same burst
+        limiter.acquire();
+        limiter.throttled(Duration.ZERO);
+        assertEquals(500.0, limiter.getRate(), 1e-9);
+    }
+
+    @Test
+    public void rateRecoversFromHalvingInAboutSevenSeconds() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(1000.0, 1000.0, 8);
+        limiter.acquire();
+        limiter.throttled(Duration.ZERO);
+        long start = System.nanoTime();
+        while (limiter.getRate() < 1000.0) {
+            limiter.acquire();
+            limiter.completed();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        assertTrue("Recovered in " + seconds + " s", seconds > 5 && seconds < 15);
+    }
+
+    @Test
+    public void throttledRequestPausesEveryCaller() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(1000.0, 1000.0, 8);
+        limiter.acquire();
+        limiter.throttled(Duration.ofMillis(200));
+        long start = System.nanoTime();
+        limiter.acquire();
+        limiter.completed();
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(150).toNanos());
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class ResponseCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void keysDoNotDependOnTheOrderOfParameters() {
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("action", "query");
+        params.put("titles", "Bulbasaur");
+        Map<String, String> reversed = new LinkedHashMap<>();
+        reversed.put("titles", "Bulbasaur");
+        reversed.put("action", "query");
+        assertEquals(ResponseCache.key(params), ResponseCache.key(reversed));
+        assertFalse(ResponseCache.key(params).equals(ResponseCache.key(Map.of("action", "query", "titles", "Ivysaur"))));
+    }
+
+    @Test
+    public void entriesSurviveARestartButAreNotFreshInTheNextRun() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        ResponseCache cache = new ResponseCache(directory, 1024 * 1024);
+        cache.put("a", new ResponseCache.Entry("{\"x\":1}", "\"tag\"", "Tue, 01 Oct 2024 00:00:00 GMT", 7L));
+        cache.markFresh("a");
+        assertTrue(cache.isFresh("a"));
+
+        ResponseCache restarted = new ResponseCache(directory, 1024 * 1024);
+        ResponseCache.Entry entry = restarted.get("a");
+        assertEquals("{\"x\":1}", entry.getBody());
+        assertEquals("\"tag\"", entry.getEtag());
+        assertEquals("Tue, 01 Oct 2024 00:00:00 GMT", entry.getLastModified());
+        assertEquals(Long.valueOf(7), entry.getRevid());
+        assertFalse(restarted.isFresh("a"));
+    }
+
+    @Test
+    public void evictsTheLeastRecentlyUsedEntriesPastTheLimit() throws IOException {
+        String body = "x".repeat(400);
+        // Room for two entries of about 410 bytes each
+        ResponseCache cache = new ResponseCache(folder.getRoot().toPath(), 1000);
+        cache.put("a", new ResponseCache.Entry(body, null, null, null));
+        cache.put("b", new ResponseCache.Entry(body, null, null, null));
+        assertNotNull(cache.get("a"));
+        cache.put("c", new ResponseCache.Entry(body, null, null, null));
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+    }
+}
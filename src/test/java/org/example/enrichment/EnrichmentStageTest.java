@@ -0,0 +1,103 @@
+package org.example.enrichment;
+
+import static org.junit.Assert.assertEquals;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.vocabulary.RDFS;
+import org.example.linking.ExternalLinker;
+import org.example.parser.MultilingualDataHandler;
+import org.example.rdf.PokemonRDFConverter;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+public class EnrichmentStageTest {
+    private static final String BASE = "http://example.org/pokemon/pokemon/";
+    private static final Node NAME = NodeFactory.createURI("http://schema.org/name");
+    private static final Node SHARED = NodeFactory.createURI("http://example.org/pokemon/shared");
+
+    @Test
+    public void runsEachContributorOncePerPokemonAndCountsWhatItAdds() {
+        Model model = pokedex();
+        long converted = model.size();
+        Recording first = new Recording("first", true);
+        Recording second = new Recording("second", false);
+
+        List<ContributorStatistics> statistics = new EnrichmentStage(List.of(first, second)).enrich(model);
+
+        Set<Node> pokemon = Set.of(NodeFactory.createURI(BASE + "0001"), NodeFactory.createURI(BASE + "0002"));
+        for (Recording contributor : List.of(first, second)) {
+            assertEquals(2, contributor.called.size());
+            assertEquals(pokemon, new HashSet<>(contributor.called));
+        }
+
+        // Per Pokemon, the first emits its name again, a label and the shared triple
+        assertEquals("first", statistics.get(0).getContributorName());
+        assertEquals(6, statistics.get(0).getEmitted());
+        assertEquals(4, statistics.get(0).getKept());
+        assertEquals(2, statistics.get(0).getRedundant());
+        // and the second a label and the shared triple, which the first emitted already
+        assertEquals(4, statistics.get(1).getEmitted());
+        assertEquals(2, statistics.get(1).getKept());
+        assertEquals(converted + 6, model.size());
+    }
+
+    @Test
+    public void theApplicationsContributorsAddNothingTheConverterWrites() {
+        MultilingualDataHandler translations = new MultilingualDataHandler();
+        translations.loadTSVData();
+        Model model = pokedex();
+
+        List<ContributorStatistics> statistics =
+            new EnrichmentStage(List.of(translations, new ExternalLinker())).enrich(model);
+        for (ContributorStatistics stats : statistics) {
+            assertEquals(stats.toString(), 0, stats.getRedundant());
+        }
+    }
+
+    private static Model pokedex() {
+        PokemonRDFConverter converter = new PokemonRDFConverter();
+        Model model = converter.convertToRDF(Map.of("ndex", "1", "name", "Bulbasaur", "type1", "Grass"));
+        model.add(converter.convertToRDF(Map.of("ndex", "2", "name", "Ivysaur", "type1", "Grass")));
+        return model;
+    }
+
+    /**
+     * Records the Pokemon it is called for and emits a label, the triple shared with the other
+     * contributor and, if asked to, the name the converter already wrote.
+     */
+    private static class Recording implements EnrichmentContributor {
+        final String name;
+        final boolean repeatName;
+        final List<Node> called = new ArrayList<>();
+
+        Recording(String name, boolean repeatName) {
+            this.name = name;
+            this.repeatName = repeatName;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void contribute(Graph graph, Node pokemon, Consumer<Triple> out) {
+            called.add(pokemon);
+            if (repeatName) {
+                graph.find(pokemon, NAME, Node.ANY).forEachRemaining(out);
+            }
+            out.accept(Triple.create(pokemon, RDFS.label.asNode(), NodeFactory.createLiteral(name, "x-" + name)));
+            out.accept(Triple.create(pokemon, SHARED, NodeFactory.createLiteral("shared")));
+        }
+    }
+}
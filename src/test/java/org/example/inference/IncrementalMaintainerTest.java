@@ -0,0 +1,68 @@
+package org.example.inference;
+
+import static org.junit.Assert.assertEquals;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.GraphUtil;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.Test;
+
+public class IncrementalMaintainerTest {
+    private static final Node SUBCLASS_OF = RDFS.subClassOf.asNode();
+    private static final Node PRIMARY_TYPE = NodeFactory.createURI(TestPokedex.BASE_URI + "primaryType");
+
+    @Test
+    public void maintainedTriplesMatchRematerializationInEveryMode() {
+        for (ReasoningMode mode : ReasoningMode.values()) {
+            Graph base = copy(TestPokedex.create(30).getGraph());
+            SemiNaiveMaterializationEngine engine = new SemiNaiveMaterializationEngine(mode.rules());
+            Graph inferred = copy(engine.materialize(ModelFactory.createModelForGraph(base)).getInferredModel().getGraph());
+
+            Graph deleted = GraphFactory.createGraphMem();
+            base.find(uri("pokemon/0003"), PRIMARY_TYPE, Node.ANY).forEachRemaining(deleted::add);
+            deleted.add(Triple.create(uri("Chain2"), SUBCLASS_OF, uri("Chain1")));
+            Graph added = GraphFactory.createGraphMem();
+            added.add(Triple.create(uri("Chain2"), SUBCLASS_OF, uri("Type/Fire")));
+            added.add(Triple.create(uri("Chain9"), SUBCLASS_OF, uri("Chain5")));
+            TestPokedex.create(31).getGraph().find().filterDrop(base::contains).forEachRemaining(added::add);
+
+            GraphUtil.deleteFrom(base, deleted);
+            GraphUtil.addInto(base, added);
+            new IncrementalMaintainer(mode.rules()).maintain(base, inferred, added, deleted);
+
+            Model expected = engine.materialize(ModelFactory.createModelForGraph(base)).getInferredModel();
+            assertEquals(mode.name(), TestPokedex.triples(expected.getGraph()), TestPokedex.triples(inferred));
+        }
+    }
+
+    @Test
+    public void deletingAllChangesLeavesNoDerivedTriples() {
+        Graph base = copy(TestPokedex.create(10).getGraph());
+        SemiNaiveMaterializationEngine engine = new SemiNaiveMaterializationEngine(ReasoningMode.MATERIALIZED.rules());
+        Graph inferred = copy(engine.materialize(ModelFactory.createModelForGraph(base)).getInferredModel().getGraph());
+        Graph axioms = engine.materialize(ModelFactory.createDefaultModel()).getInferredModel().getGraph();
+
+        Graph deleted = copy(base);
+        base.clear();
+        new IncrementalMaintainer(ReasoningMode.MATERIALIZED.rules())
+            .maintain(base, inferred, GraphFactory.createGraphMem(), deleted);
+
+        assertEquals(TestPokedex.triples(axioms), TestPokedex.triples(inferred));
+    }
+
+    private static Node uri(String localName) {
+        return NodeFactory.createURI(TestPokedex.BASE_URI + localName);
+    }
+
+    private static Graph copy(Graph graph) {
+        Graph copy = GraphFactory.createGraphMem();
+        GraphUtil.addInto(copy, graph);
+        return copy;
+    }
+}
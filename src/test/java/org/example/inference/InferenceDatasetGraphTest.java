@@ -0,0 +1,129 @@
+package org.example.inference;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.query.ReadWrite;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.system.Txn;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+public class InferenceDatasetGraphTest {
+    private static final Node A = NodeFactory.createURI("http://example.org/a");
+    private static final Node B = NodeFactory.createURI("http://example.org/b");
+    private static final Node NAME = NodeFactory.createURI("http://schema.org/name");
+    private static final Node NAME_A = NodeFactory.createLiteral("a");
+    private static final Node SUB = NodeFactory.createURI("http://example.org/Sub");
+    private static final Node SUPER = NodeFactory.createURI("http://example.org/Super");
+
+    @Test
+    public void uncommittedSameAsLinkIsOnlySeenByItsTransaction() throws Exception {
+        InferenceDatasetGraph dataset = load(ReasoningMode.MATERIALIZED);
+        Supplier<Boolean> bIsNamedA = () -> dataset.getDefaultGraph().contains(B, NAME, NAME_A);
+        assertFalse(Txn.calculateRead(dataset, bIsNamedA::get));
+
+        dataset.begin(ReadWrite.WRITE);
+        dataset.add(Quad.defaultGraphIRI, A, OWL.sameAs.asNode(), B);
+        assertTrue(bIsNamedA.get());
+        assertFalse(readOnOtherThread(dataset, bIsNamedA));
+        dataset.abort();
+        dataset.end();
+
+        assertFalse(Txn.calculateRead(dataset, bIsNamedA::get));
+        assertFalse(readOnOtherThread(dataset, bIsNamedA));
+
+        Txn.executeWrite(dataset, () -> dataset.add(Quad.defaultGraphIRI, A, OWL.sameAs.asNode(), B));
+        assertTrue(Txn.calculateRead(dataset, bIsNamedA::get));
+        assertTrue(readOnOtherThread(dataset, bIsNamedA));
+    }
+
+    @Test
+    public void uncommittedSubclassIsOnlySeenByItsTransaction() throws Exception {
+        InferenceDatasetGraph dataset = load(ReasoningMode.BACKWARD);
+        Supplier<Boolean> aIsSuper = () -> dataset.getDefaultGraph().contains(A, RDF.type.asNode(), SUPER);
+        assertFalse(Txn.calculateRead(dataset, aIsSuper::get));
+
+        dataset.begin(ReadWrite.WRITE);
+        dataset.add(Quad.defaultGraphIRI, SUB, RDFS.subClassOf.asNode(), SUPER);
+        assertTrue(aIsSuper.get());
+        assertFalse(readOnOtherThread(dataset, aIsSuper));
+        dataset.abort();
+        dataset.end();
+
+        assertFalse(Txn.calculateRead(dataset, aIsSuper::get));
+
+        Txn.executeWrite(dataset, () -> dataset.add(Quad.defaultGraphIRI, SUB, RDFS.subClassOf.asNode(), SUPER));
+        assertTrue(readOnOtherThread(dataset, aIsSuper));
+    }
+
+    @Test
+    public void readerThatBeganBeforeACommitKeepsItsIndex() throws Exception {
+        InferenceDatasetGraph dataset = load(ReasoningMode.MATERIALIZED);
+        Supplier<Boolean> bIsNamedA = () -> dataset.getDefaultGraph().contains(B, NAME, NAME_A);
+
+        dataset.begin(ReadWrite.READ);
+        assertFalse(bIsNamedA.get());
+        // Committed on another thread while this read transaction is open
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        try {
+            writer.submit(() -> Txn.executeWrite(dataset,
+                () -> dataset.add(Quad.defaultGraphIRI, A, OWL.sameAs.asNode(), B))).get();
+        } finally {
+            writer.shutdown();
+        }
+        assertTrue(readOnOtherThread(dataset, bIsNamedA));
+        assertFalse(bIsNamedA.get());
+        dataset.end();
+
+        assertTrue(Txn.calculateRead(dataset, bIsNamedA::get));
+    }
+
+    @Test
+    public void triplesDerivedOnCommitAreSeenThroughTheHierarchyOnceCommitted() throws Exception {
+        InferenceDatasetGraph dataset = load(ReasoningMode.BACKWARD);
+        Node pokemon = NodeFactory.createURI(TestPokedex.BASE_URI + "pokemon/0999");
+        Node fire = NodeFactory.createURI(TestPokedex.BASE_URI + "Type/Fire");
+        Supplier<Boolean> isFire = () -> dataset.getDefaultGraph().contains(pokemon, RDF.type.asNode(), fire);
+        assertFalse(Txn.calculateRead(dataset, isFire::get));
+
+        Txn.executeWrite(dataset, () -> dataset.add(Quad.defaultGraphIRI, pokemon,
+            NodeFactory.createURI(TestPokedex.BASE_URI + "primaryType"), NodeFactory.createLiteral("Fire")));
+        // Only the resource-specific type is stored; the type class follows from the hierarchy
+        assertTrue(readOnOtherThread(dataset, isFire));
+        assertTrue(Txn.calculateRead(dataset, isFire::get));
+    }
+
+    private static InferenceDatasetGraph load(ReasoningMode mode) {
+        InferenceDatasetGraph dataset = new InferenceDatasetGraph(DatasetGraphFactory.createTxnMem(), mode);
+        Graph base = GraphFactory.createGraphMem();
+        base.add(Triple.create(A, NAME, NAME_A));
+        base.add(Triple.create(A, RDF.type.asNode(), SUB));
+        base.add(Triple.create(B, NAME, NodeFactory.createLiteral("b")));
+        dataset.load(base, GraphFactory.createGraphMem());
+        return dataset;
+    }
+
+    private static boolean readOnOtherThread(InferenceDatasetGraph dataset, Supplier<Boolean> read)
+            throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            return executor.submit(() -> Txn.calculateRead(dataset, read::get)).get();
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
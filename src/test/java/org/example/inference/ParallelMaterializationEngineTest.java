@@ -0,0 +1,33 @@
+package org.example.inference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.jena.rdf.model.Model;
+import org.junit.Test;
+
+public class ParallelMaterializationEngineTest {
+    @Test
+    public void derivesTheSameTriplesAsTheSequentialEngineInEveryMode() {
+        Model base = TestPokedex.create(60);
+        for (ReasoningMode mode : ReasoningMode.values()) {
+            MaterializationResult sequential = new SemiNaiveMaterializationEngine(mode.rules()).materialize(base);
+            try (ParallelMaterializationEngine engine = new ParallelMaterializationEngine(mode.rules(), 4)) {
+                MaterializationResult parallel = engine.materialize(base);
+                assertTrue(mode + " derives something", sequential.getDerivedCount() > 0);
+                assertEquals(mode.name(), TestPokedex.triples(sequential.getInferredModel().getGraph()),
+                    TestPokedex.triples(parallel.getInferredModel().getGraph()));
+            }
+        }
+    }
+
+    @Test
+    public void leavesTheBaseModelUnchanged() {
+        Model base = TestPokedex.create(20);
+        long size = base.size();
+        try (ParallelMaterializationEngine engine = new ParallelMaterializationEngine(ReasoningMode.MATERIALIZED.rules(), 3)) {
+            engine.materialize(base);
+        }
+        assertEquals(size, base.size());
+    }
+}
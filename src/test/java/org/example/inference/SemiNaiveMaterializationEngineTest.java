@@ -0,0 +1,89 @@
+package org.example.inference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class SemiNaiveMaterializationEngineTest {
+    @Test
+    public void derivesTheSameTriplesAsANaiveFixpointInEveryMode() {
+        Model base = TestPokedex.create(40);
+        for (ReasoningMode mode : ReasoningMode.values()) {
+            MaterializationResult result = new SemiNaiveMaterializationEngine(mode.rules()).materialize(base);
+            assertTrue(mode + " derives something", result.getDerivedCount() > 0);
+            assertEquals(mode.name(), naiveClosure(base.getGraph(), mode.rules()),
+                TestPokedex.triples(result.getInferredModel().getGraph()));
+        }
+    }
+
+    @Test
+    public void closesAChainOfSubclasses() {
+        Model base = TestPokedex.create(6);
+        Graph inferred = new SemiNaiveMaterializationEngine(ReasoningMode.MATERIALIZED.rules())
+            .materialize(base).getInferredModel().getGraph();
+        Node subClassOf = RDFS.subClassOf.asNode();
+        for (int sub = 2; sub <= 5; sub++) {
+            Node subClass = NodeFactory.createURI(TestPokedex.BASE_URI + "Chain" + sub);
+            for (int sup = 1; sup < sub - 1; sup++) {
+                assertTrue("Chain" + sub + " under Chain" + sup,
+                    inferred.contains(subClass, subClassOf, NodeFactory.createURI(TestPokedex.BASE_URI + "Chain" + sup)));
+            }
+            assertTrue("Chain" + sub + " under Grass",
+                inferred.contains(subClass, subClassOf, NodeFactory.createURI(TestPokedex.BASE_URI + "Type/Grass")));
+        }
+    }
+
+    @Test
+    public void storesOnlyTriplesNotInTheBaseAndLeavesTheBaseUnchanged() {
+        Model base = TestPokedex.create(20);
+        Set<Triple> before = TestPokedex.triples(base.getGraph());
+        MaterializationResult result = new SemiNaiveMaterializationEngine().materialize(base);
+
+        assertEquals(before, TestPokedex.triples(base.getGraph()));
+        for (Triple triple : TestPokedex.triples(result.getInferredModel().getGraph())) {
+            assertFalse(triple + " is in the base", before.contains(triple));
+        }
+    }
+
+    /**
+     * The conclusions of the rules found the naive way: each rule, in order, is applied to the
+     * whole graph again and again until it concludes nothing new.
+     */
+    private static Set<Triple> naiveClosure(Graph base, List<InferenceRule> rules) {
+        Graph graph = GraphFactory.createGraphMem();
+        base.find().forEachRemaining(graph::add);
+        Set<Triple> derived = new HashSet<>();
+        for (InferenceRule rule : rules) {
+            List<Triple> conclusions = new ArrayList<>();
+            rule.axioms(conclusions::add);
+            boolean changed;
+            do {
+                rule.apply(graph, graph, conclusions::add);
+                changed = false;
+                for (Triple triple : conclusions) {
+                    if (!graph.contains(triple)) {
+                        graph.add(triple);
+                        derived.add(triple);
+                        changed = true;
+                    }
+                }
+                conclusions.clear();
+            } while (changed && rule.isRecursive());
+        }
+        return derived;
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.inference;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.vocabulary.RDFS;
+import org.example.rdf.PokemonRDFConverter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Small Pokedex models converted the way crawled Pokemon are, for the inference tests.
+ */
+final class TestPokedex {
+    static final String BASE_URI = "http://example.org/pokemon/";
+    private static final String[] TYPES = {"Grass", "Fire", "Water", "Electric", "Psychic", "Dragon"};
+    private static final String[] NAMES = {"Bulbasaur", "Charmander", "Squirtle", "Pikachu", "Mew", "Dratini"};
+
+    private TestPokedex() {
+    }
+
+    /**
+     * The given number of Pokemon, with their types, labels and owl:sameAs links, and a chain
+     * of subclasses under one type class so the hierarchy has depth.
+     */
+    static Model create(int count) {
+        PokemonRDFConverter converter = new PokemonRDFConverter();
+        Model model = ModelFactory.createDefaultModel();
+        for (int i = 1; i <= count; i++) {
+            Map<String, String> pokemon = new HashMap<>();
+            pokemon.put("ndex", String.valueOf(i));
+            pokemon.put("name", NAMES[i % NAMES.length] + (i > NAMES.length ? " " + i : ""));
+            pokemon.put("type1", TYPES[i % TYPES.length]);
+            pokemon.put("height-m", "0.7");
+            model.add(converter.convertToRDF(pokemon));
+        }
+        Graph graph = model.getGraph();
+        for (int depth = 0; depth < 5; depth++) {
+            graph.add(Triple.create(NodeFactory.createURI(BASE_URI + "Chain" + (depth + 1)), RDFS.subClassOf.asNode(),
+                NodeFactory.createURI(depth == 0 ? BASE_URI + "Type/Grass" : BASE_URI + "Chain" + depth)));
+        }
+        return model;
+    }
+
+    static Set<Triple> triples(Graph graph) {
+        return graph.find().toSet();
+    }
+}
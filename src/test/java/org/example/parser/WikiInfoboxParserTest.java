@@ -0,0 +1,104 @@
+package org.example.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class WikiInfoboxParserTest {
+    private static final String BULBASAUR = String.join("\n",
+        "{{Pokémon Infobox",
+        "|name=Bulbasaur",
+        "|jname=フシギダネ",
+        "|tmname=Fushigidane",
+        "|ndex=0001",
+        "|type1={{tt|Grass|The Grass type}}",
+        "|type2=Poison",
+        "|category=[[Seed Pokémon|Seed]]",
+        "|height-m=0.7",
+        "|weight-kg=6.9",
+        "|ability1='''Overgrow'''",
+        "|ability2=[[Chlorophyll]]<br/>(hidden)",
+        "|generation=1 <!-- Generation I -->",
+        "|color=Green",
+        "}}",
+        "'''Bulbasaur''' is a dual-type [[Grass (type)|Grass]]/[[Poison (type)|Poison]]-type Pokémon.",
+        "[[Category:Pokémon]]",
+        "[[Category:Grass-type Pokémon|Bulbasaur]]",
+        "<!--[[Category:Hidden]]-->");
+
+    private final WikiInfoboxParser parser = new WikiInfoboxParser();
+
+    @Test
+    public void readsTheParametersOfAnInfoboxCleanedOfMarkup() {
+        Map<String, String> result = parse(BULBASAUR);
+        assertEquals("Pokemon", result.get("infoboxType"));
+        assertEquals("Bulbasaur", result.get("name"));
+        assertEquals("フシギダネ", result.get("jname"));
+        assertEquals("Fushigidane", result.get("tmname"));
+        assertEquals("0001", result.get("ndex"));
+        assertEquals("Grass", result.get("type1"));
+        assertEquals("Poison", result.get("type2"));
+        assertEquals("Seed", result.get("category"));
+        assertEquals("0.7", result.get("height-m"));
+        assertEquals("6.9", result.get("weight-kg"));
+        assertEquals("Overgrow", result.get("ability1"));
+        assertEquals("Chlorophyll (hidden)", result.get("ability2"));
+        assertEquals("1", result.get("generation"));
+        // Only the parameters the Pokemon infobox is read for are kept
+        assertFalse(result.containsKey("color"));
+    }
+
+    @Test
+    public void keepsTheFieldsItWasGiven() {
+        Map<String, String> data = new HashMap<>();
+        data.put("wikitext", BULBASAUR);
+        data.put("title", "Bulbasaur (Pokémon)");
+        Map<String, String> result = parser.processWikitext(data);
+        assertEquals("Bulbasaur (Pokémon)", result.get("title"));
+        assertEquals(BULBASAUR, result.get("wikitext"));
+    }
+
+    @Test
+    public void listsCategoriesInOrderWithoutSortKeysOrCommentedOutLinks() {
+        assertEquals("Pokémon|Grass-type Pokémon", parse(BULBASAUR).get("categories"));
+    }
+
+    @Test
+    public void aNestedTemplateDoesNotEndTheInfobox() {
+        Map<String, String> result = parse(String.join("\n",
+            "{{Pokémon Infobox",
+            "|name=Bulbasaur{{sup|FRLG}}",
+            "|height-m={{convert|0.7|m}}",
+            "|ndex=0001",
+            "|type1=Grass",
+            "}}"));
+        assertEquals("Bulbasaur", result.get("name"));
+        assertEquals("", result.get("height-m"));
+        assertEquals("0001", result.get("ndex"));
+        assertEquals("Grass", result.get("type1"));
+    }
+
+    @Test
+    public void readsOnlyTheFirstInfobox() {
+        Map<String, String> result = parse("{{Move Infobox\n|name=Tackle\n|type=Normal\n}}\n"
+            + "{{Pokémon Infobox\n|name=Bulbasaur\n}}");
+        assertEquals("Move", result.get("infoboxType"));
+        assertEquals("Tackle", result.get("move_name"));
+        assertFalse(result.containsKey("name"));
+    }
+
+    @Test
+    public void aPageWithoutAnInfoboxOnlyGetsItsCategories() {
+        Map<String, String> result = parse("Some text.\n[[Category:Moves]]");
+        assertFalse(result.containsKey("infoboxType"));
+        assertEquals("Moves", result.get("categories"));
+    }
+
+    private Map<String, String> parse(String wikitext) {
+        return parser.processWikitext(Map.of("wikitext", wikitext));
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.pipeline;
+
+import static org.junit.Assert.assertEquals;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.example.client.BulbapediaClient;
+import org.example.client.DataCollectionCoordinator;
+import org.example.parser.WikiInfoboxParser;
+import org.example.rdf.PokemonRDFConverter;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public class CrawlPipelineTest {
+    private static final int CRAWLERS = 8;
+    private static final int PAGES_PER_CRAWLER = 100;
+
+    @Test
+    public void convertsEveryPokemonHandedOverByConcurrentCrawlThreads() throws InterruptedException {
+        DataCollectionCoordinator coordinator = new DataCollectionCoordinator(new BulbapediaClient()) {
+            @Override
+            public void collectAllData(Consumer<Map<String, String>> sink) {
+                List<Thread> crawlers = new ArrayList<>();
+                for (int crawler = 0; crawler < CRAWLERS; crawler++) {
+                    int first = crawler * PAGES_PER_CRAWLER + 1;
+                    crawlers.add(Thread.ofVirtual().start(() -> {
+                        for (int ndex = first; ndex < first + PAGES_PER_CRAWLER; ndex++) {
+                            sink.accept(Map.of("title", "Mon" + ndex + " (Pokémon)", "wikitext",
+                                "{{Pokémon Infobox\n|name=Mon" + ndex + "\n|ndex=" + ndex + "\n|type1=Fire\n}}\n"));
+                        }
+                    }));
+                }
+                for (Thread crawler : crawlers) {
+                    try {
+                        crawler.join();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        };
+        Graph graph = GraphFactory.createDefaultGraph();
+        CrawlPipeline pipeline = new CrawlPipeline(coordinator, new WikiInfoboxParser(), new PokemonRDFConverter(), 16, 2);
+
+        assertEquals(CRAWLERS * PAGES_PER_CRAWLER, pipeline.run(StreamRDFLib.graph(graph)));
+        Node name = NodeFactory.createURI("http://schema.org/name");
+        assertEquals(CRAWLERS * PAGES_PER_CRAWLER, graph.find(Node.ANY, name, Node.ANY)
+            .filterKeep(triple -> triple.getSubject().getURI().startsWith("http://example.org/pokemon/pokemon/"))
+            .toList().size());
+    }
+}
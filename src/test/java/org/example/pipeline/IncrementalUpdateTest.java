@@ -0,0 +1,158 @@
+package org.example.pipeline;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.system.Txn;
+import org.example.client.BulbapediaClient;
+import org.example.client.DataCollectionCoordinator;
+import org.example.client.WikiPage;
+import org.example.inference.InferenceDatasetGraph;
+import org.example.inference.InferenceHandler;
+import org.example.inference.ReasoningMode;
+import org.example.inference.SemiNaiveMaterializationEngine;
+import org.example.parser.WikiInfoboxParser;
+import org.example.rdf.PokemonRDFConverter;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class IncrementalUpdateTest {
+    private static final String BASE = "http://example.org/pokemon/pokemon/";
+    private static final Node BULBASAUR = NodeFactory.createURI(BASE + "0001");
+    private static final Node IVYSAUR = NodeFactory.createURI(BASE + "0002");
+    private static final Node CHESPIN = NodeFactory.createURI(BASE + "0650");
+    private static final Node PRIMARY_TYPE = NodeFactory.createURI("http://example.org/pokemon/primaryType");
+
+    private FakeClient client;
+    private InferenceDatasetGraph dataset;
+
+    @Before
+    public void crawlEverything() throws InterruptedException {
+        client = new FakeClient();
+        client.wikitext.put("Bulbasaur (Pokémon)", infobox("Bulbasaur", 1, "Grass", null));
+        client.wikitext.put("Ivysaur (Pokémon)", infobox("Ivysaur", 2, "Grass", "Bulbasaur"));
+        Model base = ModelFactory.createDefaultModel();
+        pipeline().run(List.of("Bulbasaur (Pokémon)", "Ivysaur (Pokémon)"), StreamRDFLib.graph(base.getGraph()));
+        dataset = new InferenceDatasetGraph(DatasetGraphFactory.createTxnMem(), ReasoningMode.MATERIALIZED);
+        dataset.load(base.getGraph(), inferred(base.getGraph()));
+    }
+
+    @Test
+    public void replacesTheTriplesOfEditedPokemonOnly() throws Exception {
+        Graph bulbasaurBefore = triplesOf(BULBASAUR);
+        client.wikitext.put("Ivysaur (Pokémon)", infobox("Ivysaur", 2, "Bug", "Bulbasaur"));
+        client.wikitext.put("Chespin (Pokémon)", infobox("Chespin", 650, "Grass", null));
+        client.recentChanges.addAll(List.of("Ivysaur (Pokémon)", "Chespin (Pokémon)", "Pallet Town"));
+
+        IncrementalUpdate update = new IncrementalUpdate(client, pipeline(), model -> { });
+        assertEquals(1, update.apply(Instant.now().minus(Duration.ofDays(1)), dataset));
+
+        Txn.executeRead(dataset, () -> {
+            Graph base = dataset.getBaseGraph();
+            assertFalse(base.contains(IVYSAUR, PRIMARY_TYPE, NodeFactory.createLiteral("Grass")));
+            assertTrue(base.contains(IVYSAUR, PRIMARY_TYPE, NodeFactory.createLiteral("Bug")));
+            assertTrue(bulbasaurBefore.isIsomorphicWith(triplesOf(BULBASAUR)));
+            // Not in the categories a full crawl lists
+            assertFalse(base.contains(CHESPIN, Node.ANY, Node.ANY));
+
+            Graph maintained = dataset.getWrapped().getGraph(InferenceDatasetGraph.INFERRED_GRAPH);
+            assertFalse(maintained.isEmpty());
+            assertTrue(inferred(base).isIsomorphicWith(maintained));
+        });
+    }
+
+    @Test
+    public void updatesNothingWhenNoPokemonPageWasEdited() throws Exception {
+        client.recentChanges.add("Pallet Town");
+        long generation = dataset.getGeneration();
+
+        assertEquals(0, new IncrementalUpdate(client, pipeline(), model -> { })
+            .apply(Instant.now().minus(Duration.ofDays(1)), dataset));
+        assertEquals(generation, dataset.getGeneration());
+        assertEquals(0, client.categoryRequests);
+    }
+
+    /**
+     * A pipeline starting a new run, as every run of the application does.
+     */
+    private CrawlPipeline pipeline() {
+        return new CrawlPipeline(new DataCollectionCoordinator(client), new WikiInfoboxParser(),
+            new PokemonRDFConverter(), 16, 2);
+    }
+
+    private Graph triplesOf(Node subject) {
+        Graph triples = GraphFactory.createDefaultGraph();
+        Txn.executeRead(dataset, () -> dataset.getBaseGraph().find(subject, Node.ANY, Node.ANY)
+            .forEachRemaining(triples::add));
+        return triples;
+    }
+
+    private static Graph inferred(Graph base) {
+        Model copy = ModelFactory.createDefaultModel();
+        base.find().forEachRemaining(copy.getGraph()::add);
+        return InferenceHandler.materialize(copy,
+            new SemiNaiveMaterializationEngine(ReasoningMode.MATERIALIZED.rules())).getInferredModel().getGraph();
+    }
+
+    private static String infobox(String name, int ndex, String type, String prevo) {
+        return "{{Pokémon Infobox\n|name=" + name + "\n|ndex=" + String.format("%04d", ndex) + "\n|type1=" + type
+            + "\n" + (prevo != null ? "|prevo=" + prevo + "\n" : "") + "|evointo=None\n}}\n";
+    }
+
+    /**
+     * A wiki whose Generation I category lists Bulbasaur and Ivysaur only.
+     */
+    private static class FakeClient extends BulbapediaClient {
+        final Map<String, String> wikitext = new ConcurrentHashMap<>();
+        final Set<String> recentChanges = new LinkedHashSet<>();
+        int categoryRequests;
+
+        @Override
+        public Set<String> getRecentChanges(Instant since) {
+            return recentChanges;
+        }
+
+        @Override
+        public JSONObject queryCategory(String category, String continueFrom) {
+            categoryRequests++;
+            JSONArray members = new JSONArray();
+            if (category.equals("Generation_I_Pokémon")) {
+                members.put(new JSONObject().put("title", "Bulbasaur (Pokémon)"));
+                members.put(new JSONObject().put("title", "Ivysaur (Pokémon)"));
+            }
+            return new JSONObject().put("query", new JSONObject().put("categorymembers", members));
+        }
+
+        @Override
+        public Map<String, WikiPage> getPages(List<String> titles) {
+            Map<String, WikiPage> pages = new HashMap<>();
+            for (String title : titles) {
+                String text = wikitext.get(title.replace('_', ' '));
+                if (text != null) {
+                    pages.put(title, new WikiPage(title, title.hashCode(), 1, text));
+                }
+            }
+            return pages;
+        }
+    }
+}
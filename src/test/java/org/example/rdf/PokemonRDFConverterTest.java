@@ -0,0 +1,89 @@
+package org.example.rdf;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class PokemonRDFConverterTest {
+    private final PokemonRDFConverter converter = new PokemonRDFConverter();
+
+    @Test
+    public void convertsAPokemonToTheTriplesOfTheOldConverter() {
+        // As the old model-based converter wrote them, but for its shared <pokemon//type> node and
+        // the decimals it parsed through a double
+        Model expected = ModelFactory.createDefaultModel();
+        RDFParser.fromString(String.join("\n",
+            "@prefix pokemon: <http://example.org/pokemon/> .",
+            "@prefix schema: <http://schema.org/> .",
+            "@prefix rdfs: <http://www.w3.org/2000/01/rdf-schema#> .",
+            "@prefix owl: <http://www.w3.org/2002/07/owl#> .",
+            "@prefix xsd: <http://www.w3.org/2001/XMLSchema#> .",
+            "<http://example.org/pokemon/pokemon/0001> a pokemon:Pokemon, <http://example.org/pokemon/Type/Grass>,",
+            "        <http://example.org/pokemon/pokemon/0001/type> ;",
+            "    pokemon:primaryType \"Grass\" ;",
+            "    schema:name \"Bulbasaur\" ;",
+            "    schema:identifier \"0001\" ;",
+            "    schema:height \"0.7\"^^xsd:decimal ;",
+            "    schema:weight \"6.9\"^^xsd:decimal ;",
+            "    rdfs:label \"Bulbasaur\"@en, \"フシギダネ\"@ja, \"Fushigidane\"@ja-Latn ;",
+            "    owl:sameAs <http://dbpedia.org/resource/Bulbasaur>, <http://www.wikidata.org/entity/Q1410>,",
+            "        <https://bulbapedia.bulbagarden.net/wiki/Bulbasaur_(Pokémon)> .",
+            "<http://example.org/pokemon/pokemon/0001/type> rdfs:subClassOf <http://example.org/pokemon/Type/Grass> .",
+            "<http://dbpedia.org/resource/Bulbasaur> schema:name \"Bulbasaur\" ;",
+            "    owl:sameAs <http://www.wikidata.org/entity/Q1410> .",
+            "<http://www.wikidata.org/entity/Q1410> schema:name \"Bulbasaur\" .",
+            "<https://bulbapedia.bulbagarden.net/wiki/Bulbasaur_(Pokémon)> schema:name \"Bulbasaur\" ."))
+            .lang(Lang.TURTLE).parse(expected);
+
+        Model converted = converter.convertToRDF(bulbasaur());
+        assertTrue(converted.isIsomorphicWith(expected));
+    }
+
+    @Test
+    public void usesTheTrimmedNameForEveryLiteralAndLink() {
+        Map<String, String> padded = bulbasaur();
+        padded.put("name", "  Bulbasaur ");
+        assertTrue(converter.convertToRDF(padded).isIsomorphicWith(converter.convertToRDF(bulbasaur())));
+    }
+
+    @Test
+    public void convertsTypesOutsideTheKnownOnes() {
+        Map<String, String> pokemon = bulbasaur();
+        pokemon.put("type1", "Stellar");
+        Model converted = converter.convertToRDF(pokemon);
+        assertTrue(converted.contains(converted.createResource("http://example.org/pokemon/pokemon/0001"),
+            converted.createProperty("http://example.org/pokemon/primaryType"), "Stellar"));
+        assertTrue(converted.contains(converted.createResource("http://example.org/pokemon/pokemon/0001/type"),
+            converted.createProperty("http://www.w3.org/2000/01/rdf-schema#subClassOf"),
+            converted.createResource("http://example.org/pokemon/Type/Stellar")));
+    }
+
+    @Test
+    public void leavesOutTheNameTriplesOfABlankName() {
+        Map<String, String> pokemon = bulbasaur();
+        pokemon.put("name", " ");
+        Model converted = converter.convertToRDF(pokemon);
+        assertFalse(converted.listObjectsOfProperty(converted.createProperty("http://schema.org/name")).hasNext());
+        assertFalse(converted.listObjectsOfProperty(converted.createProperty("http://www.w3.org/2002/07/owl#sameAs")).hasNext());
+    }
+
+    private static Map<String, String> bulbasaur() {
+        Map<String, String> pokemon = new HashMap<>();
+        pokemon.put("ndex", "1");
+        pokemon.put("name", "Bulbasaur");
+        pokemon.put("type1", "Grass");
+        pokemon.put("height-m", "0.7");
+        pokemon.put("weight-kg", "6.9");
+        pokemon.put("japanese_name", "フシギダネ");
+        pokemon.put("romaji_name", "Fushigidane");
+        return pokemon;
+    }
+}
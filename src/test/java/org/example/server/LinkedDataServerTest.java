@@ -0,0 +1,114 @@
+package org.example.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.system.Txn;
+import org.example.inference.InferenceDatasetGraph;
+import org.example.inference.ReasoningMode;
+import org.example.rdf.PokemonRDFConverter;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import spark.Spark;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+
+public class LinkedDataServerTest {
+    private static final HttpClient CLIENT = HttpClient.newHttpClient();
+    private static InferenceDatasetGraph dataset;
+    private static LinkedDataServer server;
+    private static int port;
+
+    @BeforeClass
+    public static void start() throws IOException {
+        Model base = new PokemonRDFConverter().convertToRDF(Map.of(
+            "ndex", "1", "name", "Bulbasaur", "type1", "Grass", "type2", "Poison", "height-m", "0.7"));
+        dataset = new InferenceDatasetGraph(DatasetGraphFactory.createTxnMem(), ReasoningMode.BACKWARD);
+        dataset.load(base.getGraph(), GraphFactory.createDefaultGraph());
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        server = new LinkedDataServer(DatasetFactory.wrap(dataset), port);
+        server.start();
+        Spark.awaitInitialization();
+    }
+
+    @AfterClass
+    public static void stop() {
+        server.stop();
+        Spark.awaitStop();
+    }
+
+    @Test
+    public void tagsKnownResourcesAndAnswersRevalidationWithNotModified() throws Exception {
+        for (String accept : new String[] {"text/turtle", "text/html"}) {
+            HttpResponse<String> first = get("0001", accept, null);
+            assertEquals(accept, 200, first.statusCode());
+            String etag = first.headers().firstValue("ETag").orElseThrow();
+
+            HttpResponse<String> revalidated = get("0001", accept, etag);
+            assertEquals(accept, 304, revalidated.statusCode());
+            assertEquals(accept, "", revalidated.body());
+            assertEquals(accept, 200, get("0001", accept, "\"other\"").statusCode());
+        }
+    }
+
+    @Test
+    public void aChangeToTheDatasetChangesTheTag() throws Exception {
+        String etag = get("0001", "text/turtle", null).headers().firstValue("ETag").orElseThrow();
+        Txn.executeWrite(dataset, () -> dataset.add(Quad.defaultGraphIRI,
+            NodeFactory.createURI("http://example.org/pokemon/pokemon/0001"),
+            NodeFactory.createURI("http://schema.org/alternateName"), NodeFactory.createLiteral("Fushigidane")));
+
+        HttpResponse<String> changed = get("0001", "text/turtle", etag);
+        assertEquals(200, changed.statusCode());
+        assertTrue(changed.body().contains("Fushigidane"));
+        assertNotEquals(etag, changed.headers().firstValue("ETag").orElseThrow());
+    }
+
+    @Test
+    public void unknownAndMalformedResourcesAreNotFoundAndNotCached() throws Exception {
+        for (String id : new String[] {"9999", "bulbasaur", "0001%3E%20%3Cx"}) {
+            for (String accept : new String[] {"text/turtle", "text/html"}) {
+                HttpResponse<String> response = get(id, accept, null);
+                assertEquals(id + " " + accept, 404, response.statusCode());
+                assertFalse(id + " " + accept, response.headers().firstValue("ETag").isPresent());
+            }
+        }
+        assertFalse(server.exists("9999"));
+        assertFalse(server.exists("0001> <x"));
+        assertTrue(server.exists("0001"));
+    }
+
+    @Test
+    public void answersNotAcceptableWhenNoFormatServedIsAccepted() throws Exception {
+        HttpResponse<String> response = get("0001", "image/png", null);
+        assertEquals(406, response.statusCode());
+        assertTrue(response.body().contains("text/turtle"));
+        assertEquals(200, get("0001", "image/png, */*;q=0.1", null).statusCode());
+    }
+
+    private static HttpResponse<String> get(String id, String accept, String ifNoneMatch) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/resource/" + id))
+            .header("Accept", accept);
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return CLIENT.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.server;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+public class PageTemplateTest {
+
+    @Test
+    public void rendersLikeReplacingEachPlaceholder() {
+        String source = "<title>${name}</title><p>${id}: ${name}</p>${empty}$ {not} ${unclosed";
+        Map<String, String> values = Map.of("name", "Bulbasaur", "id", "0001", "empty", "");
+
+        String replaced = source;
+        for (Map.Entry<String, String> value : values.entrySet()) {
+            replaced = replaced.replace("${" + value.getKey() + "}", value.getValue());
+        }
+        StringBuilder out = new StringBuilder();
+        PageTemplate.compile(source).render(out, (slot, slotOut) -> slotOut.append(values.get(slot)));
+        assertEquals(replaced, out.toString());
+    }
+
+    @Test
+    public void passesUnknownSlotsToTheWriter() {
+        StringBuilder out = new StringBuilder();
+        PageTemplate.compile("a${x}b${}c").render(out, (slot, slotOut) -> slotOut.append('[').append(slot).append(']'));
+        assertEquals("a[x]b[]c", out.toString());
+    }
+
+    @Test
+    public void rendersATemplateWithoutSlotsUnchanged() {
+        StringBuilder out = new StringBuilder();
+        PageTemplate.compile("<p>No slots</p>").render(out, (slot, slotOut) -> {
+            throw new AssertionError(slot);
+        });
+        assertEquals("<p>No slots</p>", out.toString());
+    }
+
+    @Test
+    public void escapesMarkupInTextAndAttributeValues() {
+        StringBuilder out = new StringBuilder();
+        PageTemplate.escape("<a href=\"x\" title='Farfetch&#39;d'>Mr. Mime & Co</a> é", out);
+        assertEquals("&lt;a href=&quot;x&quot; title=&#39;Farfetch&amp;#39;d&#39;&gt;Mr. Mime &amp; Co&lt;/a&gt; é",
+            out.toString());
+    }
+}
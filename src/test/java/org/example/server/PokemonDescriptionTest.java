@@ -0,0 +1,169 @@
+package org.example.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class PokemonDescriptionTest {
+    private static final String BASE = "http://example.org/pokemon/pokemon/";
+    private static final Model MODEL = ModelFactory.createDefaultModel();
+    static {
+        RDFParser.fromString(String.join("\n",
+            "@prefix pokemon: <http://example.org/pokemon/> .",
+            "@prefix schema: <http://schema.org/> .",
+            "@prefix owl: <http://www.w3.org/2002/07/owl#> .",
+            "@prefix xsd: <http://www.w3.org/2001/XMLSchema#> .",
+            "<" + BASE + "0001> a pokemon:Pokemon ; schema:name \"Bulbasaur\" ; schema:identifier \"0001\" ;",
+            "    pokemon:primaryType \"Grass\" ; pokemon:secondaryType \"Poison\" ; pokemon:category \"Seed\" ;",
+            "    pokemon:japaneseName \"フシギダネ\" ; pokemon:romajiName \"Fushigidane\" ;",
+            "    schema:height \"0.70\"^^xsd:decimal ; schema:weight \"6.9\"^^xsd:decimal ;",
+            "    owl:sameAs <http://dbpedia.org/resource/Bulbasaur>, <http://www.wikidata.org/entity/Q1410>,",
+            "        <https://bulbapedia.bulbagarden.net/wiki/Bulbasaur_(Pokémon)> .",
+            "<" + BASE + "0002> a pokemon:Pokemon ; schema:name \"Ivysaur\" ; schema:identifier \"0002\" ;",
+            "    pokemon:primaryType \"Grass\" ; schema:height \"1\"^^xsd:decimal ; schema:weight \"13.05\"^^xsd:decimal ;",
+            "    pokemon:evolvesFrom <" + BASE + "0001> .",
+            "<" + BASE + "0003> a pokemon:Pokemon ; schema:name \"Venusaur\" ; schema:identifier \"0003\" ;",
+            "    pokemon:primaryType \"Grass\" ; schema:weight \"100\"^^xsd:integer ;",
+            "    pokemon:evolvesFrom <" + BASE + "0002> .",
+            "<" + BASE + "0004> a pokemon:Pokemon ; schema:name \"Charmander\" ; schema:identifier \"0004\" .",
+            "<http://dbpedia.org/resource/Bulbasaur> schema:name \"Bulbasaur\" ; schema:identifier \"0001\" ;",
+            "    pokemon:primaryType \"Grass\" ."))
+            .lang(Lang.TURTLE).parse(MODEL);
+    }
+
+    @Test
+    public void describesAPokemonAsTheQueriesItReplacedDid() {
+        for (String uri : new String[] {BASE + "0001", BASE + "0002", BASE + "0003"}) {
+            Map<String, Object> described = PokemonDescription.describe(MODEL.getGraph(), uri);
+            assertEquals(uri, baseline(uri), described);
+        }
+    }
+
+    @Test
+    public void describesEveryField() {
+        Map<String, Object> bulbasaur = PokemonDescription.describe(MODEL.getGraph(), BASE + "0001");
+        assertEquals("Bulbasaur", bulbasaur.get("name"));
+        assertEquals("0001", bulbasaur.get("id"));
+        assertEquals("Grass", bulbasaur.get("primaryType"));
+        assertEquals("Poison", bulbasaur.get("secondaryType"));
+        assertEquals("Seed", bulbasaur.get("category"));
+        assertEquals("フシギダネ", bulbasaur.get("japaneseName"));
+        assertEquals("Fushigidane", bulbasaur.get("romajiName"));
+        assertEquals(String.format("%.1f", 0.7), bulbasaur.get("height"));
+        assertEquals(String.format("%.1f", 6.9), bulbasaur.get("weight"));
+        assertEquals("http://dbpedia.org/resource/Bulbasaur", bulbasaur.get("dbpediaLink"));
+        assertEquals("http://www.wikidata.org/entity/Q1410", bulbasaur.get("wikidataLink"));
+        assertEquals(Map.of("name", "Ivysaur", "id", "0002"), bulbasaur.get("nextPokemon"));
+
+        Map<String, Object> ivysaur = PokemonDescription.describe(MODEL.getGraph(), BASE + "0002");
+        assertEquals(String.format("%.1f", 1.0), ivysaur.get("height"));
+        assertEquals(Map.of("name", "Bulbasaur", "id", "0001"), ivysaur.get("prevPokemon"));
+        assertEquals(Map.of("name", "Venusaur", "id", "0003"), ivysaur.get("nextPokemon"));
+    }
+
+    @Test
+    public void anythingButAPokemonWithANameIdAndPrimaryTypeIsNotDescribed() {
+        for (String uri : new String[] {BASE + "0004", BASE + "9999", "http://dbpedia.org/resource/Bulbasaur"}) {
+            assertTrue(uri, PokemonDescription.describe(MODEL.getGraph(), uri).isEmpty());
+            assertTrue(uri, baseline(uri).isEmpty());
+        }
+    }
+
+    /**
+     * The page data as the server read it before, with an ASK, a SELECT and a query for each
+     * evolution.
+     */
+    private static Map<String, Object> baseline(String resourceUri) {
+        Map<String, Object> data = new HashMap<>();
+        try (QueryExecution qexec = QueryExecutionFactory.create(
+                "ASK WHERE { <" + resourceUri + "> a <http://example.org/pokemon/Pokemon> }", MODEL)) {
+            if (!qexec.execAsk()) {
+                return data;
+            }
+        }
+        String query =
+            "PREFIX pokemon: <http://example.org/pokemon/>\n" +
+            "PREFIX schema: <http://schema.org/>\n" +
+            "PREFIX owl: <http://www.w3.org/2002/07/owl#>\n" +
+            "SELECT DISTINCT ?name ?id ?primaryType ?secondaryType ?height ?weight " +
+            "?category ?japaneseName ?romajiName ?dbpedia ?wikidata\n" +
+            "WHERE {\n" +
+            "  BIND(<" + resourceUri + "> AS ?pokemon)\n" +
+            "  ?pokemon schema:name ?name ;\n" +
+            "          schema:identifier ?id ;\n" +
+            "          pokemon:primaryType ?primaryType .\n" +
+            "  OPTIONAL { ?pokemon schema:height ?height }\n" +
+            "  OPTIONAL { ?pokemon schema:weight ?weight }\n" +
+            "  OPTIONAL { ?pokemon pokemon:category ?category }\n" +
+            "  OPTIONAL { ?pokemon pokemon:secondaryType ?secondaryType }\n" +
+            "  OPTIONAL { ?pokemon pokemon:japaneseName ?japaneseName }\n" +
+            "  OPTIONAL { ?pokemon pokemon:romajiName ?romajiName }\n" +
+            "  OPTIONAL { ?pokemon owl:sameAs ?dbpedia .\n" +
+            "            FILTER(CONTAINS(STR(?dbpedia), 'dbpedia.org')) }\n" +
+            "  OPTIONAL { ?pokemon owl:sameAs ?wikidata .\n" +
+            "            FILTER(CONTAINS(STR(?wikidata), 'wikidata.org')) }\n" +
+            "}\n";
+        try (QueryExecution qexec = QueryExecutionFactory.create(query, MODEL)) {
+            ResultSet results = qexec.execSelect();
+            if (!results.hasNext()) {
+                return data;
+            }
+            QuerySolution solution = results.nextSolution();
+            data.put("name", solution.getLiteral("name").getString());
+            data.put("id", solution.getLiteral("id").getString());
+            data.put("primaryType", solution.getLiteral("primaryType").getString());
+            for (String field : new String[] {"height", "weight"}) {
+                if (solution.contains(field)) {
+                    data.put(field, String.format("%.1f", solution.getLiteral(field).getDouble()));
+                }
+            }
+            for (String field : new String[] {"category", "secondaryType", "japaneseName", "romajiName"}) {
+                if (solution.contains(field)) {
+                    data.put(field, solution.getLiteral(field).getString());
+                }
+            }
+            if (solution.contains("dbpedia")) {
+                data.put("dbpediaLink", solution.getResource("dbpedia").getURI());
+            }
+            if (solution.contains("wikidata")) {
+                data.put("wikidataLink", solution.getResource("wikidata").getURI());
+            }
+        }
+        addEvolution(data, "prevPokemon", "<" + resourceUri + "> pokemon:evolvesFrom ?other .");
+        addEvolution(data, "nextPokemon", "?other pokemon:evolvesFrom <" + resourceUri + "> .");
+        return data;
+    }
+
+    private static void addEvolution(Map<String, Object> data, String field, String link) {
+        String query =
+            "PREFIX pokemon: <http://example.org/pokemon/>\n" +
+            "PREFIX schema: <http://schema.org/>\n" +
+            "SELECT ?name ?id WHERE {\n" +
+            "  " + link + "\n" +
+            "  ?other schema:name ?name ;\n" +
+            "         schema:identifier ?id .\n" +
+            "}\n";
+        try (QueryExecution qexec = QueryExecutionFactory.create(query, MODEL)) {
+            ResultSet results = qexec.execSelect();
+            if (results.hasNext()) {
+                QuerySolution solution = results.nextSolution();
+                Map<String, String> evolution = new HashMap<>();
+                evolution.put("name", solution.getLiteral("name").getString());
+                evolution.put("id", solution.getLiteral("id").getString());
+                data.put(field, evolution);
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.query.ResultSetFormatter;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.system.Txn;
+import org.example.rdf.PokemonRDFConverter;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class PreparedQueryTest {
+    private static final String BASE = "http://example.org/pokemon/pokemon/";
+
+    @Test
+    public void constructsTheSameTriplesAsQueryExecution() {
+        DatasetGraph dataset = pokedex();
+        PreparedQuery prepared = new PreparedQuery("CONSTRUCT { ?resource ?p ?o } WHERE { ?resource ?p ?o }");
+        for (String id : new String[] {"0001", "0002", "0004", "9999"}) {
+            Node resource = NodeFactory.createURI(BASE + id);
+            Txn.executeRead(dataset, () -> {
+                Graph graph = prepared.construct(dataset, BindingFactory.binding(Var.alloc("resource"), resource));
+                Model expected;
+                try (QueryExecution execution = QueryExecutionFactory.create(
+                        "CONSTRUCT { <" + resource.getURI() + "> ?p ?o } WHERE { <" + resource.getURI() + "> ?p ?o }",
+                        DatasetFactory.wrap(dataset))) {
+                    expected = execution.execConstruct();
+                }
+                assertTrue(id, graph.isIsomorphicWith(expected.getGraph()));
+                assertEquals(id, id.equals("9999"), graph.isEmpty());
+            });
+        }
+    }
+
+    @Test
+    public void selectsTheSameSolutionsAsQueryExecution() {
+        DatasetGraph dataset = pokedex();
+        String query = "PREFIX schema: <http://schema.org/> "
+            + "SELECT ?pokemon ?name WHERE { ?pokemon schema:name ?name } ORDER BY ?name";
+        Txn.executeRead(dataset, () -> {
+            ResultSet prepared = new PreparedQuery(query).select(dataset, BindingFactory.empty());
+            String actual = ResultSetFormatter.asText(prepared);
+            try (QueryExecution execution = QueryExecutionFactory.create(query, DatasetFactory.wrap(dataset))) {
+                assertEquals(ResultSetFormatter.asText(execution.execSelect()), actual);
+            }
+        });
+    }
+
+    @Test
+    public void aBoundValueIsNeverReadAsQueryText() {
+        DatasetGraph dataset = pokedex();
+        PreparedQuery prepared = new PreparedQuery("CONSTRUCT { ?resource ?p ?o } WHERE { ?resource ?p ?o }");
+        Node injected = NodeFactory.createURI(BASE + "0001> ?p ?o } UNION { ?s ?p ?o");
+        Txn.executeRead(dataset, () ->
+            assertTrue(prepared.construct(dataset, BindingFactory.binding(Var.alloc("resource"), injected)).isEmpty()));
+    }
+
+    private static DatasetGraph pokedex() {
+        PokemonRDFConverter converter = new PokemonRDFConverter();
+        DatasetGraph dataset = DatasetGraphFactory.createTxnMem();
+        String[][] pokemon = {{"1", "Bulbasaur", "Grass"}, {"2", "Ivysaur", "Grass"}, {"4", "Charmander", "Fire"}};
+        for (String[] fields : pokemon) {
+            Map<String, String> data = new HashMap<>();
+            data.put("ndex", fields[0]);
+            data.put("name", fields[1]);
+            data.put("type1", fields[2]);
+            Model model = converter.convertToRDF(data);
+            Txn.executeWrite(dataset, () -> model.getGraph().find().forEachRemaining(dataset.getDefaultGraph()::add));
+        }
+        return dataset;
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class ResourceFormatTest {
+    @Test
+    public void describesInTurtleWithoutAnAcceptHeader() {
+        assertEquals(ResourceFormat.TURTLE, ResourceFormat.negotiate(null));
+        assertEquals(ResourceFormat.TURTLE, ResourceFormat.negotiate(" "));
+        assertEquals(ResourceFormat.TURTLE, ResourceFormat.negotiate("*/*"));
+    }
+
+    @Test
+    public void picksTheMediaTypeNamed() {
+        assertEquals(ResourceFormat.HTML, ResourceFormat.negotiate("text/html"));
+        assertEquals(ResourceFormat.N_TRIPLES, ResourceFormat.negotiate("application/n-triples"));
+        assertEquals(ResourceFormat.JSON_LD, ResourceFormat.negotiate("Application/LD+JSON"));
+        assertEquals(ResourceFormat.RDF_THRIFT, ResourceFormat.negotiate("application/rdf+thrift"));
+    }
+
+    @Test
+    public void ranksByQualityThenBySpecificity() {
+        assertEquals(ResourceFormat.RDF_XML,
+            ResourceFormat.negotiate("text/turtle;q=0.5, application/rdf+xml;q=0.9"));
+        // A browser's header: HTML named, everything else through the wildcard
+        assertEquals(ResourceFormat.HTML,
+            ResourceFormat.negotiate("text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8"));
+        assertEquals(ResourceFormat.JSON_LD, ResourceFormat.negotiate("*/*, application/ld+json"));
+        assertEquals(ResourceFormat.TURTLE, ResourceFormat.negotiate("text/*"));
+    }
+
+    @Test
+    public void acceptsNoFormatExcludedOrUnnamed() {
+        assertNull(ResourceFormat.negotiate("image/png"));
+        assertNull(ResourceFormat.negotiate("text/turtle;q=0"));
+        assertNull(ResourceFormat.negotiate("application/json"));
+        assertEquals(ResourceFormat.N_TRIPLES, ResourceFormat.negotiate("text/turtle;q=0, application/n-triples"));
+    }
+}
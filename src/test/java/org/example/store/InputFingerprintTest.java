@@ -0,0 +1,88 @@
+package org.example.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class InputFingerprintTest {
+    private static final String TSV = "pokedex-i18n.tsv";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void sameInputsGiveTheSameFingerprint() throws IOException {
+        Inputs inputs = new Inputs();
+        assertEquals(inputs.fingerprint("MATERIALIZED"), inputs.fingerprint("MATERIALIZED"));
+    }
+
+    @Test
+    public void changesWithTheTurtleFile() throws IOException {
+        Inputs inputs = new Inputs();
+        String before = inputs.fingerprint("MATERIALIZED");
+        Files.writeString(inputs.turtle, "<urn:a> <urn:b> <urn:d> .\n", StandardCharsets.UTF_8);
+        assertNotEquals(before, inputs.fingerprint("MATERIALIZED"));
+
+        Files.delete(inputs.turtle);
+        assertNotEquals(before, inputs.fingerprint("MATERIALIZED"));
+    }
+
+    @Test
+    public void changesWithTheTranslations() throws IOException {
+        Inputs inputs = new Inputs();
+        String before = inputs.fingerprint("MATERIALIZED");
+        Files.writeString(inputs.tsv, "1\tBulbasaur\tBisasam\n", StandardCharsets.UTF_8);
+        assertNotEquals(before, inputs.fingerprint("MATERIALIZED"));
+    }
+
+    @Test
+    public void changesWithTheReasoningMode() throws IOException {
+        Inputs inputs = new Inputs();
+        assertNotEquals(inputs.fingerprint("MATERIALIZED"), inputs.fingerprint("BACKWARD"));
+    }
+
+    @Test
+    public void contentIsDelimitedFromWhatFollows() {
+        // The same bytes split differently between two inputs
+        assertNotEquals(new InputFingerprint().addSetting("a", "bc").addSetting("d", "").toHex(),
+            new InputFingerprint().addSetting("a", "b").addSetting("cd", "").toHex());
+    }
+
+    /**
+     * A pokemon.ttl and a translation file on a classpath of their own, fingerprinted as the
+     * application does.
+     */
+    private class Inputs {
+        final Path turtle;
+        final Path tsv;
+        final Path resources;
+
+        Inputs() throws IOException {
+            turtle = folder.newFile("pokemon.ttl").toPath();
+            Files.writeString(turtle, "<urn:a> <urn:b> <urn:c> .\n", StandardCharsets.UTF_8);
+            resources = folder.newFolder("resources").toPath();
+            tsv = resources.resolve(TSV);
+            Files.writeString(tsv, "1\tBulbasaur\tFushigidane\n", StandardCharsets.UTF_8);
+        }
+
+        String fingerprint(String reasoningMode) throws IOException {
+            try (URLClassLoader classLoader = new URLClassLoader(new URL[] {resources.toUri().toURL()}, null)) {
+                return new InputFingerprint()
+                    .addFile(turtle)
+                    .addResource(TSV, classLoader)
+                    .addSetting("reasoning.mode", reasoningMode)
+                    .toHex();
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package org.example.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+
+public class KnowledgeGraphFileTest {
+    private static final String BASE = "http://example.org/pokemon/pokemon/";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void appendsOnlyTheTriplesNotSavedYet() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("pokemon.ttl");
+        KnowledgeGraphFile file = new KnowledgeGraphFile(path);
+        Model saved = pokedex("Bulbasaur", "Ivysaur");
+        file.replace(saved.getGraph());
+
+        Model updated = pokedex("Bulbasaur", "Ivysaur", "Venusaur");
+        assertEquals(1, file.append(updated.getGraph(), saved.getGraph()));
+        assertTrue(file.read().isIsomorphicWith(updated));
+    }
+
+    @Test
+    public void readsLeaveAnUnfinishedAppendInPlaceButOutOfTheGraph() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("pokemon.ttl");
+        Model saved = pokedex("Bulbasaur", "Ivysaur");
+        new KnowledgeGraphFile(path).replace(saved.getGraph());
+        long length = simulateCrashDuringAppend(path);
+
+        KnowledgeGraphFile file = new KnowledgeGraphFile(path);
+        assertTrue(file.read().isIsomorphicWith(saved));
+        assertTrue("the file is not truncated by a read", Files.size(path) > length);
+        assertTrue(Files.exists(appendRecord(path)));
+    }
+
+    @Test
+    public void theNextWriteRemovesAnUnfinishedAppend() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("pokemon.ttl");
+        Model saved = pokedex("Bulbasaur", "Ivysaur");
+        new KnowledgeGraphFile(path).replace(saved.getGraph());
+        simulateCrashDuringAppend(path);
+
+        KnowledgeGraphFile file = new KnowledgeGraphFile(path);
+        Model updated = pokedex("Bulbasaur", "Ivysaur", "Venusaur");
+        assertEquals(1, file.append(updated.getGraph(), saved.getGraph()));
+        assertFalse(Files.exists(appendRecord(path)));
+        assertTrue(new KnowledgeGraphFile(path).read().isIsomorphicWith(updated));
+    }
+
+    @Test
+    public void replacingTheFileDropsALeftoverAppendRecord() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("pokemon.ttl");
+        new KnowledgeGraphFile(path).replace(pokedex("Bulbasaur", "Ivysaur").getGraph());
+        simulateCrashDuringAppend(path);
+
+        Model replaced = pokedex("Charmander", "Charmeleon", "Charizard", "Squirtle");
+        new KnowledgeGraphFile(path).replace(replaced.getGraph());
+        new KnowledgeGraphFile(path).append(replaced.getGraph(), replaced.getGraph());
+        assertTrue(new KnowledgeGraphFile(path).read().isIsomorphicWith(replaced));
+    }
+
+    @Test
+    public void readsTheSnapshotWhileTheTurtleFileIsUnchanged() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("pokemon.ttl");
+        KnowledgeGraphFile file = new KnowledgeGraphFile(path);
+        Model model = pokedex("Bulbasaur", "Ivysaur");
+        file.replace(model.getGraph());
+        file.saveSnapshot(model.getGraph());
+
+        assertTrue(file.isSnapshotCurrent());
+        assertTrue(file.read().isIsomorphicWith(model));
+    }
+
+    @Test
+    public void aSnapshotIsStaleAfterAnEditOfTheSameSizeAndTime() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("pokemon.ttl");
+        KnowledgeGraphFile file = new KnowledgeGraphFile(path);
+        file.replace(pokedex("Bulbasaur").getGraph());
+        file.saveSnapshot(pokedex("Bulbasaur").getGraph());
+
+        FileTime modified = Files.getLastModifiedTime(path);
+        String turtle = Files.readString(path, StandardCharsets.UTF_8);
+        Files.writeString(path, turtle.replace("Bulbasaur", "Bulbasaux"), StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(path, modified);
+
+        assertFalse(file.isSnapshotCurrent());
+        assertTrue(file.read().isIsomorphicWith(pokedex("Bulbasaux")));
+    }
+
+    @Test
+    public void writingTheFileInvalidatesTheSnapshot() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("pokemon.ttl");
+        KnowledgeGraphFile file = new KnowledgeGraphFile(path);
+        Model saved = pokedex("Bulbasaur");
+        file.replace(saved.getGraph());
+        file.saveSnapshot(saved.getGraph());
+
+        Model updated = pokedex("Bulbasaur", "Ivysaur");
+        file.append(updated.getGraph(), saved.getGraph());
+        assertFalse(file.isSnapshotCurrent());
+        assertTrue(file.read().isIsomorphicWith(updated));
+    }
+
+    @Test
+    public void recordsTheVersionOfTheConverterOutput() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("pokemon.ttl");
+        KnowledgeGraphFile file = new KnowledgeGraphFile(path);
+        file.replace(pokedex("Bulbasaur").getGraph());
+        assertEquals("a file saved before versions were recorded", 0, file.readVersion());
+
+        file.recordVersion(2);
+        file.append(pokedex("Bulbasaur", "Ivysaur").getGraph(), pokedex("Bulbasaur").getGraph());
+        assertEquals(2, new KnowledgeGraphFile(path).readVersion());
+
+        Files.writeString(path.resolveSibling("pokemon.ttl.version"), "two\n", StandardCharsets.US_ASCII);
+        assertEquals(0, file.readVersion());
+    }
+
+    /**
+     * Leaves the file as an append cut short by a crash would: the record of the length before
+     * it and part of a line written after it.
+     *
+     * @return the length recorded
+     */
+    private static long simulateCrashDuringAppend(Path path) throws IOException {
+        long length = Files.size(path);
+        Files.writeString(appendRecord(path), length + "\n", StandardCharsets.US_ASCII);
+        Files.writeString(path, "\n<" + BASE + "0003> <http://www.w3.org/2000/01/rdf-schema#lab",
+            StandardCharsets.US_ASCII, StandardOpenOption.APPEND);
+        return length;
+    }
+
+    private static Path appendRecord(Path path) {
+        return path.resolveSibling(path.getFileName() + ".append");
+    }
+
+    private static Model pokedex(String... names) {
+        Model model = ModelFactory.createDefaultModel();
+        for (int i = 0; i < names.length; i++) {
+            Resource pokemon = model.createResource(BASE + String.format("%04d", i + 1));
+            pokemon.addProperty(RDFS.label, names[i], "en");
+        }
+        return model;
+    }
+}
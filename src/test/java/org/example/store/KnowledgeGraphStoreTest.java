@@ -0,0 +1,86 @@
+package org.example.store;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.system.Txn;
+import org.apache.jena.tdb2.DatabaseMgr;
+import org.apache.jena.tdb2.sys.TDBInternal;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.example.inference.InferenceDatasetGraph;
+import org.example.inference.ReasoningMode;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public class KnowledgeGraphStoreTest {
+    private static final Node BULBASAUR = NodeFactory.createURI("http://example.org/pokemon/pokemon/0001");
+    private static final Node GRASS = NodeFactory.createURI("http://example.org/pokemon/Type/Grass");
+    private static final Node POKEMON = NodeFactory.createURI("http://example.org/pokemon/Pokemon");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void isCurrentOnlyForTheRecordedFingerprint() throws IOException {
+        Path directory = folder.newFolder("store").toPath();
+        try (KnowledgeGraphStore store = new KnowledgeGraphStore(directory)) {
+            assertFalse(store.isCurrent("abc"));
+            store.recordFingerprint("abc");
+            assertTrue(store.isCurrent("abc"));
+            assertFalse(store.isCurrent("abd"));
+        } finally {
+            expel(directory);
+        }
+        try (KnowledgeGraphStore reopened = new KnowledgeGraphStore(directory)) {
+            assertTrue(reopened.isCurrent("abc"));
+        } finally {
+            expel(directory);
+        }
+    }
+
+    @Test
+    public void aReopenedStoreHoldsTheBaseAndInferredGraphs() throws IOException {
+        Path directory = folder.newFolder("store").toPath();
+        Graph base = GraphFactory.createDefaultGraph();
+        base.add(BULBASAUR, RDF.type.asNode(), GRASS);
+        base.add(GRASS, RDFS.subClassOf.asNode(), POKEMON);
+        Graph inferred = GraphFactory.createDefaultGraph();
+        inferred.add(BULBASAUR, RDF.type.asNode(), POKEMON);
+        try (KnowledgeGraphStore store = new KnowledgeGraphStore(directory)) {
+            new InferenceDatasetGraph(store.getDatasetGraph(), ReasoningMode.MATERIALIZED).load(base, inferred);
+        } finally {
+            expel(directory);
+        }
+
+        try (KnowledgeGraphStore reopened = new KnowledgeGraphStore(directory)) {
+            DatasetGraph stored = reopened.getDatasetGraph();
+            Txn.executeRead(stored, () -> {
+                assertTrue(stored.getDefaultGraph().isIsomorphicWith(base));
+                assertTrue(stored.getGraph(InferenceDatasetGraph.INFERRED_GRAPH).isIsomorphicWith(inferred));
+            });
+            InferenceDatasetGraph served = new InferenceDatasetGraph(stored, ReasoningMode.MATERIALIZED);
+            assertTrue(Txn.calculateRead(served,
+                () -> served.getDefaultGraph().contains(BULBASAUR, RDF.type.asNode(), POKEMON)));
+        } finally {
+            expel(directory);
+        }
+    }
+
+    /**
+     * Drops the database from TDB2's cache of open databases, so opening it again reads it
+     * from disk.
+     */
+    private static void expel(Path directory) {
+        TDBInternal.expel(DatabaseMgr.connectDatasetGraph(directory.resolve("tdb2").toString()));
+    }
+}